@@ -0,0 +1,54 @@
+package com.example.licenta.benchmark;
+
+import java.util.Random;
+
+/**
+ * Deterministic random formulas for the benchmarks, fully parenthesized so that every engine, including the
+ * string-based ones, reads them the same way.
+ */
+final class BenchmarkFormulas {
+
+    private BenchmarkFormulas() {
+    }
+
+    /**
+     * @param variables number of distinct variables, named a, b, c, ...
+     * @param depth     height of the operator tree; leaves are at most {@code depth} operators deep
+     * @param mix       {@code "and-or"} for ∧ and ∨ only, {@code "all"} for every operator, {@code "iff"} for
+     *                  mostly ↔, which defeats distribution and short-circuiting
+     */
+    static String generate(int variables, int depth, String mix, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder();
+        append(sb, random, variables, depth, operators(mix));
+        return sb.toString();
+    }
+
+    private static String[] operators(String mix) {
+        return switch (mix) {
+            case "and-or" -> new String[]{"∧", "∨"};
+            case "all" -> new String[]{"∧", "∨", "→", "↔"};
+            case "iff" -> new String[]{"↔", "↔", "↔", "∧", "∨"};
+            default -> throw new IllegalArgumentException("Unknown operator mix: " + mix);
+        };
+    }
+
+    private static void append(StringBuilder sb, Random random, int variables, int depth, String[] operators) {
+        if (random.nextInt(5) == 0) {
+            sb.append('¬');
+        }
+        if (depth == 0) {
+            sb.append(variableName(random.nextInt(variables)));
+            return;
+        }
+        sb.append('(');
+        append(sb, random, variables, depth - 1, operators);
+        sb.append(' ').append(operators[random.nextInt(operators.length)]).append(' ');
+        append(sb, random, variables, depth - 1, operators);
+        sb.append(')');
+    }
+
+    private static String variableName(int index) {
+        return index < 26 ? String.valueOf((char) ('a' + index)) : "x" + index;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.licenta.benchmark;
+
+import com.example.licenta.logic.CompiledFormula;
+import com.example.licenta.logic.FormulaEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluating a formula for one valuation: from the text, as the endpoints used to, and on the compiled
+ * program.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EvaluatorBenchmark {
+
+    @Param({"4", "8", "16"})
+    int variables;
+
+    @Param({"4", "8"})
+    int depth;
+
+    @Param({"and-or", "all", "iff"})
+    String mix;
+
+    String formula;
+    Map<String, Boolean> valuation;
+    CompiledFormula compiled;
+    long row;
+
+    @Setup
+    public void setUp() {
+        formula = BenchmarkFormulas.generate(variables, depth, mix, 42);
+        compiled = CompiledFormula.compile(formula);
+        List<String> names = compiled.getVariables();
+        valuation = new HashMap<>();
+        for (int j = 0; j < names.size(); j++) {
+            boolean value = j % 3 != 0;
+            valuation.put(names.get(j), value);
+            row = row << 1 | (value ? 1 : 0);
+        }
+    }
+
+    @Benchmark
+    public boolean evaluateText() {
+        return FormulaEvaluator.evaluate(formula, valuation);
+    }
+
+    @Benchmark
+    public boolean evaluateCompiled() {
+        return compiled.evaluate(row);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.licenta.benchmark;
+
+import com.example.licenta.logic.NormalFormConverter;
+import com.example.licenta.normalForm.FormulaService;
+import com.example.licenta.normalForm.TransformationStep;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normal-form conversion: the string-based converter and the node pipeline behind /api/normal-form/transform.
+ * Distribution is exponential in the worst case, so the formulas are kept small.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NormalFormBenchmark {
+
+    @Param({"3", "5"})
+    int variables;
+
+    @Param({"3", "4"})
+    int depth;
+
+    @Param({"and-or", "all"})
+    String mix;
+
+    String formula;
+    NormalFormConverter converter;
+    FormulaService formulaService;
+    AnnotationConfigApplicationContext context;
+
+    @Setup
+    public void setUp() {
+        formula = BenchmarkFormulas.generate(variables, depth, mix, 42);
+        converter = new NormalFormConverter();
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(SimpleMeterRegistry.class);
+        context.scan("com.example.licenta.normalForm");
+        context.refresh();
+        formulaService = context.getBean(FormulaService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String toCnfText() {
+        return converter.toNormalForm(formula, true);
+    }
+
+    @Benchmark
+    public List<TransformationStep> transform(Transform transform) {
+        return formulaService.transformFormula(formula, transform.mode);
+    }
+
+    /** Only the node pipeline has modes, so they do not multiply the other benchmark. */
+    @State(Scope.Benchmark)
+    public static class Transform {
+        @Param({FormulaService.MODE_DISTRIBUTE, FormulaService.MODE_TSEITIN})
+        String mode;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.licenta.benchmark;
+
+import com.example.licenta.logic.CompiledFormula;
+import com.example.licenta.logic.FormulaEvaluator;
+import com.example.licenta.parser.ParseResult;
+import com.example.licenta.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a formula: parsing (which also validates it), compiling it and the regex variable scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParserBenchmark {
+
+    @Param({"4", "8", "16"})
+    int variables;
+
+    @Param({"4", "8"})
+    int depth;
+
+    @Param({"and-or", "all", "iff"})
+    String mix;
+
+    String formula;
+
+    @Setup
+    public void setUp() {
+        formula = BenchmarkFormulas.generate(variables, depth, mix, 42);
+    }
+
+    @Benchmark
+    public ParseResult parse() {
+        return Parser.parse(formula);
+    }
+
+    @Benchmark
+    public CompiledFormula compile() {
+        return CompiledFormula.compile(formula);
+    }
+
+    @Benchmark
+    public Set<String> extractVariables() {
+        return FormulaEvaluator.extractVariables(formula);
+    }
+}
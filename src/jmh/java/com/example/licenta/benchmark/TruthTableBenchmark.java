@@ -0,0 +1,61 @@
+package com.example.licenta.benchmark;
+
+import com.example.licenta.logic.CompiledFormula;
+import com.example.licenta.logic.FormulaEvaluator;
+import com.example.licenta.logic.PackedTruthTable;
+import com.example.licenta.logic.TruthTableGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole truth tables: the row maps returned by the endpoint, sequential and on the fork/join pool, and the
+ * packed columns alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TruthTableBenchmark {
+
+    @Param({"8", "12", "16"})
+    int variables;
+
+    @Param({"6"})
+    int depth;
+
+    @Param({"and-or", "all"})
+    String mix;
+
+    String formula;
+    Set<String> variableSet;
+    CompiledFormula compiled;
+    TruthTableGenerator sequential;
+    TruthTableGenerator parallel;
+
+    @Setup
+    public void setUp() {
+        formula = BenchmarkFormulas.generate(variables, depth, mix, 42);
+        variableSet = FormulaEvaluator.extractVariables(formula);
+        compiled = CompiledFormula.compile(formula);
+        sequential = new TruthTableGenerator(0, Long.MAX_VALUE, 30);
+        parallel = new TruthTableGenerator(0, 0, 30);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> rows() {
+        return sequential.generateTruthTable(variableSet, formula);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> rowsParallel() {
+        return parallel.generateTruthTable(variableSet, formula);
+    }
+
+    @Benchmark
+    public PackedTruthTable packedColumns() {
+        return PackedTruthTable.generate(compiled);
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.licenta.bdd;
+
+import com.example.licenta.execution.Deadline;
+import com.example.licenta.logic.CompiledFormula;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * A reduced ordered binary decision diagram (ROBDD) manager.
+ * <p>
+ * Nodes are integers indexing three parallel arrays (level, low, high); 0 and 1 are the terminals. Every node
+ * is created through a hash-consing unique table, so two formulas built in the same manager denote the same
+ * boolean function if and only if they are the same node: equivalence is {@code ==}, a tautology is
+ * {@link #TRUE} and a contradiction is {@link #FALSE}.
+ * <p>
+ * All operations go through {@link #ite(int, int, int)}, whose results are memoized in a direct-mapped
+ * computed table. The variable order is fixed when the manager is created; a good order keeps the diagrams
+ * small, a bad one can make them exponential, so {@link #occurrenceOrder(CompiledFormula...)} is offered as a
+ * cheap heuristic. Managers are not thread-safe.
+ */
+public final class Bdd {
+
+    public static final int FALSE = 0;
+    public static final int TRUE = 1;
+
+    /** Default limit on the number of nodes, about 50 MB of arrays. */
+    public static final int DEFAULT_MAX_NODES = 1 << 22;
+
+    private static final int CACHE_SIZE = 1 << 16;
+
+    private final List<String> variables;
+    private final Map<String, Integer> levels = new HashMap<>();
+    private final int maxNodes;
+    private final Deadline deadline = Deadline.current();
+
+    private int[] level;
+    private int[] low;
+    private int[] high;
+    private int size;
+
+    // Unique table: chained hashing, next[] is parallel to the node arrays
+    private int[] buckets;
+    private int[] next;
+
+    // Computed table: {f, g, h, result} per entry, f == -1 when empty
+    private int[] cache;
+    private int cacheMask;
+
+    /**
+     * @param variables the variable order, top of the diagram first
+     */
+    public Bdd(List<String> variables) {
+        this(variables, DEFAULT_MAX_NODES);
+    }
+
+    public Bdd(List<String> variables, int maxNodes) {
+        this.variables = List.copyOf(variables);
+        for (int i = 0; i < this.variables.size(); i++) {
+            if (levels.putIfAbsent(this.variables.get(i), i) != null) {
+                throw new IllegalArgumentException("Duplicate variable: " + this.variables.get(i));
+            }
+        }
+        this.maxNodes = maxNodes;
+
+        int capacity = 1024;
+        level = new int[capacity];
+        low = new int[capacity];
+        high = new int[capacity];
+        next = new int[capacity];
+        buckets = new int[capacity];
+        Arrays.fill(buckets, -1);
+        // Terminals sit below every variable
+        for (int t = FALSE; t <= TRUE; t++) {
+            level[t] = this.variables.size();
+            low[t] = t;
+            high[t] = t;
+        }
+        size = 2;
+
+        cache = new int[CACHE_SIZE * 4];
+        cacheMask = CACHE_SIZE - 1;
+        for (int i = 0; i < cache.length; i += 4) {
+            cache[i] = -1;
+        }
+    }
+
+    /**
+     * Orders the variables by their first occurrence in the formulas, left to right. Variables that appear
+     * together in the text are usually related, and keeping them close in the order keeps the diagram small.
+     */
+    public static List<String> occurrenceOrder(CompiledFormula... formulas) {
+        Set<String> order = new LinkedHashSet<>();
+        for (CompiledFormula formula : formulas) {
+            // Ids are assigned in post-order, so increasing ids follow the source text from left to right
+            for (int i = 0; i < formula.size(); i++) {
+                if (formula.op(i) == CompiledFormula.VAR) {
+                    order.add(formula.getVariables().get(formula.variableIndex(i)));
+                }
+            }
+            order.addAll(formula.getVariables());
+        }
+        return new ArrayList<>(order);
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /** Number of nodes created so far, terminals included. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Builds the diagram of a compiled formula. Its variables must all belong to this manager's order.
+     *
+     * @throws IllegalStateException if the diagram would exceed the node limit
+     */
+    public int build(CompiledFormula formula) {
+        int[] nodes = new int[formula.size()];
+        for (int i = 0; i < formula.size(); i++) {
+            int l = formula.left(i);
+            int r = formula.right(i);
+            nodes[i] = switch (formula.op(i)) {
+                case CompiledFormula.VAR -> variable(formula.getVariables().get(formula.variableIndex(i)));
+                case CompiledFormula.CONST -> l != 0 ? TRUE : FALSE;
+                case CompiledFormula.NOT -> not(nodes[l]);
+                case CompiledFormula.AND -> and(nodes[l], nodes[r]);
+                case CompiledFormula.OR -> or(nodes[l], nodes[r]);
+                case CompiledFormula.IMPLIES -> implies(nodes[l], nodes[r]);
+                default -> iff(nodes[l], nodes[r]);
+            };
+        }
+        return nodes[formula.getRoot()];
+    }
+
+    public int variable(String name) {
+        Integer l = levels.get(name);
+        if (l == null) {
+            throw new IllegalArgumentException("Unknown variable: " + name);
+        }
+        return mk(l, FALSE, TRUE);
+    }
+
+    public int not(int f) {
+        return ite(f, FALSE, TRUE);
+    }
+
+    public int and(int f, int g) {
+        return ite(f, g, FALSE);
+    }
+
+    public int or(int f, int g) {
+        return ite(f, TRUE, g);
+    }
+
+    public int implies(int f, int g) {
+        return ite(f, g, TRUE);
+    }
+
+    public int iff(int f, int g) {
+        return ite(f, g, not(g));
+    }
+
+    public int xor(int f, int g) {
+        return ite(f, not(g), g);
+    }
+
+    /**
+     * If-then-else: the function {@code (f ∧ g) ∨ (¬f ∧ h)}.
+     */
+    public int ite(int f, int g, int h) {
+        if (f == TRUE) {
+            return g;
+        }
+        if (f == FALSE) {
+            return h;
+        }
+        if (g == h) {
+            return g;
+        }
+        if (g == TRUE && h == FALSE) {
+            return f;
+        }
+
+        int slot = (int) (((f * 0x9E3779B1L) ^ (g * 0x85EBCA77L) ^ (h * 0xC2B2AE3DL)) >>> 16) & cacheMask;
+        int entry = slot << 2;
+        if (cache[entry] == f && cache[entry + 1] == g && cache[entry + 2] == h) {
+            return cache[entry + 3];
+        }
+
+        int top = Math.min(level[f], Math.min(level[g], level[h]));
+        int l = ite(cofactor(f, top, false), cofactor(g, top, false), cofactor(h, top, false));
+        int r = ite(cofactor(f, top, true), cofactor(g, top, true), cofactor(h, top, true));
+        int result = mk(top, l, r);
+
+        cache[entry] = f;
+        cache[entry + 1] = g;
+        cache[entry + 2] = h;
+        cache[entry + 3] = result;
+        return result;
+    }
+
+    /** Level of a node's variable, or the number of variables for a terminal. */
+    public int level(int node) {
+        return level[node];
+    }
+
+    public int low(int node) {
+        return low[node];
+    }
+
+    public int high(int node) {
+        return high[node];
+    }
+
+    /**
+     * Number of assignments of all the manager's variables that make the function true.
+     */
+    public BigInteger satCount(int node) {
+        Map<Integer, BigInteger> memo = new HashMap<>();
+        return countBelow(node, memo).shiftLeft(level[node]);
+    }
+
+    // Models over the variables at or below the node's level
+    private BigInteger countBelow(int node, Map<Integer, BigInteger> memo) {
+        if (node <= TRUE) {
+            return node == TRUE ? BigInteger.ONE : BigInteger.ZERO;
+        }
+        BigInteger cached = memo.get(node);
+        if (cached != null) {
+            return cached;
+        }
+        int l = low[node];
+        int h = high[node];
+        BigInteger count = countBelow(l, memo).shiftLeft(level[l] - level[node] - 1)
+                .add(countBelow(h, memo).shiftLeft(level[h] - level[node] - 1));
+        memo.put(node, count);
+        return count;
+    }
+
+    /**
+     * Returns an assignment of the variables on one path to the terminal {@code value}, or null if the
+     * function never takes that value. Variables the path skips are free; they are set to false.
+     */
+    public Map<String, Boolean> anySat(int node, boolean value) {
+        int target = value ? TRUE : FALSE;
+        if (node <= TRUE && node != target) {
+            return null;
+        }
+        Map<String, Boolean> assignment = new LinkedHashMap<>();
+        for (String variable : variables) {
+            assignment.put(variable, false);
+        }
+        while (node > TRUE) {
+            // In a reduced diagram every non-terminal node reaches both terminals, so only a low edge
+            // straight into the wrong terminal forces the high branch
+            if (low[node] == 1 - target) {
+                assignment.put(variables.get(level[node]), true);
+                node = high[node];
+            } else {
+                node = low[node];
+            }
+        }
+        return assignment;
+    }
+
+    /** Number of nodes reachable from {@code node}, terminals included. */
+    public int nodeCount(int node) {
+        Set<Integer> seen = new HashSet<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            int n = stack.pop();
+            if (seen.add(n) && n > TRUE) {
+                stack.push(low[n]);
+                stack.push(high[n]);
+            }
+        }
+        return seen.size();
+    }
+
+    private int cofactor(int node, int top, boolean value) {
+        if (level[node] != top) {
+            return node;
+        }
+        return value ? high[node] : low[node];
+    }
+
+    private int mk(int l, int lo, int hi) {
+        if (lo == hi) {
+            return lo;
+        }
+        int bucket = hash(l, lo, hi) & (buckets.length - 1);
+        for (int n = buckets[bucket]; n != -1; n = next[n]) {
+            if (level[n] == l && low[n] == lo && high[n] == hi) {
+                return n;
+            }
+        }
+        if (size == maxNodes) {
+            throw new IllegalStateException("BDD node limit exceeded: " + maxNodes);
+        }
+        if (size == level.length) {
+            grow();
+            bucket = hash(l, lo, hi) & (buckets.length - 1);
+        }
+        if ((size & 4095) == 0 && deadline != null) {
+            deadline.check();
+        }
+        int n = size++;
+        level[n] = l;
+        low[n] = lo;
+        high[n] = hi;
+        next[n] = buckets[bucket];
+        buckets[bucket] = n;
+        return n;
+    }
+
+    private void grow() {
+        int capacity = level.length * 2;
+        level = Arrays.copyOf(level, capacity);
+        low = Arrays.copyOf(low, capacity);
+        high = Arrays.copyOf(high, capacity);
+        next = Arrays.copyOf(next, capacity);
+        buckets = new int[capacity];
+        Arrays.fill(buckets, -1);
+        for (int n = 2; n < size; n++) {
+            int bucket = hash(level[n], low[n], high[n]) & (capacity - 1);
+            next[n] = buckets[bucket];
+            buckets[bucket] = n;
+        }
+    }
+
+    private static int hash(int l, int lo, int hi) {
+        int h = l * 0x9E3779B1 + lo * 0x85EBCA77 + hi * 0xC2B2AE3D;
+        return h ^ (h >>> 15);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.licenta.controller;
+
+import com.example.licenta.execution.Deadline;
+import com.example.licenta.execution.DeadlineExceededException;
+import com.example.licenta.execution.DeadlineExceptionHandler;
+import com.example.licenta.normalForm.FormulaService;
+import com.example.licenta.normalForm.TransformationStep;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs many single-formula operations in one request. Every item is the body the corresponding endpoint
+ * takes, plus an {@code operation}; items run concurrently on a bounded pool and their results come back in
+ * the order of the request. A failing item reports its own error and does not fail the batch.
+ */
+@CrossOrigin(origins = "http://localhost:5173/")
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+
+    @Autowired
+    private FormulaController formulaController;
+    @Autowired
+    private NormalFormController normalFormController;
+    @Autowired
+    private FormulaService formulaService;
+
+    private final int maxItems;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Function<Map<String, String>, Object>> operations = new LinkedHashMap<>();
+
+    /**
+     * @param threads  workers shared by all batches; 0 means one per core
+     * @param queue    items waiting for a worker; beyond that the request thread runs items itself, which
+     *                 slows down the batches that flood the pool
+     * @param maxItems largest accepted batch
+     */
+    public BatchController(@Value("${batch.threads:0}") int threads,
+                           @Value("${batch.queue-capacity:1000}") int queue,
+                           @Value("${batch.max-items:1000}") int maxItems) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue),
+                r -> {
+                    Thread thread = new Thread(r, "batch-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.maxItems = maxItems;
+
+        operations.put("validate", body -> unwrap(formulaController.validate(body)));
+        operations.put("truth-table", body -> unwrap(formulaController.generateTruthTable(body)));
+        operations.put("classify", body -> unwrap(formulaController.classifyFormula(body)));
+        operations.put("equivalence", body -> unwrap(formulaController.checkEquivalence(body)));
+        operations.put("subformulas", body -> unwrap(formulaController.getSubformulas(body)));
+        operations.put("minimize", body -> unwrap(formulaController.minimize(body)));
+        operations.put("check", body -> {
+            Map<String, Object> result = normalFormController.checkNormalForm(body);
+            if (result.containsKey("error")) {
+                throw new ItemException(result);
+            }
+            return result;
+        });
+        operations.put("transform", body -> {
+            String mode = body.getOrDefault("mode", FormulaService.MODE_DISTRIBUTE);
+            String formula = body.get("formula");
+            if (formula == null || formula.trim().isEmpty()) {
+                throw new ItemException(Map.of("error", "Formula is required"));
+            }
+            List<TransformationStep> steps = formulaService.transformFormula(formula, mode, "/api/batch");
+            // The error is the last step: a formula that is too large is only rejected after the parsing and NNF steps
+            TransformationStep last = steps.isEmpty() ? null : steps.get(steps.size() - 1);
+            if (last != null && "Error".equals(last.getDescription())) {
+                throw new ItemException(Map.of("error", last.getFormula()));
+            }
+            return steps;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Body: {@code {"items": [{"operation": "classify", "formula": "..."}, ...]}}. Operations: validate,
+     * truth-table, classify, equivalence, minimize, subformulas, check and transform (with an optional
+     * {@code mode}).
+     * Each result holds {@code index}, {@code operation}, {@code status} ("ok" or "error") and either
+     * {@code result} or {@code error}.
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> runBatch(@RequestBody Map<String, List<Map<String, String>>> body) {
+        List<Map<String, String>> items = body.get("items");
+        if (items == null || items.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Items are required"));
+        }
+        if (items.size() > maxItems) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Too many items: " + items.size() + " (at most " + maxItems + ")"));
+        }
+
+        // Items run under the deadline of the batch request
+        Deadline deadline = Deadline.current();
+        List<Future<Map<String, Object>>> futures = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            Map<String, String> item = items.get(i);
+            futures.add(executor.submit(() -> deadline == null
+                    ? runItem(index, item)
+                    : deadline.run(() -> runItem(index, item))));
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(items.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                return ResponseEntity.internalServerError().body(Map.of("error", "Batch interrupted"));
+            } catch (ExecutionException e) {
+                results.add(error(i, items.get(i), Map.of("error", String.valueOf(e.getCause().getMessage()))));
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("count", results.size());
+        response.put("failed", results.stream().filter(r -> "error".equals(r.get("status"))).count());
+        response.put("results", results);
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> runItem(int index, Map<String, String> item) {
+        if (item == null) {
+            return error(index, null, Map.of("error", "Item is required"));
+        }
+        Function<Map<String, String>, Object> operation = operations.get(item.get("operation"));
+        if (operation == null) {
+            return error(index, item, Map.of("error", "Unknown operation: " + item.get("operation")
+                    + " (expected one of " + operations.keySet() + ")"));
+        }
+        try {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", index);
+            result.put("operation", item.get("operation"));
+            result.put("status", "ok");
+            result.put("result", operation.apply(item));
+            return result;
+        } catch (ItemException e) {
+            return error(index, item, e.body);
+        } catch (DeadlineExceededException e) {
+            return error(index, item, DeadlineExceptionHandler.body(e));
+        } catch (Exception e) {
+            return error(index, item, Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private Map<String, Object> error(int index, Map<String, String> item, Map<String, ?> body) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        result.put("operation", item == null ? null : item.get("operation"));
+        result.put("status", "error");
+        result.putAll(body);
+        return result;
+    }
+
+    private static Object unwrap(ResponseEntity<Map<String, Object>> response) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new ItemException(response.getBody() != null ? response.getBody()
+                    : Map.of("error", "HTTP " + response.getStatusCode().value()));
+        }
+        return response.getBody();
+    }
+
+    /** An item that failed with the error body its single endpoint would have returned. */
+    private static final class ItemException extends RuntimeException {
+        private final Map<String, ?> body;
+
+        ItemException(Map<String, ?> body) {
+            super(String.valueOf(body.get("error")), null, false, false);
+            this.body = body;
+        }
+    }
+}
@@ -1,10 +1,25 @@
 package com.example.licenta.controller;
 
+import com.example.licenta.bdd.Bdd;
+import com.example.licenta.execution.DeadlineExceededException;
 import com.example.licenta.logic.*;
+import com.example.licenta.minimize.MinimalForm;
+import com.example.licenta.minimize.QuineMcCluskey;
+import com.example.licenta.sat.Classification;
+import com.example.licenta.sat.Equivalence;
+import com.example.licenta.sat.SatClassifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 
@@ -12,13 +27,27 @@ import java.util.*;
 @RestController
 @RequestMapping("/api/formula")
 public class FormulaController {
+    // The ROBDD statistics of /equivalence are optional: a small limit gives up on them early
+    private static final int EQUIVALENCE_STATS_MAX_NODES = 1 << 16;
 
     @Autowired
-    private FormulaValidator validator;
+    private FormulaCache formulaCache;
     @Autowired
     private TruthTableGenerator tableGenerator;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private SatClassifier satClassifier;
 
+    private final int maxTruthTableVariables;
 
+    /**
+     * @param maxTruthTableVariables largest variable count of a table returned whole (2^n rows); the streamed
+     *                               table is not limited
+     */
+    public FormulaController(@Value("${truth-table.max-variables:20}") int maxTruthTableVariables) {
+        this.maxTruthTableVariables = maxTruthTableVariables;
+    }
 
 
     @PostMapping("/validate")
@@ -30,10 +59,14 @@ public class FormulaController {
                         .body(Map.of("error", "Formula is required"));
             }
 
-            boolean valid = validator.isFormula(formula);
+            ParsedFormula parsed = formulaCache.get(formula);
+            List<Map<String, Object>> diagnostics = parsed.getDiagnostics().stream()
+                    .map(d -> Map.<String, Object>of("position", d.getPosition(), "message", d.getMessage()))
+                    .toList();
             return ResponseEntity.ok(Map.of(
-                    "valid", valid,
-                    "normalized", validator.getNormalizedFormula()
+                    "valid", parsed.isValid(),
+                    "normalized", parsed.getNormalizedFormula(),
+                    "diagnostics", diagnostics
             ));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -50,7 +83,8 @@ public class FormulaController {
                         .body(Map.of("error", "Formula is required"));
             }
 
-            if (!validator.isFormula(formula)) {
+            ParsedFormula parsed = formulaCache.get(formula);
+            if (!parsed.isValid()) {
                 return ResponseEntity.badRequest()
                         .body(Map.of(
                                 "error", "Invalid formula",
@@ -58,15 +92,49 @@ public class FormulaController {
                         ));
             }
 
-            Set<String> variables = FormulaEvaluator.extractVariables(formula);
-            List<Map<String, String>> table = tableGenerator.generateTruthTable(variables, formula);
+            Set<String> variables = parsed.getVariables();
+            if (variables.size() > maxTruthTableVariables) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of(
+                                "error", "Truth table too large",
+                                "details", variables.size() + " variables, at most " + maxTruthTableVariables
+                                        + " (use /truth-table/stream for larger tables)"
+                        ));
+            }
+
+            // Format compact: antetul o singură dată, apoi fiecare coloană codificată separat
+            if ("columnar".equals(body.get("format"))) {
+                List<String> headers = parsed.getHeaders();
+                return ResponseEntity.ok(Map.of(
+                        "formula", formula,
+                        "variables", new ArrayList<>(variables),
+                        "format", "columnar",
+                        "rowCount", 1L << variables.size(),
+                        "headers", headers,
+                        "columns", tableGenerator.generateColumns(parsed, headers)
+                ));
+            }
+
+            // "evaluation": "gray" evaluează rând cu rând în ordinea codului Gray, doar nodurile afectate
+            List<Map<String, String>> table = "gray".equals(body.get("evaluation"))
+                    ? tableGenerator.generateTruthTableIncremental(parsed)
+                    : tableGenerator.generateTruthTable(parsed);
 
             return ResponseEntity.ok(Map.of(
                     "formula", formula,
                     "variables", new ArrayList<>(variables),
                     "table", table,
-                    "headers", getTableHeaders(variables, formula)
+                    "headers", parsed.getHeaders()
             ));
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            // Tabel prea mare: respins înainte de alocare
+            return ResponseEntity.badRequest()
+                    .body(Map.of(
+                            "error", "Truth table too large",
+                            "details", e.getMessage()
+                    ));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of(
@@ -76,29 +144,106 @@ public class FormulaController {
         }
     }
 
-    private List<String> getTableHeaders(Set<String> variables, String formula) {
-        List<String> headers = new ArrayList<>(variables);
+    /**
+     * Streaming variant of {@code /truth-table} as newline-delimited JSON. The first line holds
+     * {@code formula}, {@code variables} and {@code headers}; every following line is one row, written as
+     * soon as its block of rows has been computed.
+     */
+    @PostMapping("/truth-table/stream")
+    public ResponseEntity<StreamingResponseBody> streamTruthTable(@RequestBody Map<String, String> body) {
+        String formula = body.get("formula");
+        if (formula == null || formula.trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(json(Map.of("error", "Formula is required")));
+        }
 
-        // Folosește SubformulaExtractor pentru a extrage subformulele
-        SubformulaExtractor extractor = new SubformulaExtractor();
-        List<String> subformulas = extractor.extractSubformulas(formula);
+        ParsedFormula parsed = formulaCache.get(formula);
+        if (!parsed.isValid()) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(json(Map.of(
+                            "error", "Invalid formula",
+                            "suggestion", "Check your syntax and try again"
+                    )));
+        }
 
-        // Elimină duplicatele și variabilele deja prezente în antet
-        Set<String> variableSet = new HashSet<>(variables);
-        subformulas = subformulas.stream()
-                .filter(f -> !variableSet.contains(f)) // elimină variabilele deja adăugate
-                .distinct()
-                .sorted(Comparator.comparingInt(String::length))
-                .toList();
+        Map<String, Object> header = Map.of(
+                "formula", formula,
+                "variables", new ArrayList<>(parsed.getVariables()),
+                "headers", parsed.getHeaders()
+        );
+
+        StreamingResponseBody stream = outputStream -> {
+            Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 1 << 16);
+            out.write(objectMapper.writeValueAsString(header));
+            out.write('\n');
+            tableGenerator.writeTruthTable(parsed, out);
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(stream);
+    }
 
-        headers.addAll(subformulas);
+    /**
+     * The canonical ("perfect") DNF, or CNF with {@code "form": "cnf"}, as newline-delimited JSON: a first line
+     * with {@code formula}, {@code form} and {@code variables}, one line per minterm / maxterm, and a last line
+     * with their {@code count}. See {@link CanonicalForms}.
+     */
+    @PostMapping("/canonical/stream")
+    public ResponseEntity<StreamingResponseBody> streamCanonicalForm(@RequestBody Map<String, String> body) {
+        String formula = body.get("formula");
+        if (formula == null || formula.trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(json(Map.of("error", "Formula is required")));
+        }
+        String form = body.getOrDefault("form", "dnf");
+        if (!form.equals("dnf") && !form.equals("cnf")) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(json(Map.of("error", "Unknown form: " + form)));
+        }
 
-        // Adaugă formula principală la final (doar dacă nu e deja inclusă)
-        if (!headers.contains(formula)) {
-            headers.add(formula);
+        ParsedFormula parsed = formulaCache.get(formula);
+        if (!parsed.isValid()) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(json(Map.of("error", "Invalid formula")));
         }
 
-        return headers;
+        Map<String, Object> header = Map.of(
+                "formula", formula,
+                "form", form,
+                "variables", new ArrayList<>(parsed.getVariables())
+        );
+
+        StreamingResponseBody stream = outputStream -> {
+            Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 1 << 16);
+            out.write(objectMapper.writeValueAsString(header));
+            out.write('\n');
+            CanonicalForms.write(parsed.getCompiled(), form.equals("cnf"), out);
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(stream);
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> cacheStats() {
+        return formulaCache.getStats();
+    }
+
+    private Map<String, String> toBits(Map<String, Boolean> assignment) {
+        Map<String, String> bits = new LinkedHashMap<>();
+        assignment.forEach((variable, value) -> bits.put(variable, value ? "1" : "0"));
+        return bits;
+    }
+
+    private StreamingResponseBody json(Object body) {
+        return outputStream -> objectMapper.writeValue(outputStream, body);
     }
 
     @PostMapping("/classify")
@@ -109,36 +254,163 @@ public class FormulaController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Formula is required"));
             }
 
-            if (!validator.isFormula(formula)) {
+            ParsedFormula parsed = formulaCache.get(formula);
+            if (!parsed.isValid()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Invalid formula"));
             }
 
-            Set<String> variables = FormulaEvaluator.extractVariables(formula);
-            List<Map<String, String>> table = tableGenerator.generateTruthTable(variables, formula);
+            // Două apeluri SAT: F și ¬F, fiecare cu un martor
+            Classification result = satClassifier.classify(parsed.getAst());
 
-            List<String> headers = getTableHeaders(variables, formula);
-            String formulaKey = headers.get(headers.size() - 1); // ultima coloană e formula completă
+            String classification = result.isTautology() ? "Tautologie" :
+                    result.isContradiction() ? "Contradicție" :
+                            "Formulă realizabilă";
 
-            boolean allTrue = true;
-            boolean allFalse = true;
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("formula", formula);
+            response.put("classification", classification);
+            if (result.getSatisfyingAssignment() != null) {
+                response.put("satisfyingAssignment", toBits(result.getSatisfyingAssignment()));
+            }
+            if (result.getFalsifyingAssignment() != null) {
+                response.put("falsifyingAssignment", toBits(result.getFalsifyingAssignment()));
+            }
+            return ResponseEntity.ok(response);
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Classification failed: " + e.getMessage()));
+        }
+    }
 
-            for (Map<String, String> row : table) {
-                String value = row.get(formulaKey);
-                if ("0".equals(value)) allTrue = false;
-                if ("1".equals(value)) allFalse = false;
+    @PostMapping("/equivalence")
+    public ResponseEntity<Map<String, Object>> checkEquivalence(@RequestBody Map<String, String> body) {
+        try {
+            String formula1 = body.get("formula1");
+            String formula2 = body.get("formula2");
+            if (formula1 == null || formula1.trim().isEmpty() || formula2 == null || formula2.trim().isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Both formulas are required"));
             }
 
-            String classification = allTrue ? "Tautologie" :
-                    allFalse ? "Contradicție" :
-                            "Formulă realizabilă";
+            ParsedFormula parsed1 = formulaCache.get(formula1);
+            ParsedFormula parsed2 = formulaCache.get(formula2);
+            if (!parsed1.isValid() || !parsed2.isValid()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid formula"));
+            }
 
-            return ResponseEntity.ok(Map.of(
-                    "formula", formula,
-                    "classification", classification
-            ));
+            // The requested order (comma-separated) may only name variables of the formulas: an extra one
+            // would double the model counts
+            Set<String> requestedOrder = new LinkedHashSet<>();
+            String order = body.get("order");
+            if (order != null && !order.isBlank()) {
+                Set<String> known = new HashSet<>(parsed1.getVariables());
+                known.addAll(parsed2.getVariables());
+                for (String variable : order.split(",")) {
+                    String name = variable.trim();
+                    if (name.isEmpty()) {
+                        continue;
+                    }
+                    if (!known.contains(name)) {
+                        return ResponseEntity.badRequest().body(Map.of(
+                                "error", "Unknown variable in order",
+                                "variable", name
+                        ));
+                    }
+                    requestedOrder.add(name);
+                }
+            }
+
+            // The verdict comes from the SAT miter F1 ⊕ F2, which does not depend on the number of variables
+            Equivalence equivalence = satClassifier.compare(parsed1.getAst(), parsed2.getAst());
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("formula1", formula1);
+            response.put("formula2", formula2);
+            response.put("equivalent", equivalence.isEquivalent());
+            response.put("firstImpliesSecond", equivalence.isFirstImpliesSecond());
+            response.put("secondImpliesFirst", equivalence.isSecondImpliesFirst());
+            if (!equivalence.isEquivalent()) {
+                response.put("counterexample", toBits(equivalence.getCounterexample()));
+                response.put("value1", equivalence.getFirstValue() ? "1" : "0");
+                response.put("value2", equivalence.getFirstValue() ? "0" : "1");
+            }
+
+            // Model counts and diagram sizes are only reported while the formulas compile, the ROBDD stays
+            // within its own node limit and the deadline holds; the verdict above is already complete
+            try {
+                CompiledFormula c1 = parsed1.getCompiled();
+                CompiledFormula c2 = parsed2.getCompiled();
+
+                // Variable order: the requested one, completed with the order of first occurrence
+                Set<String> variableOrder = new LinkedHashSet<>(requestedOrder);
+                variableOrder.addAll(Bdd.occurrenceOrder(c1, c2));
+                List<String> bddOrder = new ArrayList<>(variableOrder);
+
+                Bdd bdd = new Bdd(bddOrder, EQUIVALENCE_STATS_MAX_NODES);
+                int f1 = bdd.build(c1);
+                int f2 = bdd.build(c2);
+                response.put("variableOrder", bddOrder);
+                response.put("modelCount1", bdd.satCount(f1));
+                response.put("modelCount2", bdd.satCount(f2));
+                response.put("bddNodes1", bdd.nodeCount(f1));
+                response.put("bddNodes2", bdd.nodeCount(f2));
+            } catch (IllegalArgumentException | IllegalStateException | DeadlineExceededException e) {
+                response.put("bddSkipped", e.getMessage());
+            }
+            return ResponseEntity.ok(response);
+        } catch (DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Classification failed: " + e.getMessage()));
+                    .body(Map.of("error", "Equivalence check failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Minimal DNF (or CNF with {@code "form": "cnf"}) by Quine–McCluskey and Petrick's method, with the prime
+     * implicants it was chosen from.
+     */
+    @PostMapping("/minimize")
+    public ResponseEntity<Map<String, Object>> minimize(@RequestBody Map<String, String> body) {
+        try {
+            String formula = body.get("formula");
+            if (formula == null || formula.trim().isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Formula is required"));
+            }
+            String form = body.getOrDefault("form", "dnf");
+            if (!form.equals("dnf") && !form.equals("cnf")) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Unknown form: " + form));
+            }
+
+            ParsedFormula parsed = formulaCache.get(formula);
+            if (!parsed.isValid()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid formula"));
+            }
+            if (parsed.getVariables().size() > QuineMcCluskey.MAX_VARIABLES) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Too many variables for minimization",
+                        "maxVariables", QuineMcCluskey.MAX_VARIABLES));
+            }
+
+            MinimalForm minimal = QuineMcCluskey.minimize(parsed.getCompiled(), form.equals("cnf"));
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("formula", formula);
+            response.put("form", form);
+            response.put("variables", minimal.getVariables());
+            response.put("minimal", minimal.toFormula());
+            response.put("exact", minimal.getCover().isExact());
+            response.put("terms", minimal.getCover().getChosen().size());
+            response.put("literals", minimal.getLiteralCount());
+            response.put("primeImplicants", minimal.getPrimes().stream().map(minimal::render).toList());
+            response.put("essentialPrimeImplicants",
+                    minimal.getCover().getEssential().stream().map(minimal::render).toList());
+            return ResponseEntity.ok(response);
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Minimization failed: " + e.getMessage()));
         }
     }
 
@@ -150,20 +422,14 @@ public class FormulaController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Formula is required"));
             }
 
-            if (!validator.isFormula(formula)) {
+            ParsedFormula parsed = formulaCache.get(formula);
+            if (!parsed.isValid()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Invalid formula"));
             }
 
-            SubformulaExtractor extractor = new SubformulaExtractor();
-            List<String> subformulas = extractor.extractSubformulas(formula)
-                    .stream()
-                    .distinct()
-                    .sorted(Comparator.comparingInt(String::length))
-                    .toList();
-
             return ResponseEntity.ok(Map.of(
                     "formula", formula,
-                    "subformulas", subformulas
+                    "subformulas", parsed.getSubformulas()
             ));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -1,15 +1,21 @@
 package com.example.licenta.controller;
 
 import com.example.licenta.logic.*;
-import com.example.licenta.normalForm.FormulaService;
-import com.example.licenta.normalForm.TransformationStep;
+import com.example.licenta.normalForm.*;
+import com.example.licenta.sat.CnfClassification;
+import com.example.licenta.sat.Dimacs;
+import com.example.licenta.sat.SatClassifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
-import java.util.Map;
-import java.util.HashMap;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
@@ -19,20 +25,252 @@ public class NormalFormController {
     @Autowired
     private NormalFormChecker checker;
     @Autowired
-    private FormulaValidator validator;
+    private FormulaCache formulaCache;
 
     @Autowired
     private FormulaService formulaService;
 
+    @Autowired
+    private SatClassifier satClassifier;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final int maxDimacsVariables;
+
+    /**
+     * @param maxDimacsVariables largest variable count an uploaded DIMACS file may declare or use
+     */
+    public NormalFormController(@Value("${dimacs.max-variables:1000000}") int maxDimacsVariables) {
+        this.maxDimacsVariables = maxDimacsVariables;
+    }
+
     @PostMapping("/transform")
-    public List<TransformationStep> transformFormula(@RequestBody String formula) {
-        return formulaService.transformFormula(formula);
+    public List<TransformationStep> transformFormula(@RequestBody String formula,
+                                                     @RequestParam(defaultValue = FormulaService.MODE_DISTRIBUTE) String mode) {
+        return formulaService.transformFormula(formula, mode, "/api/normal-form/transform");
+    }
+
+    /**
+     * Predicts the size of the CNF and DNF distribution would produce, without distributing, and the strategy
+     * mode=auto would pick for the CNF.
+     */
+    @PostMapping("/estimate")
+    public ResponseEntity<Map<String, Object>> estimate(@RequestBody Map<String, String> body) {
+        String formula = body.get("formula");
+        if (formula == null || !formulaCache.get(formula).isValid()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Formula invalidă"));
+        }
+        CostPlanner.Plan plan = formulaService.plan(formula);
+        CostPlanner.Estimate estimate = plan.getEstimate();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("formula", formula);
+        response.put("cnfClauses", estimate.getCnfClauses());
+        response.put("cnfLiterals", estimate.getCnfLiterals());
+        response.put("dnfTerms", estimate.getDnfTerms());
+        response.put("dnfLiterals", estimate.getDnfLiterals());
+        response.put("saturated", estimate.getCnfLiterals() == Long.MAX_VALUE || estimate.getDnfLiterals() == Long.MAX_VALUE);
+        response.put("strategy", plan.getStrategy().name().toLowerCase());
+        if (plan.getBdd() != null) {
+            response.put("bddNodes", plan.getBdd().nodeCount(plan.getRoot()));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * The CNF of a formula in DIMACS, streamed as UTF-8 text: a {@code c <v> <name>} line per variable, the
+     * {@code p cnf} line, then a line per clause. {@code mode=distribute} writes the equivalent CNF clause by
+     * clause as {@link LogicalDistributivity} generates it. The distribution is enumerated twice, once to count
+     * the clauses for the {@code p cnf} line and once to write them, so nothing is held in memory; since the
+     * stream runs outside the request's deadline, it is only started when the {@link CostPlanner} estimate fits
+     * the budget of {@code /transform}, and rejected otherwise. {@code tseitin} and {@code plaisted-greenbaum}
+     * write the equisatisfiable encoding, naming the auxiliary variables too; {@code auto} (the default)
+     * distributes when the planner allows it and uses Tseitin's encoding otherwise.
+     */
+    @PostMapping("/dimacs")
+    public ResponseEntity<StreamingResponseBody> exportDimacs(@RequestBody Map<String, String> body) {
+        String formula = body.get("formula");
+        String mode = body.getOrDefault("mode", FormulaService.MODE_AUTO);
+        if (formula == null || !formulaCache.get(formula).isValid()) {
+            return jsonError("Formula invalidă");
+        }
+        if (!List.of(FormulaService.MODE_DISTRIBUTE, FormulaService.MODE_TSEITIN,
+                FormulaService.MODE_PLAISTED_GREENBAUM, FormulaService.MODE_AUTO).contains(mode)) {
+            return jsonError("Unknown mode: " + mode);
+        }
+
+        boolean distribute = false;
+        if (mode.equals(FormulaService.MODE_DISTRIBUTE) || mode.equals(FormulaService.MODE_AUTO)) {
+            CostPlanner.Plan plan = formulaService.plan(formula, false);
+            if (plan.getStrategy() == CostPlanner.Strategy.REJECT && mode.equals(FormulaService.MODE_DISTRIBUTE)) {
+                return jsonError(formulaService.rejection(plan));
+            }
+            distribute = plan.getStrategy() == CostPlanner.Strategy.DISTRIBUTE;
+        }
+        StreamingResponseBody stream;
+        if (distribute) {
+            Node nnf = formulaService.toNnf(formula);
+            List<String> variables = new ArrayList<>(formulaCache.get(formula).getVariables());
+            stream = outputStream -> {
+                Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 1 << 16);
+                long count = LogicalDistributivity.stream(nnf, true, variables).count();
+                Iterator<int[]> clauses = LogicalDistributivity.stream(nnf, true, variables)
+                        .map(clause -> {
+                            int[] literals = new int[clause.length];
+                            for (int k = 0; k < clause.length; k++) {
+                                literals[k] = Dimacs.toDimacs(clause[k]);
+                            }
+                            return literals;
+                        })
+                        .iterator();
+                Dimacs.write(variables, count, clauses, out);
+            };
+        } else {
+            CnfEncoding cnf = formulaService.encode(formula, mode.equals(FormulaService.MODE_PLAISTED_GREENBAUM));
+            stream = outputStream -> {
+                Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 1 << 16);
+                Dimacs.write(cnf.getVariables(), cnf.getClauses().size(), cnf.getClauses().iterator(), out);
+            };
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(stream);
+    }
+
+    /**
+     * Reads a CNF in DIMACS from the request body with {@link Dimacs}' byte scanner; no formula is built.
+     * {@code operation=classify} (the default) answers with the counts and a SAT classification, assignments
+     * given as DIMACS literals; {@code simplify} streams back the CNF reduced by {@link ClauseSet} (repeated
+     * literals, trivial and subsumed clauses removed) in DIMACS; {@code formula} streams it as a formula of the
+     * platform, with the variable names of the comment lines. Files declaring or using more than
+     * {@code dimacs.max-variables} variables are rejected while reading.
+     */
+    @PostMapping("/dimacs/upload")
+    public ResponseEntity<StreamingResponseBody> importDimacs(InputStream body,
+                                                              @RequestParam(defaultValue = "classify") String operation)
+            throws IOException {
+        try {
+            switch (operation) {
+                case "classify" -> {
+                    CnfClassification result = satClassifier.classify(body, maxDimacsVariables);
+                    Dimacs.Header header = result.getHeader();
+                    Map<String, Object> response = new LinkedHashMap<>();
+                    response.put("variables", header.getVariableCount());
+                    response.put("clauses", header.getClauseCount());
+                    response.put("declaredVariables", header.getDeclaredVariables());
+                    response.put("declaredClauses", header.getDeclaredClauses());
+                    response.put("satisfiable", !result.isContradiction());
+                    response.put("tautology", result.isTautology());
+                    response.put("contradiction", result.isContradiction());
+                    response.put("satisfyingAssignment", result.getSatisfyingAssignment());
+                    response.put("falsifyingAssignment", result.getFalsifyingAssignment());
+                    response.put("names", header.getNames());
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(outputStream -> objectMapper.writeValue(outputStream, response));
+                }
+                case "simplify", "formula" -> {
+                    List<int[]> clauses = new ArrayList<>();
+                    Dimacs.Header header = Dimacs.read(body, maxDimacsVariables, (literals, length) -> {
+                        int[] codes = new int[length];
+                        for (int k = 0; k < length; k++) {
+                            codes[k] = Dimacs.toCode(literals[k]);
+                        }
+                        clauses.add(codes);
+                    });
+                    List<String> names = new ArrayList<>(header.getMaxVariable());
+                    for (int v = 1; v <= header.getMaxVariable(); v++) {
+                        names.add(header.getName(v));
+                    }
+                    ClauseSet reduced = ClauseSet.of(NodeType.AND, names, clauses).reduce();
+                    StreamingResponseBody stream = outputStream -> {
+                        Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 1 << 16);
+                        if (operation.equals("simplify")) {
+                            Dimacs.write(names, reduced.size(), dimacsClauses(reduced), out);
+                        } else {
+                            writeFormula(reduced, out);
+                        }
+                    };
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.TEXT_PLAIN)
+                            .body(stream);
+                }
+                default -> {
+                    return jsonError("Unknown operation: " + operation);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return jsonError(e.getMessage());
+        }
+    }
+
+    private static Iterator<int[]> dimacsClauses(ClauseSet clauses) {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < clauses.size();
+            }
+
+            @Override
+            public int[] next() {
+                int[] clause = clauses.clause(next++);
+                int[] literals = new int[clause.length];
+                for (int k = 0; k < clause.length; k++) {
+                    literals[k] = Dimacs.toDimacs(clause[k]);
+                }
+                return literals;
+            }
+        };
+    }
+
+    // A CNF written like CnfEncoding does: (A ∨ ¬B) ∧ C, "1" without clauses, "0" for the empty clause
+    private static void writeFormula(ClauseSet clauses, Writer out) throws IOException {
+        List<String> names = clauses.getVariables();
+        if (clauses.size() == 0) {
+            out.write('1');
+        }
+        for (int i = 0; i < clauses.size(); i++) {
+            int[] clause = clauses.clause(i);
+            if (i > 0) {
+                out.write(" ∧ ");
+            }
+            if (clause.length == 0) {
+                out.write('0');
+                continue;
+            }
+            if (clause.length > 1) {
+                out.write('(');
+            }
+            for (int k = 0; k < clause.length; k++) {
+                if (k > 0) {
+                    out.write(" ∨ ");
+                }
+                if ((clause[k] & 1) != 0) {
+                    out.write('¬');
+                }
+                out.write(names.get(clause[k] >> 1));
+            }
+            if (clause.length > 1) {
+                out.write(')');
+            }
+        }
+        out.write('\n');
+        out.flush();
+    }
+
+    private ResponseEntity<StreamingResponseBody> jsonError(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> objectMapper.writeValue(outputStream, Map.of("error", message)));
     }
 
     @PostMapping("/check")
     public Map<String, Object> checkNormalForm(@RequestBody Map<String, String> body) {
         String formula = body.get("formula");
-        if (!validator.isFormula(formula)) {
+        if (formula == null || !formulaCache.get(formula).isValid()) {
             return Map.of("error", "Formula invalidă");
         }
 
@@ -0,0 +1,121 @@
+package com.example.licenta.execution;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A point in time after which a request should stop working. The long loops (truth tables, distribution,
+ * SAT search, BDD construction) check it cooperatively and give up with a {@link DeadlineExceededException}
+ * that reports how far they got.
+ * <p>
+ * The deadline of the current request is held in a thread local set by {@link DeadlineInterceptor}. Work
+ * handed to other threads (fork/join tasks, batch items) must capture {@link #current()} and either check
+ * that object directly or run under it with {@link #run(Supplier)}.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final Duration timeout;
+
+    // Progress of the current stage, written by the loops, read when the deadline expires
+    private volatile String stage;
+    private volatile long total;
+    private final AtomicLong done = new AtomicLong();
+
+    private Deadline(Duration timeout) {
+        this.timeout = timeout;
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(timeout);
+    }
+
+    /** The deadline of the request served by this thread, or null if it has none. */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /** Checks the current thread's deadline, if any. */
+    public static void checkpoint() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check();
+        }
+    }
+
+    /** Runs {@code work} on this thread with this deadline as the current one. */
+    public <T> T run(Supplier<T> work) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    void enter() {
+        CURRENT.set(this);
+    }
+
+    static void exit() {
+        CURRENT.remove();
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - deadlineNanos > 0;
+    }
+
+    public long remainingNanos() {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException(this, progress());
+        }
+    }
+
+    /** Starts a new stage of {@code total} units of work (0 if unknown). */
+    public void stage(String name, long total) {
+        this.stage = name;
+        this.total = total;
+        this.done.set(0);
+    }
+
+    /** Records {@code units} more units of the current stage as done. */
+    public void advance(long units) {
+        done.addAndGet(units);
+    }
+
+    /** The current stage and its progress, as reported in the 503 response. */
+    public Map<String, Object> progress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        String name = stage;
+        if (name != null) {
+            progress.put("stage", name);
+            progress.put("done", done.get());
+            if (total > 0) {
+                progress.put("total", total);
+            }
+        }
+        return progress;
+    }
+}
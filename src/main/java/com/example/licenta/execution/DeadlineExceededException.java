@@ -0,0 +1,41 @@
+package com.example.licenta.execution;
+
+import java.util.Map;
+
+/**
+ * Thrown by a cooperative check once the request's {@link Deadline} has passed. Answered with
+ * 503 Service Unavailable by {@link DeadlineExceptionHandler}.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    private final Deadline deadline;
+    private final Map<String, Object> progress;
+    private final Object partialResult;
+
+    public DeadlineExceededException(Deadline deadline, Map<String, Object> progress) {
+        this(deadline, progress, null);
+    }
+
+    private DeadlineExceededException(Deadline deadline, Map<String, Object> progress, Object partialResult) {
+        super("Deadline of " + deadline.getTimeout().toMillis() + " ms exceeded", null, false, false);
+        this.deadline = deadline;
+        this.progress = progress;
+        this.partialResult = partialResult;
+    }
+
+    /** The same failure carrying what was computed before the deadline, e.g. the steps done so far. */
+    public DeadlineExceededException withPartialResult(Object partialResult) {
+        return new DeadlineExceededException(deadline, progress, partialResult);
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    public Map<String, Object> getProgress() {
+        return progress;
+    }
+
+    public Object getPartialResult() {
+        return partialResult;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.licenta.execution;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestControllerAdvice
+public class DeadlineExceptionHandler {
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<Map<String, Object>> deadlineExceeded(DeadlineExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body(e));
+    }
+
+    /** The 503 body: the error, the timeout, the progress of the interrupted stage and any partial result. */
+    public static Map<String, Object> body(DeadlineExceededException e) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "Deadline exceeded");
+        body.put("timeoutMs", e.getDeadline().getTimeout().toMillis());
+        body.put("progress", e.getProgress());
+        if (e.getPartialResult() != null) {
+            body.put("partial", e.getPartialResult());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.licenta.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives every request to an expensive endpoint a {@link Deadline} and limits how many of them run at once.
+ * <p>
+ * The timeout is {@code execution.default-timeout}, or the {@code X-Request-Timeout} header in milliseconds,
+ * capped at {@code execution.max-timeout}. At most {@code execution.max-concurrent} expensive requests run
+ * together; the others wait for a permit at most {@code execution.permit-wait} (and never past their
+ * deadline), then get a 503 with {@code Retry-After}. The wait is kept short because a waiting request still
+ * holds its server thread: rejecting early keeps long truth tables and distributions, running or queued,
+ * from occupying every thread, so cheap calls like {@code /validate} are still served at peak.
+ * <p>
+ * A handler answering asynchronously (a {@code StreamingResponseBody}) passes through here twice: on the
+ * request and on the dispatch that completes it. The permit is taken on the first pass and kept, as a request
+ * attribute, until the second one completes; the deadline only covers the first pass, on the request thread.
+ */
+@Component
+public class DeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private static final String PERMIT = DeadlineInterceptor.class.getName() + ".permit";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+    private final Duration permitWait;
+    private final Semaphore permits;
+
+    public DeadlineInterceptor(@Value("${execution.default-timeout:30s}") Duration defaultTimeout,
+                               @Value("${execution.max-timeout:5m}") Duration maxTimeout,
+                               @Value("${execution.max-concurrent:32}") int maxConcurrent,
+                               @Value("${execution.permit-wait:100ms}") Duration permitWait) {
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+        this.permitWait = permitWait;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || request.getAttribute(PERMIT) != null) {
+            // Already admitted: the dispatch completing an asynchronous response
+            return true;
+        }
+        Deadline deadline = Deadline.after(timeout(request));
+        long wait = Math.min(permitWait.toNanos(), deadline.remainingNanos());
+        if (!permits.tryAcquire(wait, TimeUnit.NANOSECONDS)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of(
+                    "error", "Server busy",
+                    "timeoutMs", deadline.getTimeout().toMillis()));
+            return false;
+        }
+        request.setAttribute(PERMIT, Boolean.TRUE);
+        deadline.enter();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The thread goes back to the pool; the permit stays with the request until afterCompletion
+        Deadline.exit();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Deadline.exit();
+        if (request.getAttribute(PERMIT) != null) {
+            request.removeAttribute(PERMIT);
+            permits.release();
+        }
+    }
+
+    private Duration timeout(HttpServletRequest request) {
+        String header = request.getHeader(TIMEOUT_HEADER);
+        Duration timeout = defaultTimeout;
+        if (header != null) {
+            try {
+                timeout = Duration.ofMillis(Math.max(1, Long.parseLong(header.trim())));
+            } catch (NumberFormatException ignored) {
+                // Malformed header: keep the default
+            }
+        }
+        return timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.licenta.execution;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the endpoints whose cost grows exponentially with the formula under {@link DeadlineInterceptor}.
+ * The streamed truth table is left out: it writes as it computes, so it cannot turn into a 503 halfway, and
+ * is bounded by the async request timeout instead.
+ */
+@Configuration
+public class ExecutionConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private DeadlineInterceptor deadlineInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(deadlineInterceptor)
+                .addPathPatterns(
+                        "/api/formula/truth-table",
+                        "/api/formula/classify",
+                        "/api/formula/equivalence",
+                        "/api/formula/minimize",
+                        "/api/normal-form/transform",
+                        "/api/normal-form/estimate",
+                        "/api/normal-form/dimacs/upload",
+                        "/api/batch");
+    }
+}
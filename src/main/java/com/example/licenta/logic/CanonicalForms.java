@@ -0,0 +1,86 @@
+package com.example.licenta.logic;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * The canonical ("perfect") normal forms of a formula, read straight off its packed truth table.
+ * <p>
+ * The full DNF has one minterm per true row: the conjunction of every variable, negated where the row gives
+ * it 0. The full CNF has one maxterm per false row: the disjunction of every variable, negated where the row
+ * gives it 1. Both are written as newline-delimited JSON, one term per line, while the table is computed a
+ * block of rows at a time, so neither the table nor the form is ever held whole in memory. Within a block the
+ * rows are found by taking the lowest set bit of each word until it is empty.
+ */
+public final class CanonicalForms {
+
+    // Rows computed at once: 64 words of 64 rows
+    private static final int BLOCK_WORDS = 64;
+
+    private CanonicalForms() {
+    }
+
+    /**
+     * Writes one line {@code {"index":r,"term":"..."}} per term, in row order, followed by
+     * {@code {"count":k}}. The index is the row number, the i of the usual m<sub>i</sub> / M<sub>i</sub>
+     * notation. A full DNF without minterms is the constant 0, a full CNF without maxterms the constant 1.
+     *
+     * @param cnf false for the minterms of the full DNF, true for the maxterms of the full CNF
+     * @return the number of terms written
+     */
+    public static long write(CompiledFormula formula, boolean cnf, Writer out) throws IOException {
+        int n = formula.getVariableCount();
+        List<String> variables = formula.getVariables();
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        // The positive and the negated literal of every variable, already JSON-encoded
+        char[][] positive = new char[n][];
+        char[][] negative = new char[n][];
+        for (int j = 0; j < n; j++) {
+            positive[j] = encoder.quoteAsString(variables.get(j));
+            negative[j] = ("¬" + new String(positive[j])).toCharArray();
+        }
+        String operator = cnf ? " ∨ " : " ∧ ";
+
+        long rows = formula.getRowCount();
+        long words = PackedTruthTable.wordCount(rows);
+        long[][] block = new long[formula.size()][BLOCK_WORDS];
+        int root = formula.getRoot();
+        long count = 0;
+        for (long firstWord = 0; firstWord < words; firstWord += BLOCK_WORDS) {
+            int blockWords = (int) Math.min(BLOCK_WORDS, words - firstWord);
+            PackedTruthTable.evaluateWords(formula, firstWord, blockWords, block);
+            for (int w = 0; w < blockWords; w++) {
+                long firstRow = (firstWord + w) << 6;
+                long valid = rows - firstRow >= 64 ? -1L : (1L << (rows - firstRow)) - 1;
+                long terms = (cnf ? ~block[root][w] : block[root][w]) & valid;
+                while (terms != 0) {
+                    long row = firstRow + Long.numberOfTrailingZeros(terms);
+                    out.write("{\"index\":");
+                    out.write(Long.toString(row));
+                    out.write(",\"term\":\"");
+                    if (n == 0) {
+                        // Without variables the term is empty: ∧ of nothing is 1, ∨ of nothing is 0
+                        out.write(cnf ? '0' : '1');
+                    }
+                    for (int j = 0; j < n; j++) {
+                        if (j > 0) {
+                            out.write(operator);
+                        }
+                        // A minterm takes each variable as it is in the row, a maxterm negated
+                        boolean value = (row >>> (n - 1 - j) & 1L) != 0;
+                        out.write(value != cnf ? positive[j] : negative[j]);
+                    }
+                    out.write("\"}\n");
+                    count++;
+                    terms &= terms - 1;
+                }
+            }
+            out.flush();
+        }
+        out.write("{\"count\":" + count + "}\n");
+        return count;
+    }
+}
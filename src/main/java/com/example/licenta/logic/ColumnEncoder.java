@@ -0,0 +1,81 @@
+package com.example.licenta.logic;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Encodes a packed truth-table column for the compact columnar response.
+ * <p>
+ * Two encodings are produced, whichever is smaller:
+ * <ul>
+ *     <li>{@code bitset}: {@code data} is the base64 of the column bytes, where bit {@code r % 8} of byte
+ *     {@code r / 8} is the value in row {@code r};</li>
+ *     <li>{@code rle}: {@code first} is the value in row 0 and {@code runs} the lengths of the alternating
+ *     runs of equal values, used when the column changes value rarely.</li>
+ * </ul>
+ */
+public class ColumnEncoder {
+
+    // Rough JSON size of one run length, used to choose between the encodings
+    private static final int BYTES_PER_RUN = 8;
+
+    public static Map<String, Object> encode(long[] column, long rows) {
+        long transitions = countTransitions(column, rows);
+        long bitsetBytes = (rows + 7) / 8;
+        long base64Length = (bitsetBytes + 2) / 3 * 4;
+
+        Map<String, Object> encoded = new LinkedHashMap<>();
+        if ((transitions + 1) * BYTES_PER_RUN < base64Length) {
+            encoded.put("encoding", "rle");
+            encoded.put("first", (column[0] & 1L) != 0 ? "1" : "0");
+            encoded.put("runs", runs(column, rows, (int) transitions + 1));
+        } else {
+            encoded.put("encoding", "bitset");
+            encoded.put("data", toBase64(column, (int) bitsetBytes));
+        }
+        return encoded;
+    }
+
+    private static String toBase64(long[] column, int bytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(column.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(column);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), bytes));
+    }
+
+    /**
+     * Bit {@code p} of the result is set when row {@code p} differs from row {@code p - 1}.
+     */
+    private static long transitionsIn(long[] column, int word, long rows) {
+        long bits = column[word];
+        long carry = word == 0 ? bits & 1L : column[word - 1] >>> 63;
+        long diff = bits ^ (bits << 1 | carry);
+        long firstRow = (long) word << 6;
+        return rows - firstRow >= 64 ? diff : diff & ((1L << (rows - firstRow)) - 1);
+    }
+
+    private static long countTransitions(long[] column, long rows) {
+        long count = 0;
+        for (int i = 0; i < column.length; i++) {
+            count += Long.bitCount(transitionsIn(column, i, rows));
+        }
+        return count;
+    }
+
+    private static long[] runs(long[] column, long rows, int count) {
+        long[] runs = new long[count];
+        int run = 0;
+        long runStart = 0;
+        for (int i = 0; i < column.length; i++) {
+            long diff = transitionsIn(column, i, rows);
+            while (diff != 0) {
+                long position = ((long) i << 6) + Long.numberOfTrailingZeros(diff);
+                runs[run++] = position - runStart;
+                runStart = position;
+                diff &= diff - 1;
+            }
+        }
+        runs[run] = rows - runStart;
+        return runs;
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.licenta.logic;
+
+import com.example.licenta.normalForm.Node;
+import com.example.licenta.normalForm.NodeFactory;
+import com.example.licenta.parser.ParseResult;
+import com.example.licenta.parser.Parser;
+
+import java.util.*;
+
+/**
+ * A propositional formula compiled once into a flat program that can be evaluated for any valuation
+ * without string work or allocation.
+ * <p>
+ * Every distinct subformula gets an integer id, the one of the formula's {@link SubformulaDag}. Ids are
+ * assigned in post-order, so the children of a node always have smaller ids than the node itself and a single
+ * forward pass over the ids computes every subformula exactly once. Structurally identical subformulas share
+ * the same id.
+ * <p>
+ * A valuation is a bit vector: bit {@code n - 1 - j} holds the value of the j-th variable. This is exactly
+ * the row index used by the truth table, where the first variable is the most significant one.
+ * <p>
+ * Formulas are read by {@link Parser}, which defines the syntax.
+ */
+public final class CompiledFormula {
+
+    public static final byte VAR = 0;
+    public static final byte CONST = 1;
+    public static final byte NOT = 2;
+    public static final byte AND = 3;
+    public static final byte OR = 4;
+    public static final byte IMPLIES = 5;
+    public static final byte IFF = 6;
+
+    /** A valuation is a {@code long}, so at most 63 variables can be addressed. */
+    public static final int MAX_VARIABLES = 63;
+
+    private final String formula;
+    private final List<String> variables;
+    private final byte[] ops;
+    // VAR: left = bit position in the valuation, right = variable index; CONST: left = 0 / 1
+    private final int[] left;
+    private final int[] right;
+    private final int root;
+    private final SubformulaDag dag;
+
+    private CompiledFormula(String formula, List<String> variables, byte[] ops, int[] left, int[] right,
+                            int root, SubformulaDag dag) {
+        this.formula = formula;
+        this.variables = variables;
+        this.ops = ops;
+        this.left = left;
+        this.right = right;
+        this.root = root;
+        this.dag = dag;
+    }
+
+    /**
+     * Compiles a formula, ordering its variables alphabetically (the same order as
+     * {@link FormulaEvaluator#extractVariables(String)}).
+     *
+     * @throws IllegalArgumentException if the formula is not well-formed
+     */
+    public static CompiledFormula compile(String formula) {
+        return compile(formula, null);
+    }
+
+    /**
+     * Compiles a formula against a fixed variable order. The order may contain variables that do not occur
+     * in the formula, which is what comparing two formulas over the same valuations needs.
+     *
+     * @param variables the variable order, or {@code null} for alphabetical order
+     * @throws IllegalArgumentException if the formula is not well-formed or uses a variable missing from the order
+     */
+    public static CompiledFormula compile(String formula, Collection<String> variables) {
+        if (formula == null) {
+            throw new IllegalArgumentException("Invalid formula");
+        }
+        return compile(Parser.parse(formula), variables);
+    }
+
+    /**
+     * Compiles an already parsed formula. See {@link #compile(String, Collection)}.
+     */
+    public static CompiledFormula compile(ParseResult parsed, Collection<String> variables) {
+        return compile(SubformulaDag.of(parsed), variables);
+    }
+
+    /**
+     * Compiles the subformula DAG of a formula: node i of the program computes subformula i of the DAG.
+     * See {@link #compile(String, Collection)}.
+     */
+    public static CompiledFormula compile(SubformulaDag dag, Collection<String> variables) {
+        List<String> order = new ArrayList<>(variables == null ? dag.getVariables() : variables);
+        if (order.size() > MAX_VARIABLES) {
+            throw new IllegalArgumentException("Too many variables: " + order.size());
+        }
+        Map<String, Integer> index = new HashMap<>();
+        for (int j = 0; j < order.size(); j++) {
+            index.putIfAbsent(order.get(j), j);
+        }
+
+        int size = dag.size();
+        byte[] ops = new byte[size];
+        int[] left = new int[size];
+        int[] right = new int[size];
+        for (int i = 0; i < size; i++) {
+            Node node = dag.node(i);
+            left[i] = dag.left(i);
+            right[i] = dag.right(i);
+            switch (node.getType()) {
+                case VAR -> {
+                    String name = node.getValue();
+                    if (name.equals("1") || name.equals("0")) {
+                        ops[i] = CONST;
+                        left[i] = name.equals("1") ? 1 : 0;
+                        right[i] = 0;
+                    } else {
+                        Integer j = index.get(name);
+                        if (j == null) {
+                            throw new IllegalArgumentException("Unknown variable: " + name);
+                        }
+                        ops[i] = VAR;
+                        left[i] = order.size() - 1 - j;
+                        right[i] = j;
+                    }
+                }
+                case NOT -> {
+                    ops[i] = NOT;
+                    right[i] = 0;
+                }
+                case AND -> ops[i] = AND;
+                case OR -> ops[i] = OR;
+                case IMPLIES -> ops[i] = IMPLIES;
+                case IFF -> ops[i] = IFF;
+            }
+        }
+        return new CompiledFormula(dag.getFormula(), Collections.unmodifiableList(order), ops, left, right,
+                dag.getRoot(), dag);
+    }
+
+    public String getFormula() {
+        return formula;
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public int getVariableCount() {
+        return variables.size();
+    }
+
+    /** Number of rows of the truth table, {@code 2^n}. */
+    public long getRowCount() {
+        return 1L << variables.size();
+    }
+
+    /** Number of distinct subformulas (node ids). */
+    public int size() {
+        return ops.length;
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    public byte op(int node) {
+        return ops[node];
+    }
+
+    public int left(int node) {
+        return left[node];
+    }
+
+    public int right(int node) {
+        return right[node];
+    }
+
+    /** For a VAR node, the index of its variable in {@link #getVariables()}. */
+    public int variableIndex(int node) {
+        return right[node];
+    }
+
+    /** The subformulas this program computes, with the same ids. */
+    public SubformulaDag getSubformulaDag() {
+        return dag;
+    }
+
+    /**
+     * Returns the node computing the given subformula, or -1 if it is not one of the formula's
+     * parenthesized groups, variables or the formula itself. Subformulas are matched on their source text.
+     */
+    public int nodeOf(String subformula) {
+        return dag.idOf(subformula);
+    }
+
+    /**
+     * Evaluates the whole formula.
+     *
+     * @param valuation bit {@code n - 1 - j} is the value of the j-th variable
+     */
+    public boolean evaluate(long valuation) {
+        return evaluate(root, valuation);
+    }
+
+    /** Evaluates a single node without touching the others. */
+    public boolean evaluate(int node, long valuation) {
+        return switch (ops[node]) {
+            case VAR -> (valuation >>> left[node] & 1L) != 0;
+            case CONST -> left[node] != 0;
+            case NOT -> !evaluate(left[node], valuation);
+            case AND -> evaluate(left[node], valuation) && evaluate(right[node], valuation);
+            case OR -> evaluate(left[node], valuation) || evaluate(right[node], valuation);
+            case IMPLIES -> !evaluate(left[node], valuation) || evaluate(right[node], valuation);
+            default -> evaluate(left[node], valuation) == evaluate(right[node], valuation);
+        };
+    }
+
+    /**
+     * Evaluates every node in one forward pass.
+     *
+     * @param values scratch array of at least {@link #size()} entries, owned by the caller so that it can be
+     *               reused from one row to the next
+     */
+    public void evaluateAll(long valuation, boolean[] values) {
+        for (int i = 0; i < ops.length; i++) {
+            values[i] = switch (ops[i]) {
+                case VAR -> (valuation >>> left[i] & 1L) != 0;
+                case CONST -> left[i] != 0;
+                case NOT -> !values[left[i]];
+                case AND -> values[left[i]] && values[right[i]];
+                case OR -> values[left[i]] || values[right[i]];
+                case IMPLIES -> !values[left[i]] || values[right[i]];
+                default -> values[left[i]] == values[right[i]];
+            };
+        }
+    }
+
+    /**
+     * Converts the formula to a node of the normal-form pipeline. Constants become the variables "1" and "0",
+     * the convention used by the simplification rules.
+     */
+    public Node toNode() {
+        Node[] nodes = new Node[ops.length];
+        for (int i = 0; i < ops.length; i++) {
+            nodes[i] = switch (ops[i]) {
+                case VAR -> NodeFactory.var(variables.get(right[i]));
+                case CONST -> NodeFactory.var(left[i] != 0 ? "1" : "0");
+                case NOT -> NodeFactory.not(nodes[left[i]]);
+                case AND -> NodeFactory.and(nodes[left[i]], nodes[right[i]]);
+                case OR -> NodeFactory.or(nodes[left[i]], nodes[right[i]]);
+                case IMPLIES -> NodeFactory.implies(nodes[left[i]], nodes[right[i]]);
+                default -> NodeFactory.iff(nodes[left[i]], nodes[right[i]]);
+            };
+        }
+        return nodes[root];
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.licenta.logic;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of {@link ParsedFormula}s shared by all endpoints, so that the formulas students
+ * submit over and over are validated, scanned and compiled once.
+ * <p>
+ * Entries are evicted least recently used first. The cache is split into independently locked segments,
+ * each an access-ordered {@link LinkedHashMap} holding its share of the capacity, so concurrent requests
+ * rarely contend; recency is therefore tracked per segment, which is a close approximation of global LRU.
+ * <p>
+ * The key is the exact formula text: headers and subformulas are substrings of it, so two spellings of the
+ * same formula must not share an entry.
+ */
+@Component
+public class FormulaCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int capacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public FormulaCache(@Value("${formula-cache.capacity:4096}") int capacity) {
+        this.capacity = capacity;
+        int perSegment = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    private final class Segment extends LinkedHashMap<String, ParsedFormula> {
+        private final int limit;
+
+        Segment(int limit) {
+            super(16, 0.75f, true);
+            this.limit = limit;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ParsedFormula> eldest) {
+            if (size() > limit) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the parsed formula, parsing it on a miss. Parsing happens outside the segment lock, so two
+     * requests missing on the same formula at once may both parse it; the results are identical.
+     */
+    public ParsedFormula get(String formula) {
+        int h = formula.hashCode();
+        Segment segment = segments[(h ^ h >>> 16) & (SEGMENTS - 1)];
+        ParsedFormula parsed;
+        synchronized (segment) {
+            parsed = segment.get(formula);
+        }
+        if (parsed != null) {
+            hits.increment();
+            return parsed;
+        }
+        misses.increment();
+        parsed = ParsedFormula.parse(formula);
+        synchronized (segment) {
+            ParsedFormula existing = segment.putIfAbsent(formula, parsed);
+            return existing != null ? existing : parsed;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** Counters for the statistics endpoint. */
+    public Map<String, Object> getStats() {
+        long hitCount = getHits();
+        long missCount = getMisses();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", capacity);
+        stats.put("size", size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", getEvictions());
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        return stats;
+    }
+}
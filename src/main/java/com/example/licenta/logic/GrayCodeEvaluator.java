@@ -0,0 +1,108 @@
+package com.example.licenta.logic;
+
+import com.example.licenta.execution.Deadline;
+
+/**
+ * Evaluates a {@link CompiledFormula} row after row in Gray-code order, recomputing only what changes.
+ * <p>
+ * Step i of the walk visits row {@code i ^ (i >>> 1)}. Two consecutive rows of this order differ in exactly
+ * one variable, the one at valuation bit {@code numberOfTrailingZeros(i)}, so only the subformulas depending
+ * on that variable can change value. These form the variable's dependency cone in the subformula DAG; node
+ * ids are a topological order, so each cone is kept as a sorted array and re-evaluated in one forward pass
+ * while every other node keeps its value from the previous row.
+ * <p>
+ * This pays off for wide formulas whose variables each reach a small part of the DAG. The visited rows jump
+ * around the table, so callers store each one at its own index to get the usual binary order back.
+ */
+public final class GrayCodeEvaluator {
+
+    /** Receives the value of every node for one row. The array is reused for the next row. */
+    public interface RowVisitor {
+        void visit(long row, boolean[] values);
+    }
+
+    private final CompiledFormula formula;
+    // cones[b]: the nodes depending on the variable at valuation bit b, in increasing id order
+    private final int[][] cones;
+
+    public GrayCodeEvaluator(CompiledFormula formula) {
+        this.formula = formula;
+        int n = formula.getVariableCount();
+        int size = formula.size();
+
+        // Support of every node: the set of valuation bits it depends on
+        long[] support = new long[size];
+        int[] coneSizes = new int[n];
+        for (int i = 0; i < size; i++) {
+            support[i] = switch (formula.op(i)) {
+                case CompiledFormula.VAR -> 1L << formula.left(i);
+                case CompiledFormula.CONST -> 0L;
+                case CompiledFormula.NOT -> support[formula.left(i)];
+                default -> support[formula.left(i)] | support[formula.right(i)];
+            };
+            for (long bits = support[i]; bits != 0; bits &= bits - 1) {
+                coneSizes[Long.numberOfTrailingZeros(bits)]++;
+            }
+        }
+        cones = new int[n][];
+        for (int b = 0; b < n; b++) {
+            cones[b] = new int[coneSizes[b]];
+            coneSizes[b] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            for (long bits = support[i]; bits != 0; bits &= bits - 1) {
+                int b = Long.numberOfTrailingZeros(bits);
+                cones[b][coneSizes[b]++] = i;
+            }
+        }
+    }
+
+    public CompiledFormula getFormula() {
+        return formula;
+    }
+
+    /** Number of nodes recomputed when the j-th variable changes. */
+    public int coneSize(int variable) {
+        return cones[formula.getVariableCount() - 1 - variable].length;
+    }
+
+    /**
+     * Visits steps {@code [from, to)} of the Gray-code walk, i.e. rows {@code i ^ (i >>> 1)} for i in that range.
+     * The first row is evaluated in full, every following one incrementally. Disjoint ranges can be walked
+     * concurrently.
+     */
+    public void walk(long from, long to, RowVisitor visitor) {
+        walk(from, to, Deadline.current(), visitor);
+    }
+
+    // Same as above, for callers running on other threads than the request's
+    void walk(long from, long to, Deadline deadline, RowVisitor visitor) {
+        if (from >= to) {
+            return;
+        }
+        boolean[] values = new boolean[formula.size()];
+        long row = from ^ (from >>> 1);
+        formula.evaluateAll(row, values);
+        visitor.visit(row, values);
+        for (long i = from + 1; i < to; i++) {
+            if ((i & 4095) == 0 && deadline != null) {
+                deadline.check();
+            }
+            int bit = Long.numberOfTrailingZeros(i);
+            row ^= 1L << bit;
+            for (int node : cones[bit]) {
+                int l = formula.left(node);
+                int r = formula.right(node);
+                values[node] = switch (formula.op(node)) {
+                    case CompiledFormula.VAR -> !values[node];
+                    case CompiledFormula.NOT -> !values[l];
+                    case CompiledFormula.AND -> values[l] && values[r];
+                    case CompiledFormula.OR -> values[l] || values[r];
+                    case CompiledFormula.IMPLIES -> !values[l] || values[r];
+                    default -> values[l] == values[r];
+                };
+            }
+            visitor.visit(row, values);
+        }
+    }
+}
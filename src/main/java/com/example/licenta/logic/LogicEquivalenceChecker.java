@@ -1,9 +1,20 @@
 package com.example.licenta.logic;
 
+import com.example.licenta.bdd.Bdd;
+import com.example.licenta.parser.ParseResult;
+import com.example.licenta.parser.Parser;
+import com.example.licenta.sat.Equivalence;
+import com.example.licenta.sat.SatClassifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
 import java.util.*;
 
+@Component
 public class LogicEquivalenceChecker {
-    private final FormulaValidator validator = new FormulaValidator();
+
+    @Autowired
+    private SatClassifier satClassifier;
 
     public boolean checkAllTautologies(String formula1, String formula2) {
         return checkAssociativity(formula1, formula2)
@@ -140,32 +151,42 @@ public class LogicEquivalenceChecker {
         );
     }
 
-    private boolean checkEquivalence(String f1, String f2) {
-        if (!validator.isFormula(f1) || !validator.isFormula(f2)) {
+    /**
+     * Two formulas are equivalent when they build the same node of one ROBDD, ordered by first occurrence
+     * of the variables. If the formulas have too many variables to compile or the diagram outgrows its node
+     * limit, the SAT miter of {@link #compare} decides.
+     */
+    public boolean checkEquivalence(String f1, String f2) {
+        ParseResult p1 = Parser.parse(f1);
+        ParseResult p2 = Parser.parse(f2);
+        if (!p1.isValid() || !p2.isValid()) {
             return false;
         }
 
-        Set<String> vars = new HashSet<>();
-        vars.addAll(FormulaEvaluator.extractVariables(f1));
-        vars.addAll(FormulaEvaluator.extractVariables(f2));
-
-        List<String> varList = new ArrayList<>(vars);
-        int rows = 1 << varList.size();
-
-        for (int i = 0; i < rows; i++) {
-            Map<String, Boolean> valuation = new HashMap<>();
-            for (int j = 0; j < varList.size(); j++) {
-                valuation.put(varList.get(j), (i & (1 << j)) != 0);
-            }
-
-            boolean val1 = FormulaEvaluator.evaluate(f1, valuation);
-            boolean val2 = FormulaEvaluator.evaluate(f2, valuation);
-
-            if (val1 != val2) {
-                return false;
-            }
+        Set<String> vars = new TreeSet<>(p1.getVariables());
+        vars.addAll(p2.getVariables());
+
+        try {
+            CompiledFormula c1 = CompiledFormula.compile(p1, vars);
+            CompiledFormula c2 = CompiledFormula.compile(p2, vars);
+            Bdd bdd = new Bdd(Bdd.occurrenceOrder(c1, c2));
+            return bdd.build(c1) == bdd.build(c2);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Prea multe variabile pentru compilare sau diagrama a depășit limita de noduri
+            return satClassifier.compare(p1.getRoot(), p2.getRoot()).isEquivalent();
         }
-        return true;
+    }
+
+    /**
+     * Compares two formulas by the unsatisfiability of F1 ⊕ F2, without enumerating assignments. When they
+     * differ, the result holds an assignment of their variables on which they do.
+     *
+     * @throws IllegalArgumentException if either formula is not well-formed
+     */
+    public Equivalence compare(String f1, String f2) {
+        ParseResult p1 = Parser.parse(f1);
+        ParseResult p2 = Parser.parse(f2);
+        return satClassifier.compare(p1.getRootOrThrow(), p2.getRootOrThrow());
     }
 
 
@@ -1,112 +1,274 @@
 package com.example.licenta.logic;
 
+import com.example.licenta.execution.Deadline;
+import com.example.licenta.normalForm.Node;
+import com.example.licenta.normalForm.NodeType;
+import com.example.licenta.parser.ParseResult;
+import com.example.licenta.parser.Parser;
+
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Distributivity of ∨ over ∧ (for CNF) and of ∧ over ∨ (for DNF), applied lazily.
+ * <p>
+ * The clauses of a formula in negation normal form are generated one at a time instead of being built as one
+ * string: the outer operator (∧ for a CNF) yields the clauses of its left operand, then those of its right
+ * one; the inner operator yields the union of every clause of its left operand with every clause of its right
+ * one, restarting the right operand's enumeration for each left clause. Only one clause per level of the
+ * formula is held at a time, so callers can count the clauses, write them out or stop early while memory
+ * stays proportional to the depth of the formula, not to the size of the result.
+ * <p>
+ * A clause is a sorted array of distinct literal codes, {@code 2v} for the v-th variable and {@code 2v + 1}
+ * for its negation, the encoding of {@link com.example.licenta.normalForm.ClauseSet}. Unions containing a
+ * literal and its negation are trivial and are skipped; duplicate clauses are not removed.
+ */
 public class LogicalDistributivity {
 
     public String distributeOrOverAnd(String formula) {
-        return distribute(formula, '|', '&');
+        return distribute(formula, true);
     }
 
     public String distributeAndOverOr(String formula) {
-        return distribute(formula, '&', '|');
+        return distribute(formula, false);
     }
 
-    private String distribute(String formula, char outerOp, char innerOp) {
-        formula = removeOuterParentheses(formula.trim());
-
-        List<String> terms = splitByMainOperator(formula, outerOp);
-        if (terms.size() == 1) {
-            if (formula.contains("(")) {
-                int start = formula.indexOf('(');
-                int end = findMatchingParenthesis(formula, start);
-                String inner = formula.substring(start + 1, end);
-                String before = formula.substring(0, start);
-                String after = formula.substring(end + 1);
-                String distributed = distribute(inner, outerOp, innerOp);
-                return before + "(" + distributed + ")" + after;
-            }
-            return formula;
+    /**
+     * Writes the clauses of a formula in negation normal form with the operators !, &amp;, |, e.g.
+     * {@code (a|!b)&c}, appending them one by one. The empty CNF is "1" and the empty DNF "0".
+     *
+     * @throws IllegalArgumentException if the formula is not well-formed or not in negation normal form
+     */
+    private String distribute(String formula, boolean cnf) {
+        ParseResult parsed = Parser.parse(formula);
+        if (!parsed.isValid()) {
+            throw new IllegalArgumentException("Invalid formula");
         }
-
-        List<List<String>> distributedTerms = new ArrayList<>();
-        for (String term : terms) {
-            String cleaned = removeOuterParentheses(term.trim());
-            if (findMainOperator(cleaned, innerOp) != -1) {
-                distributedTerms.add(splitByMainOperator(distribute(cleaned, outerOp, innerOp), innerOp));
-            } else {
-                distributedTerms.add(Collections.singletonList(distribute(cleaned, outerOp, innerOp)));
+        List<String> variables = new ArrayList<>(parsed.getVariables());
+        char outer = cnf ? '&' : '|';
+        char inner = cnf ? '|' : '&';
+        StringBuilder sb = new StringBuilder();
+        Iterator<int[]> clauses = clauses(parsed.getRoot(), cnf, variables);
+        while (clauses.hasNext()) {
+            int[] clause = clauses.next();
+            if (sb.length() > 0) {
+                sb.append(outer);
+            }
+            if (clause.length == 0) {
+                sb.append(cnf ? '0' : '1');
+                continue;
+            }
+            if (clause.length > 1) {
+                sb.append('(');
+            }
+            for (int k = 0; k < clause.length; k++) {
+                if (k > 0) {
+                    sb.append(inner);
+                }
+                sb.append((clause[k] & 1) != 0 ? "!" : "").append(variables.get(clause[k] >> 1));
+            }
+            if (clause.length > 1) {
+                sb.append(')');
             }
         }
+        return sb.length() == 0 ? (cnf ? "1" : "0") : sb.toString();
+    }
 
-        List<String> combinations = cartesianProduct(distributedTerms, outerOp);
-        return joinByOperator(combinations, innerOp);
+    /**
+     * Enumerates the clauses of a CNF (or the terms of a DNF) of a formula in negation normal form: → and ↔
+     * eliminated, negations only on variables. The constants 1 and 0 may appear anywhere.
+     *
+     * @param variables the variable order defining the literal codes; it must contain every variable of the
+     *                  formula
+     * @throws IllegalArgumentException if the formula is not in negation normal form or uses a variable
+     *                                  missing from the order
+     */
+    public static Iterator<int[]> clauses(Node nnf, boolean cnf, List<String> variables) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int v = 0; v < variables.size(); v++) {
+            index.putIfAbsent(variables.get(v), v);
+        }
+        check(nnf, index, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return new ClauseIterator(nnf, cnf ? NodeType.AND : NodeType.OR, cnf ? "1" : "0", index);
     }
 
-    private List<String> cartesianProduct(List<List<String>> lists, char op) {
-        List<String> result = new ArrayList<>();
-        cartesianHelper(lists, result, 0, "", op);
-        return result;
+    /** The clauses of {@link #clauses(Node, boolean, List)} as an ordered, sequential stream. */
+    public static Stream<int[]> stream(Node nnf, boolean cnf, List<String> variables) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(clauses(nnf, cnf, variables),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
 
-    private void cartesianHelper(List<List<String>> lists, List<String> result, int depth, String current, char op) {
-        if (depth == lists.size()) {
-            result.add(current);
+    // Validates the formula up front, so that the iterator itself cannot fail halfway
+    private static void check(Node node, Map<String, Integer> index, Set<Node> seen) {
+        if (!seen.add(node)) {
             return;
         }
-
-        for (String s : lists.get(depth)) {
-            String next = current.isEmpty() ? s : "(" + current + op + s + ")";
-            cartesianHelper(lists, result, depth + 1, next, op);
+        switch (node.getType()) {
+            case VAR -> {
+                String name = node.getValue();
+                if (!name.equals("1") && !name.equals("0") && !index.containsKey(name)) {
+                    throw new IllegalArgumentException("Unknown variable: " + name);
+                }
+            }
+            case NOT -> {
+                if (node.getLeft().getType() != NodeType.VAR) {
+                    throw new IllegalArgumentException("Formula is not in negation normal form");
+                }
+                check(node.getLeft(), index, seen);
+            }
+            case AND, OR -> {
+                check(node.getLeft(), index, seen);
+                check(node.getRight(), index, seen);
+            }
+            default -> throw new IllegalArgumentException("Formula is not in negation normal form");
         }
     }
 
-    private List<String> splitByMainOperator(String formula, char op) {
-        List<String> parts = new ArrayList<>();
-        int level = 0, start = 0;
-        for (int i = 0; i < formula.length(); i++) {
-            char c = formula.charAt(i);
-            if (c == '(') level++;
-            else if (c == ')') level--;
-            else if (c == op && level == 0) {
-                parts.add(formula.substring(start, i));
-                start = i + 1;
+    private static final class ClauseIterator implements Iterator<int[]> {
+        private final NodeType outer;
+        private final String identity;
+        private final Map<String, Integer> index;
+        private final Cursor root;
+        private int[] next;
+
+        ClauseIterator(Node nnf, NodeType outer, String identity, Map<String, Integer> index) {
+            this.outer = outer;
+            this.identity = identity;
+            this.index = index;
+            this.root = open(nnf);
+            this.next = root.next();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public int[] next() {
+            if (next == null) {
+                throw new NoSuchElementException();
             }
+            Deadline.checkpoint();
+            int[] result = next;
+            next = root.next();
+            return result;
         }
-        parts.add(formula.substring(start));
-        return parts;
-    }
 
-    private int findMainOperator(String formula, char op) {
-        int level = 0;
-        for (int i = 0; i < formula.length(); i++) {
-            char c = formula.charAt(i);
-            if (c == '(') level++;
-            else if (c == ')') level--;
-            else if (c == op && level == 0) return i;
+        private Cursor open(Node node) {
+            if (node.getType() == NodeType.VAR || node.getType() == NodeType.NOT) {
+                return new Single(literal(node));
+            }
+            return node.getType() == outer ? new Concat(node) : new Product(node);
         }
-        return -1;
-    }
 
-    private int findMatchingParenthesis(String s, int start) {
-        int count = 1;
-        for (int i = start + 1; i < s.length(); i++) {
-            if (s.charAt(i) == '(') count++;
-            else if (s.charAt(i) == ')') count--;
-            if (count == 0) return i;
+        // The clauses of a literal: none for the identity constant, the empty clause for the other one
+        private int[] literal(Node node) {
+            boolean negated = node.getType() == NodeType.NOT;
+            String name = (negated ? node.getLeft() : node).getValue();
+            if (name.equals("1") || name.equals("0")) {
+                return name.equals(identity) != negated ? null : new int[0];
+            }
+            return new int[]{index.get(name) << 1 | (negated ? 1 : 0)};
         }
-        return -1;
-    }
 
-    private String removeOuterParentheses(String formula) {
-        while (formula.startsWith("(") && findMatchingParenthesis(formula, 0) == formula.length() - 1) {
-            formula = formula.substring(1, formula.length() - 1).trim();
+        /** Pulls the clauses of one node; returns null when there are no more. */
+        private interface Cursor {
+            int[] next();
+        }
+
+        private static final class Single implements Cursor {
+            private int[] clause;
+
+            Single(int[] clause) {
+                this.clause = clause;
+            }
+
+            @Override
+            public int[] next() {
+                int[] result = clause;
+                clause = null;
+                return result;
+            }
+        }
+
+        // Outer operator: the clauses of the left operand, then those of the right one
+        private final class Concat implements Cursor {
+            private final Node right;
+            private Cursor current;
+            private boolean onRight;
+
+            Concat(Node node) {
+                this.right = node.getRight();
+                this.current = open(node.getLeft());
+            }
+
+            @Override
+            public int[] next() {
+                int[] clause = current.next();
+                if (clause == null && !onRight) {
+                    onRight = true;
+                    current = open(right);
+                    clause = current.next();
+                }
+                return clause;
+            }
+        }
+
+        // Inner operator: every non-trivial union of a left clause with a right clause
+        private final class Product implements Cursor {
+            private final Node rightNode;
+            private final Cursor left;
+            private int[] leftClause;
+            private Cursor right;
+
+            Product(Node node) {
+                this.rightNode = node.getRight();
+                this.left = open(node.getLeft());
+            }
+
+            @Override
+            public int[] next() {
+                while (true) {
+                    if (leftClause == null) {
+                        leftClause = left.next();
+                        if (leftClause == null) {
+                            return null;
+                        }
+                        Deadline.checkpoint();
+                        right = open(rightNode);
+                    }
+                    int[] rightClause = right.next();
+                    if (rightClause == null) {
+                        leftClause = null;
+                        continue;
+                    }
+                    int[] union = union(leftClause, rightClause);
+                    if (union != null) {
+                        return union;
+                    }
+                }
+            }
         }
-        return formula;
     }
 
-    private String joinByOperator(List<String> terms, char op) {
-        if (terms.size() == 1) return terms.get(0);
-        return String.join(String.valueOf(op), terms);
+    // Merge of two sorted clauses, or null if the result contains a literal and its negation
+    private static int[] union(int[] x, int[] y) {
+        int[] merged = new int[x.length + y.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < x.length || j < y.length) {
+            int next = j == y.length || i < x.length && x[i] <= y[j] ? x[i++] : y[j++];
+            if (n > 0 && merged[n - 1] == next) {
+                continue;
+            }
+            if (n > 0 && (merged[n - 1] ^ 1) == next) {
+                return null;
+            }
+            merged[n++] = next;
+        }
+        return n == merged.length ? merged : Arrays.copyOf(merged, n);
     }
 }
@@ -1,6 +1,12 @@
 package com.example.licenta.logic;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.example.licenta.execution.Deadline;
+import com.example.licenta.normalForm.ClauseSet;
+import com.example.licenta.normalForm.Node;
+import com.example.licenta.normalForm.NodeFactory;
+import com.example.licenta.normalForm.NodeType;
+import com.example.licenta.parser.ParseResult;
+import com.example.licenta.parser.Parser;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -8,622 +14,144 @@ import java.util.*;
 
 /**
  * This class is responsible for converting logical formulas to their normal forms (CNF or DNF).
- * It includes methods for normalizing, eliminating implications, applying De Morgan's laws,
- * and simplifying the formulas.
+ * <p>
+ * The conversion runs on the syntax tree, in passes that visit each distinct node once:
+ * <ol>
+ *     <li>implications and biconditionals are eliminated while negations are pushed down to the variables
+ *     (negation normal form), in a single pass over (node, polarity) pairs;</li>
+ *     <li>the NNF is flattened into clauses of integer literals by {@link LogicalDistributivity}, which
+ *     distributes ∨ over ∧ (∧ over ∨ for a DNF);</li>
+ *     <li>the clauses are simplified as a {@link ClauseSet} and printed.</li>
+ * </ol>
+ * Only the distribution can grow faster than the formula, which is inherent to CNF and DNF.
  */
 
 @Component
 public class NormalFormConverter {
-    @Autowired
-    private FormulaValidator validator;
-    private final LogicalDistributivity logic = new LogicalDistributivity();
-
-
 
+    /**
+     * Converts a formula to CNF or DNF, written with ¬, ∧, ∨ and no spaces, e.g. {@code (A∨¬B)∧C}. Clauses of
+     * more than one literal are parenthesized, as is a whole DNF of several terms. A valid formula gives "1",
+     * an unsatisfiable one "0".
+     *
+     * @throws IllegalArgumentException if the formula is not well-formed
+     */
     public String toNormalForm(String formula, boolean targetCNF) {
-        if (!validator.isFormula(formula)) {
+        ParseResult parsed = Parser.parse(formula);
+        if (!parsed.isValid()) {
             throw new IllegalArgumentException("Invalid formula");
         }
 
-        // 1. Normalize
-        String normalized = normalizeFormula(formula);
-
-        // 2. Eliminate implications and biconditionals
-        normalized = eliminateImplications(normalized);
-
-        // 3. Apply De Morgan's
-        normalized = applyDeMorgans(normalized);
-
-        // 4. Apply basic simplifications
-        normalized = applyBasicSimplifications(normalized);
-
-        // 5. Distribute based on target form
-        normalized = targetCNF ? logic.distributeOrOverAnd(normalized)
-                : logic.distributeAndOverOr(normalized);
-
-        // 5.5 Clean up parentheses after distribution
-        // 5.5 Flatten after distribution
-        normalized = cleanParentheses(normalized);
-        normalized = flattenAfterDistribution(normalized, targetCNF);
-
-        // 6. Final simplification
-        normalized = targetCNF ? simplifyCNF(normalized) : simplifyDNF(normalized);
-
-        // 7. Standard symbols
-        return convertToStandardSymbols(normalized);
-    }
-
-    private String cleanParentheses(String formula) {
-        if (formula == null || formula.isEmpty()) {
-            return formula;
-        }
-
-        formula = removeOuterParentheses(formula);
-
-        StringBuilder result = new StringBuilder();
-        int i = 0;
-        while (i < formula.length()) {
-            char c = formula.charAt(i);
-            if (c == '(') {
-                int end = findMatchingParenthesis(formula, i);
-                String inner = cleanParentheses(formula.substring(i + 1, end));
-
-                // Only flatten if the entire content is the same operator
-                if (canFlatten(inner)) {
-                    result.append(inner);
-                } else {
-                    result.append('(').append(inner).append(')');
-                }
-                i = end + 1;
-            } else {
-                result.append(c);
-                i++;
-            }
-        }
-
-        return result.toString();
-    }
-    private String flattenAfterDistribution(String formula, boolean isCNF) {
-        char op = isCNF ? '∨' : '∧';
-        StringBuilder result = new StringBuilder();
-        int i = 0;
-
-        while (i < formula.length()) {
-            char c = formula.charAt(i);
-            if (c == '(') {
-                int end = findMatchingParenthesis(formula, i);
-                String inner = flattenAfterDistribution(formula.substring(i + 1, end), isCNF);
-
-                if (canFlatten(inner) ){
-                    // Safe to flatten
-                    result.append(inner);
-                } else {
-                    result.append('(').append(inner).append(')');
-                }
-                i = end + 1;
-            } else {
-                result.append(c);
-                i++;
-            }
-        }
-
-        return result.toString();
-    }
-    private boolean canFlatten(String expr) {
-        if (expr.isEmpty()) return false;
-
-        // Check if all top-level operators are the same
-        int topLevelPos = topLevelOperatorPosition(expr);
-        if (topLevelPos < 0) return true; // no operators
-
-        char op = expr.charAt(topLevelPos);
-        int level = 0;
-        for (char c : expr.toCharArray()) {
-            if (c == '(') level++;
-            else if (c == ')') level--;
-            else if (level == 0 && (c == '∧' || c == '∨') && c != op) {
-                return false; // different operator at top level
-            }
-        }
-        return true;
-    }
-
-    private String removeOuterParentheses(String formula) {
-        if (formula == null || formula.isEmpty()) {
-            return formula;
-        }
-
-        formula = formula.trim();
-        while (formula.startsWith("(") && formula.endsWith(")")) {
-            // Check if the parentheses span the entire formula
-            int matchingIndex = findMatchingParenthesis(formula, 0);
-            if (matchingIndex != formula.length() - 1) {
-                break; // Parentheses don't span the entire formula
-            }
-
-            // Check if removing them would be safe
-            String inner = formula.substring(1, formula.length() - 1);
-            if (!hasBalancedParentheses(inner)) {
-                break;
-            }
-
-            // Only remove if there's a single top-level operator
-            int topLevelPos = topLevelOperatorPosition(inner);
-            if (topLevelPos < 0) {
-                // No top-level operator - safe to remove
-                formula = inner;
-                continue;
-            }
-
-            // Check if all operators at top level are the same
-            char firstOp = inner.charAt(topLevelPos);
-            if (allTopLevelOperatorsSame(inner, firstOp)) {
-                formula = inner;
-            } else {
-                break;
-            }
-        }
-        return formula;
-    }
+        // 1. Eliminate implications and biconditionals, push negations inwards
+        Node nnf = new NnfPass(targetCNF).apply(parsed.getRoot(), false);
 
-    private boolean allTopLevelOperatorsSame(String expr, char op) {
-        int level = 0;
-        for (char c : expr.toCharArray()) {
-            if (c == '(') level++;
-            else if (c == ')') level--;
-            else if (level == 0 && (c == '∧' || c == '∨') && c != op) {
-                return false;
-            }
-        }
-        return true;
-    }
+        // 2. Flatten and distribute into clauses
+        List<String> variables = new ArrayList<>(parsed.getVariables());
+        List<int[]> clauses = new ArrayList<>();
+        LogicalDistributivity.clauses(nnf, targetCNF, variables).forEachRemaining(clauses::add);
 
+        // 3. Final simplification
+        ClauseSet reduced = ClauseSet.of(targetCNF ? NodeType.AND : NodeType.OR, variables, clauses).reduce();
 
-    private String applyBasicSimplifications(String formula) {
-        String result = formula;
-        String previous;
-        do {
-            previous = result;
-            result = applyIdempotence(result);
-            result = applyExcludedMiddleAndContradiction(result);
-            result = applyAbsorption(result);
-            result = removeDoubleNegations(result);
-        } while (!result.equals(previous));
-        return result;
+        // 4. Standard symbols
+        return print(reduced, targetCNF);
     }
-    private String removeDoubleNegations(String formula) {
-        return formula.replaceAll("!!", "");
-    }
-    private String eliminateImplications(String formula) {
-        LinkedList<Character> chars = new LinkedList<>();
-        for (char c : formula.toCharArray()) {
-            chars.add(c);
-        }
-
-        ListIterator<Character> it = chars.listIterator();
-        while (it.hasNext()) {
-            char c = it.next();
-            if (c == '-') {
-                // Check if it's part of -> or <->
-                if (it.hasNext() && chars.get(it.nextIndex()) == '>') {
-                    it.remove(); // remove '-'
-                    char next = it.next(); // should be '>'
-                    it.set('|'); // replace '>' with '|'
-
-                    // Now handle the left operand
-                    int currentIdx = it.previousIndex() - 1;
-                    if (currentIdx >= 0) {
-                        // Find the start of the left operand
-                        int start = findOperandStart(chars, currentIdx);
-                        // Insert negation at the start of left operand
-                        chars.add(start, '!');
-                        it = chars.listIterator(); // reset iterator after modification
-                    }
-                }
-            } else if (c == '<') {
-                // Handle biconditional <-> by converting to (A -> B) & (B -> A)
-                if (it.hasNext() && chars.get(it.nextIndex()) == '-'
-                        && it.hasNext() && chars.get(it.nextIndex()+1) == '>') {
-                    it.remove(); // remove '<'
-                    it.next(); // skip '-'
-                    it.next(); // skip '>'
-                    it.set('&'); // replace '>' with '&'
 
-                    // Now we need to duplicate the operands with implications
-                    int currentIdx = it.previousIndex();
-                    int rightStart = currentIdx + 1;
-                    int rightEnd = findOperandEnd(chars, rightStart);
-                    String rightOperand = charsToString(chars, rightStart, rightEnd);
-
-                    int leftEnd = currentIdx - 1;
-                    int leftStart = findOperandStart(chars, leftEnd);
-                    String leftOperand = charsToString(chars, leftStart, leftEnd);
-
-                    // Replace the whole biconditional with (A -> B) & (B -> A)
-                    String replacement = "(" + leftOperand + "->" + rightOperand + ")&(" + rightOperand + "->" + leftOperand + ")";
-
-                    // Modify the list
-                    for (int i = leftStart; i < rightEnd; i++) {
-                        chars.remove(leftStart);
-                    }
-                    for (char rc : replacement.toCharArray()) {
-                        chars.add(leftStart, rc);
-                    }
-
-                    it = chars.listIterator(); // reset iterator
-                }
-            }
+    private static String print(ClauseSet clauses, boolean cnf) {
+        if (clauses.size() == 0) {
+            return cnf ? "1" : "0";
         }
-
-        return charsToString(chars, 0, chars.size());
-    }
-
-    private String charsToString(List<Character> chars, int start, int end) {
+        char outer = cnf ? '∧' : '∨';
+        char inner = cnf ? '∨' : '∧';
+        List<String> variables = clauses.getVariables();
         StringBuilder sb = new StringBuilder();
-        for (int i = start; i < end && i < chars.size(); i++) {
-            sb.append(chars.get(i));
-        }
-        return sb.toString();
-    }
-
-    private int findOperandStart(List<Character> chars, int end) {
-        if (end < 0) return 0;
-
-        if (chars.get(end) == ')') {
-            int balance = 1;
-            for (int i = end - 1; i >= 0; i--) {
-                if (chars.get(i) == ')') balance++;
-                if (chars.get(i) == '(') balance--;
-                if (balance == 0) return i;
-            }
-            return 0;
-        }
-
-        // For atomic propositions
-        int start = end;
-        while (start >= 0) {
-            char c = chars.get(start);
-            if (c == '&' || c == '|' || c == '(' ||
-                    (start - 1 >= 0 && chars.get(start - 1) == '-' && chars.get(start) == '>') ||
-                    (start - 2 >= 0 && chars.get(start - 2) == '<' && chars.get(start - 1) == '-' && chars.get(start) == '>')) {
-                return start + 1;
-            }
-            start--;
-        }
-        return 0;
-    }
-
-    private int findOperandEnd(List<Character> chars, int start) {
-        if (start >= chars.size()) return chars.size();
-
-        if (chars.get(start) == '(') {
-            int balance = 1;
-            for (int i = start + 1; i < chars.size(); i++) {
-                if (chars.get(i) == '(') balance++;
-                if (chars.get(i) == ')') balance--;
-                if (balance == 0) return i + 1;
-            }
-            return chars.size();
-        }
-
-        // For atomic propositions
-        int end = start;
-        while (end < chars.size()) {
-            char c = chars.get(end);
-            if (c == '&' || c == '|' || c == ')' ||
-                    (end + 1 < chars.size() && chars.get(end) == '-' && chars.get(end + 1) == '>') ||
-                    (end + 2 < chars.size() && chars.get(end) == '<' && chars.get(end + 1) == '-' && chars.get(end + 2) == '>')) {
-                break;
-            }
-            end++;
-        }
-        return end;
-    }
-
-    // Rest of the methods remain the same as in your original code
-    private String normalizeFormula(String formula) {
-        return formula.replaceAll("\\s+", "")
-                .replace("¬", "!")
-                .replace("∧", "&")
-                .replace("∨", "|")
-                .replace("→", "->")
-                .replace("↔", "<->");
-    }
-
-    private String convertToStandardSymbols(String formula) {
-        if (formula == null || formula.isEmpty()) {
-            return formula;
-        }
-        return formula.replace("!", "¬")
-                .replace("&", "∧")
-                .replace("|", "∨");
-    }
-
-    private String applyDeMorgans(String formula) {
-        String result = formula;
-        String previous;
-        do {
-            previous = result;
-            result = applyDeMorgansStep(result);
-        } while (!result.equals(previous));
-        return result;
-    }
-
-    private String applyDeMorgansStep(String formula) {
-        StringBuilder sb = new StringBuilder();
-        int i = 0;
-
-        while (i < formula.length()) {
-            if (i + 1 < formula.length() && formula.startsWith("!(", i)) {
-                int end = findMatchingParenthesis(formula, i + 1);
-                String inner = formula.substring(i + 2, end);
-
-                char topLevelOp = findTopLevelOperator(inner);
-                if (topLevelOp == '&' || topLevelOp == '|') {
-                    List<String> parts = splitTopLevel(inner, topLevelOp);
-                    char newOp = (topLevelOp == '&') ? '|' : '&';
-
-                    StringBuilder newExpr = new StringBuilder("(");
-                    for (String part : parts) {
-                        newExpr.append("!").append(part).append(newOp);
-                    }
-                    newExpr.setLength(newExpr.length() - 1); // Remove last operator
-                    newExpr.append(")");
-
-                    sb.append(newExpr);
-                    i = end + 1;
-                    continue;
-                }
-            }
-            sb.append(formula.charAt(i));
-            i++;
-        }
-
-        return sb.toString().replaceAll("!!","");
-    }
-
-    private String simplifyCNF(String formula) {
-        formula = applyIdempotence(formula);
-        formula = applyExcludedMiddleAndContradiction(formula);
-        formula = applyAbsorption(formula);
-        List<String> clauses = splitTopLevel(formula, '&');
-        Set<String> uniqueClauses = new LinkedHashSet<>();
-
-        for (String clause : clauses) {
-            List<String> literals = splitTopLevel(clause, '|');
-            Set<String> uniqueLiterals = new LinkedHashSet<>();
-            Set<String> literalSet = new HashSet<>();
-            boolean isTautology = false;
-
-            for (String literal : literals) {
-                literal = literal.trim();
-                String negation = literal.startsWith("¬") ? literal.substring(1) : "¬" + literal;
-                if (literalSet.contains(negation)) {
-                    isTautology = true;
-                    break;
-                }
-                literalSet.add(literal);
-                uniqueLiterals.add(literal);
-            }
-
-            if (isTautology) {
-                // In CNF, clause that is always true doesn't affect conjunction
+        for (int i = 0; i < clauses.size(); i++) {
+            int[] clause = clauses.clause(i);
+            if (i > 0) {
+                sb.append(outer);
+            }
+            if (clause.length == 0) {
+                // The empty clause: 0 in a CNF, 1 in a DNF
+                sb.append(cnf ? '0' : '1');
                 continue;
             }
-
-            if (uniqueLiterals.size() == 1) {
-                uniqueClauses.add(uniqueLiterals.iterator().next());
-            } else {
-                uniqueClauses.add("(" + String.join("|", uniqueLiterals) + ")");
+            if (clause.length > 1) {
+                sb.append('(');
             }
-        }
-
-        return uniqueClauses.isEmpty() ? "" :
-                uniqueClauses.size() == 1 ? uniqueClauses.iterator().next() :
-                        String.join("&", uniqueClauses);
-    }
-
-    private String simplifyDNF(String formula) {
-        formula = applyIdempotence(formula);
-        formula = applyExcludedMiddleAndContradiction(formula);
-        formula = applyAbsorption(formula);
-        // First, remove all outer parentheses that don't serve a purpose
-        formula = removeOuterParentheses(formula);
-
-        List<String> terms = splitTopLevel(formula, '|');
-        Set<String> uniqueTerms = new LinkedHashSet<>();
-
-        for (String term : terms) {
-            term = removeOuterParentheses(term);
-            List<String> literals = splitTopLevel(term, '&');
-            Set<String> uniqueLiterals = new LinkedHashSet<>();
-            Set<String> literalSet = new HashSet<>();
-            boolean isContradictory = false;
-
-            for (String literal : literals) {
-                literal = literal.trim();
-                String negation = literal.startsWith("¬") ? literal.substring(1) : "¬" + literal;
-                if (literalSet.contains(negation)) {
-                    isContradictory = true;
-                    break;
+            for (int k = 0; k < clause.length; k++) {
+                if (k > 0) {
+                    sb.append(inner);
                 }
-                literalSet.add(literal);
-                uniqueLiterals.add(literal);
-            }
-
-            if (isContradictory) {
-                continue;
-            }
-
-            // Build the term - only add parentheses if needed
-            if (uniqueLiterals.size() == 1) {
-                uniqueTerms.add(uniqueLiterals.iterator().next());
-            } else {
-                String termStr = String.join("∧", uniqueLiterals);
-                // Only add parentheses if the term contains operators
-                uniqueTerms.add(uniqueLiterals.size() > 1 ? "(" + termStr + ")" : termStr);
-            }
-        }
-
-        if (uniqueTerms.isEmpty()) {
-            return "";
-        }
-
-        // Join all terms with disjunction
-        String result = String.join("∨", uniqueTerms);
-
-        // Only add outer parentheses if:
-        // 1. There are multiple terms, and
-        // 2. The result contains conjunction operators that need grouping
-        if (uniqueTerms.size() > 1 && result.contains("∧")) {
-            return "(" + result + ")";
-        }
-
-        return result;
-    }
-    // New methods for logical simplifications
-    private String applyIdempotence(String formula) {
-        // A ∧ A ⇐⇒ A, A ∨ A ⇐⇒ A
-        String result = formula;
-        String previous;
-        do {
-            previous = result;
-            result = result.replaceAll("\\(([^()]+)\\1\\)", "$1")  // (AA) => A
-                    .replaceAll("([^∧∨])(∧|∨)\\1", "$1");    // A∧A => A, A∨A => A
-        } while (!result.equals(previous));
-        return result;
-    }
-
-    private String applyExcludedMiddleAndContradiction(String formula) {
-        // A ∨ ¬A ⇐⇒ 1 (tautology), A ∧ ¬A ⇐⇒ 0 (contradiction)
-        String result = formula;
-        String previous;
-        do {
-            previous = result;
-
-            // Match patterns like A∨¬A or ¬A∨A => replace with 1
-            result = result.replaceAll("([A-Z])\\|¬\\1", "1");
-            result = result.replaceAll("¬([A-Z])\\|\\1", "1");
-
-            // Match patterns like A∧¬A or ¬A∧A => replace with 0
-            result = result.replaceAll("([A-Z])∧¬\\1", "0");
-            result = result.replaceAll("¬([A-Z])∧\\1", "0");
-
-        } while (!result.equals(previous));
-
-        return result;
-    }
-
-    private String applyAbsorption(String formula) {
-        // A ∧ (A ∨ C) ⇐⇒ A, A ∨ (A ∧ C) ⇐⇒ A
-        String result = formula;
-        String previous;
-        do {
-            previous = result;
-            // Pattern for A ∧ (A ∨ C)
-            result = result.replaceAll("([^∧∨()]+)∧\\(\\1∨([^()]+)\\)", "$1")
-                    .replaceAll("([^∧∨()]+)∧\\(([^()]+)∨\\1\\)", "$1");
-            // Pattern for A ∨ (A ∧ C)
-            result = result.replaceAll("([^∧∨()]+)∨\\(\\1∧([^()]+)\\)", "$1")
-                    .replaceAll("([^∧∨()]+)∨\\(([^()]+)∧\\1\\)", "$1");
-        } while (!result.equals(previous));
-        return result;
-    }
-
-
-
-    private boolean hasBalancedParentheses(String expr) {
-        int count = 0;
-        for (int i = 0; i < expr.length(); i++) {
-            char c = expr.charAt(i);
-            if (c == '(') count++;
-            if (c == ')') count--;
-            if (count < 0) return false;
-        }
-        return count == 0;
-    }
-
-    private int topLevelOperatorPosition(String expr) {
-        int depth = 0;
-        for (int i = 0; i < expr.length(); i++) {
-            char c = expr.charAt(i);
-            if (c == '(') depth++;
-            if (c == ')') depth--;
-            if (depth == 0 && (c == '∧' || c == '∨')) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
-    private List<String> splitTopLevel(String formula, char... operators) {
-        if (formula.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        Set<Character> ops = new HashSet<>();
-        for (char op : operators) {
-            ops.add(op);
-        }
-
-        List<String> parts = new ArrayList<>();
-        int depth = 0;
-        int start = 0;
-
-        for (int i = 0; i < formula.length(); i++) {
-            char c = formula.charAt(i);
-            if (c == '(') {
-                depth++;
-                continue;
-            }
-            if (c == ')') {
-                depth--;
-                continue;
-            }
-
-            if (depth == 0 && ops.contains(c)) {
-                String part = formula.substring(start, i).trim();
-                if (!part.isEmpty()) {
-                    parts.add(part);
+                if ((clause[k] & 1) != 0) {
+                    sb.append('¬');
                 }
-                start = i + 1;
+                sb.append(variables.get(clause[k] >> 1));
+            }
+            if (clause.length > 1) {
+                sb.append(')');
             }
         }
-
-        String lastPart = formula.substring(start).trim();
-        if (!lastPart.isEmpty()) {
-            parts.add(lastPart);
-        }
-
-        if (parts.isEmpty() && !formula.trim().isEmpty()) {
-            parts.add(formula.trim());
+        if (!cnf && clauses.size() > 1 && sb.indexOf("∧") >= 0) {
+            sb.insert(0, '(').append(')');
         }
-
-        return parts;
+        return sb.toString();
     }
 
-    private char findTopLevelOperator(String expr) {
-        int depth = 0;
-        for (int i = 0; i < expr.length(); i++) {
-            char c = expr.charAt(i);
-            if (c == '(') depth++;
-            if (c == ')') depth--;
-            if (depth == 0 && (c == '&' || c == '|')) {
-                return c;
-            }
+    /**
+     * Eliminates → and ↔ and pushes negations to the variables. Each node is rewritten at most once per
+     * polarity, so the pass is linear in the size of the syntax DAG.
+     */
+    private static final class NnfPass {
+        private final boolean cnf;
+        private final Map<Node, Node> positive = new IdentityHashMap<>();
+        private final Map<Node, Node> negative = new IdentityHashMap<>();
+
+        NnfPass(boolean cnf) {
+            this.cnf = cnf;
+        }
+
+        Node apply(Node node, boolean negated) {
+            Map<Node, Node> done = negated ? negative : positive;
+            Node result = done.get(node);
+            if (result != null) {
+                return result;
+            }
+            Deadline.checkpoint();
+            Node l = node.getLeft();
+            Node r = node.getRight();
+            result = switch (node.getType()) {
+                case VAR -> literal(node, negated);
+                case NOT -> apply(l, !negated);
+                // De Morgan: ¬(A ∧ B) ≡ ¬A ∨ ¬B, ¬(A ∨ B) ≡ ¬A ∧ ¬B
+                case AND -> negated ? NodeFactory.or(apply(l, true), apply(r, true))
+                        : NodeFactory.and(apply(l, false), apply(r, false));
+                case OR -> negated ? NodeFactory.and(apply(l, true), apply(r, true))
+                        : NodeFactory.or(apply(l, false), apply(r, false));
+                // A → B ≡ ¬A ∨ B, ¬(A → B) ≡ A ∧ ¬B
+                case IMPLIES -> negated ? NodeFactory.and(apply(l, false), apply(r, true))
+                        : NodeFactory.or(apply(l, true), apply(r, false));
+                case IFF -> iff(l, r, negated);
+            };
+            done.put(node, result);
+            return result;
+        }
+
+        // A ↔ B is (¬A ∨ B) ∧ (A ∨ ¬B) for a CNF and (A ∧ B) ∨ (¬A ∧ ¬B) for a DNF; ¬(A ↔ B) is A ↔ ¬B
+        private Node iff(Node a, Node b, boolean negated) {
+            Node pa = apply(a, false);
+            Node na = apply(a, true);
+            Node pb = apply(b, negated);
+            Node nb = apply(b, !negated);
+            return cnf ? NodeFactory.and(NodeFactory.or(na, pb), NodeFactory.or(pa, nb))
+                    : NodeFactory.or(NodeFactory.and(pa, pb), NodeFactory.and(na, nb));
+        }
+
+        private static Node literal(Node variable, boolean negated) {
+            String name = variable.getValue();
+            if (name.equals("1") || name.equals("0")) {
+                return negated ? NodeFactory.var(name.equals("1") ? "0" : "1") : variable;
+            }
+            return negated ? NodeFactory.not(variable) : variable;
         }
-        return ' ';
     }
-
-    private int findMatchingParenthesis(String expr, int start) {
-        int count = 1;
-        for (int i = start + 1; i < expr.length(); i++) {
-            char c = expr.charAt(i);
-            if (c == '(') count++;
-            if (c == ')') count--;
-            if (count == 0) return i;
-        }
-        return expr.length();
-}
-
 }
@@ -0,0 +1,176 @@
+package com.example.licenta.logic;
+
+import com.example.licenta.execution.Deadline;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Truth table of a {@link CompiledFormula} stored column by column as packed bitsets.
+ * <p>
+ * Bit {@code r % 64} of word {@code r / 64} of a column is the value of that node in row {@code r}. Columns
+ * are computed 64 rows at a time with word-wide bitwise operations, visiting the nodes in id order so that
+ * every subformula is computed once from its children's columns. Bits past the last row are always zero.
+ */
+public final class PackedTruthTable {
+
+    // Bit r of VARIABLE_PATTERNS[b] is bit b of r: the value of a variable whose valuation bit is b < 6
+    private static final long[] VARIABLE_PATTERNS = {
+            0xAAAAAAAAAAAAAAAAL,
+            0xCCCCCCCCCCCCCCCCL,
+            0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L,
+            0xFFFF0000FFFF0000L,
+            0xFFFFFFFF00000000L
+    };
+
+    private final CompiledFormula formula;
+    private final long[][] columns;
+
+    private PackedTruthTable(CompiledFormula formula, long[][] columns) {
+        this.formula = formula;
+        this.columns = columns;
+    }
+
+    /**
+     * Computes the column of every node of the formula over all {@code 2^n} rows.
+     */
+    public static PackedTruthTable generate(CompiledFormula formula) {
+        int words = columnWords(formula);
+        long[][] columns = new long[formula.size()][words];
+        evaluateWords(formula, 0, words, columns, 0, Deadline.current());
+        return new PackedTruthTable(formula, columns);
+    }
+
+    /**
+     * Computes the same table as {@link #generate(CompiledFormula)}, splitting the rows into ranges that are
+     * computed in parallel on {@code pool}. Tables with fewer than {@code thresholdRows} rows are computed on
+     * the calling thread.
+     */
+    public static PackedTruthTable generate(CompiledFormula formula, ForkJoinPool pool, long thresholdRows) {
+        long rows = formula.getRowCount();
+        if (rows < thresholdRows || pool.getParallelism() < 2) {
+            return generate(formula);
+        }
+        int words = columnWords(formula);
+        long[][] columns = new long[formula.size()][words];
+        // A few ranges per worker keeps them busy when some ranges finish early
+        int leafWords = (int) Math.max(1, Math.min(wordCount(thresholdRows), words / (4L * pool.getParallelism())));
+        pool.invoke(new WordRange(formula, columns, 0, words, leafWords, Deadline.current()));
+        return new PackedTruthTable(formula, columns);
+    }
+
+    /**
+     * Computes a block of consecutive words of every column.
+     *
+     * @param firstWord index of the first word, i.e. the block starts at row {@code 64 * firstWord}
+     * @param words     number of words to compute
+     * @param columns   one array of at least {@code words} entries per node; word {@code firstWord + k} is
+     *                  written at index {@code k}
+     */
+    public static void evaluateWords(CompiledFormula formula, long firstWord, int words, long[][] columns) {
+        evaluateWords(formula, firstWord, words, columns, 0, Deadline.current());
+    }
+
+    // Same as above, writing word firstWord + k at index offset + k and checking the deadline now and then
+    private static void evaluateWords(CompiledFormula formula, long firstWord, int words, long[][] columns,
+                                      int offset, Deadline deadline) {
+        long rows = formula.getRowCount();
+        for (int w = 0; w < words; w++) {
+            if ((w & 1023) == 1023 && deadline != null) {
+                deadline.check();
+            }
+            int k = offset + w;
+            long word = firstWord + w;
+            long firstRow = word << 6;
+            // Only a table with fewer than 64 rows has a partial word
+            long valid = rows - firstRow >= 64 ? -1L : (1L << (rows - firstRow)) - 1;
+            for (int i = 0; i < formula.size(); i++) {
+                int l = formula.left(i);
+                int r = formula.right(i);
+                long value = switch (formula.op(i)) {
+                    case CompiledFormula.VAR -> l < 6 ? VARIABLE_PATTERNS[l] : (firstRow >>> l & 1L) != 0 ? -1L : 0L;
+                    case CompiledFormula.CONST -> l != 0 ? -1L : 0L;
+                    case CompiledFormula.NOT -> ~columns[l][k];
+                    case CompiledFormula.AND -> columns[l][k] & columns[r][k];
+                    case CompiledFormula.OR -> columns[l][k] | columns[r][k];
+                    case CompiledFormula.IMPLIES -> ~columns[l][k] | columns[r][k];
+                    default -> ~(columns[l][k] ^ columns[r][k]);
+                };
+                columns[i][k] = value & valid;
+            }
+        }
+    }
+
+    // Words per column, checked to fit an array before anything is allocated
+    private static int columnWords(CompiledFormula formula) {
+        long words = wordCount(formula.getRowCount());
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many variables: " + formula.getVariableCount());
+        }
+        return (int) words;
+    }
+
+    /** Number of 64-bit words needed to hold {@code rows} bits. */
+    public static long wordCount(long rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    public CompiledFormula getFormula() {
+        return formula;
+    }
+
+    public long getRowCount() {
+        return formula.getRowCount();
+    }
+
+    public boolean get(int node, long row) {
+        return (columns[node][(int) (row >>> 6)] >>> row & 1L) != 0;
+    }
+
+    /** The packed column of a node. The returned array is shared, not copied. */
+    public long[] column(int node) {
+        return columns[node];
+    }
+
+    /** Number of rows in which the node is true. */
+    public long cardinality(int node) {
+        long count = 0;
+        for (long word : columns[node]) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Computes the words {@code [from, to)} of every column, splitting in halves down to {@code leafWords}.
+     * Ranges write disjoint parts of the column arrays, so no synchronization is needed.
+     */
+    private static final class WordRange extends RecursiveAction {
+        private final CompiledFormula formula;
+        private final long[][] columns;
+        private final int from;
+        private final int to;
+        private final int leafWords;
+        private final Deadline deadline;
+
+        WordRange(CompiledFormula formula, long[][] columns, int from, int to, int leafWords, Deadline deadline) {
+            this.formula = formula;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.leafWords = leafWords;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafWords) {
+                evaluateWords(formula, from, to - from, columns, from, deadline);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new WordRange(formula, columns, from, middle, leafWords, deadline),
+                    new WordRange(formula, columns, middle, to, leafWords, deadline));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.licenta.logic;
+
+import com.example.licenta.normalForm.Node;
+import com.example.licenta.parser.Diagnostic;
+import com.example.licenta.parser.ParseResult;
+import com.example.licenta.parser.Parser;
+
+import java.util.*;
+
+/**
+ * Everything the endpoints derive from the text of a formula, computed once: the parse result (syntax tree,
+ * diagnostics, normalized text, variables), the {@link SubformulaDag} giving the subformulas and the truth-table
+ * headers, and the program compiled from that same DAG.
+ * <p>
+ * Instances are immutable once built and safe to share between requests, which is what lets
+ * {@link FormulaCache} hand the same instance to every request for the same formula.
+ */
+public final class ParsedFormula {
+
+    private final String formula;
+    private final ParseResult syntax;
+    private final Set<String> variables;
+    private final SubformulaDag dag;
+    private final CompiledFormula compiled;
+    private final String compileError;
+
+    private ParsedFormula(String formula, ParseResult syntax, Set<String> variables, SubformulaDag dag,
+                          CompiledFormula compiled, String compileError) {
+        this.formula = formula;
+        this.syntax = syntax;
+        this.variables = variables;
+        this.dag = dag;
+        this.compiled = compiled;
+        this.compileError = compileError;
+    }
+
+    /**
+     * Parses a formula. An invalid formula is not an error: the result reports {@link #isValid()} false and
+     * holds no variables, subformulas or program.
+     */
+    public static ParsedFormula parse(String formula) {
+        ParseResult syntax = Parser.parse(formula);
+        if (!syntax.isValid()) {
+            return new ParsedFormula(formula, syntax, Collections.emptySet(), null, null,
+                    "Invalid formula: " + syntax.getDiagnostics().get(0));
+        }
+
+        Set<String> variables = syntax.getVariables();
+        SubformulaDag dag = SubformulaDag.of(syntax);
+        CompiledFormula compiled = null;
+        String compileError = null;
+        try {
+            compiled = CompiledFormula.compile(dag, variables);
+        } catch (IllegalArgumentException e) {
+            // Valid but not evaluable, e.g. too many variables: only the evaluating endpoints fail
+            compileError = e.getMessage();
+        }
+        return new ParsedFormula(formula, syntax, variables, dag, compiled, compileError);
+    }
+
+    public String getFormula() {
+        return formula;
+    }
+
+    public boolean isValid() {
+        return syntax.isValid();
+    }
+
+    /** The syntax errors, empty for a valid formula. */
+    public List<Diagnostic> getDiagnostics() {
+        return syntax.getDiagnostics();
+    }
+
+    /** The formula without whitespace, with the ASCII operators !, &amp;, |, &gt;, =. */
+    public String getNormalizedFormula() {
+        return syntax.getNormalizedFormula();
+    }
+
+    /** The syntax tree, or null if the formula is invalid. */
+    public Node getAst() {
+        return syntax.getRoot();
+    }
+
+    /** The variables in alphabetical order. */
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    /** Distinct parenthesized groups and variables, simple to complex. See {@link SubformulaDag}. */
+    public List<String> getSubformulas() {
+        return dag == null ? List.of() : dag.getSubformulas();
+    }
+
+    /** Keys of a truth-table row after the variables: the groups, then the formula, simple to complex. */
+    public List<String> getColumnFormulas() {
+        return dag == null ? List.of() : dag.getColumnFormulas();
+    }
+
+    /** Column headers of the truth table: the variables, then {@link #getColumnFormulas()}. */
+    public List<String> getHeaders() {
+        return dag == null ? List.of() : dag.getHeaders();
+    }
+
+    /**
+     * The compiled program over {@link #getVariables()}.
+     *
+     * @throws IllegalArgumentException if the formula is not valid or cannot be compiled
+     */
+    public CompiledFormula getCompiled() {
+        if (compiled == null) {
+            throw new IllegalArgumentException(compileError);
+        }
+        return compiled;
+    }
+}
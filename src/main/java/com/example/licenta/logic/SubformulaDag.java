@@ -0,0 +1,216 @@
+package com.example.licenta.logic;
+
+import com.example.licenta.normalForm.Node;
+import com.example.licenta.parser.ParseResult;
+
+import java.util.*;
+
+/**
+ * The distinct subformulas of a parsed formula, numbered so that all of them can be computed in one pass.
+ * <p>
+ * The parser's syntax tree is hash-consed, so it already is a DAG: a subformula occurring several times is a
+ * single node. Its nodes are numbered in post-order (left operand, right operand, node), a topological order in
+ * which the operands of a node always have smaller ids. Walking the ids upwards therefore computes every
+ * subformula once, from values already computed. {@link CompiledFormula} compiles exactly these ids, so a
+ * column of the truth table has the same id here and in the program.
+ * <p>
+ * The source text of every parenthesized group and variable, as recorded by the parser, is mapped to its id.
+ * The subformulas, the truth-table headers and the row keys are all read from that map in id order, i.e.
+ * simple to complex, with texts sharing an id in the order they close in the formula.
+ */
+public final class SubformulaDag {
+
+    private final String formula;
+    private final SortedSet<String> variables;
+    private final Node[] nodes;
+    // Operand ids, -1 where the node has none
+    private final int[] left;
+    private final int[] right;
+    private final int root;
+    private final Map<String, Integer> textIds;
+    private final List<String> subformulas;
+    private final List<String> columnFormulas;
+    private final int[] columnIds;
+    private final List<String> headers;
+
+    private SubformulaDag(ParseResult parsed, Numbering numbering, int root) {
+        this.formula = parsed.getFormula();
+        this.variables = parsed.getVariables();
+        this.nodes = numbering.nodes.toArray(new Node[0]);
+        this.left = Arrays.copyOf(numbering.left, nodes.length);
+        this.right = Arrays.copyOf(numbering.right, nodes.length);
+        this.root = root;
+
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> texts = new ArrayList<>();
+        parsed.getSpans().forEach((text, node) -> {
+            ids.put(text, numbering.ids.get(node));
+            texts.add(text);
+        });
+        this.textIds = Collections.unmodifiableMap(ids);
+        // Stable sort: texts sharing an id stay in the order they close
+        texts.sort(Comparator.comparingInt(ids::get));
+
+        List<String> subs = new ArrayList<>();
+        List<String> columns = new ArrayList<>();
+        for (String text : texts) {
+            // The whole formula is a subformula only when it is itself a group or a variable
+            if (!text.equals(formula) || isGroup(formula) || variables.contains(formula)) {
+                subs.add(text);
+                if (!variables.contains(text)) {
+                    columns.add(text);
+                }
+            }
+        }
+        if (!columns.contains(formula) && !variables.contains(formula)) {
+            columns.add(formula);
+        }
+        this.subformulas = List.copyOf(subs);
+        this.columnFormulas = List.copyOf(columns);
+        this.columnIds = new int[columns.size()];
+        for (int k = 0; k < columnIds.length; k++) {
+            columnIds[k] = ids.get(columns.get(k));
+        }
+        List<String> heads = new ArrayList<>(variables);
+        heads.addAll(columns);
+        this.headers = List.copyOf(heads);
+    }
+
+    /**
+     * Builds the DAG of a parsed formula.
+     *
+     * @throws IllegalArgumentException if the formula is not well-formed
+     */
+    public static SubformulaDag of(ParseResult parsed) {
+        Numbering numbering = new Numbering();
+        int root = numbering.number(parsed.getRootOrThrow());
+        return new SubformulaDag(parsed, numbering, root);
+    }
+
+    // True when the first '(' of the formula is closed by its last character
+    private static boolean isGroup(String text) {
+        if (text.isEmpty() || text.charAt(0) != '(') {
+            return false;
+        }
+        int depth = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i == text.length() - 1;
+            }
+        }
+        return false;
+    }
+
+    public String getFormula() {
+        return formula;
+    }
+
+    /** The variables in alphabetical order. */
+    public SortedSet<String> getVariables() {
+        return variables;
+    }
+
+    /** Number of distinct subformulas (node ids). */
+    public int size() {
+        return nodes.length;
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    /** The syntax-tree node with the given id. */
+    public Node node(int id) {
+        return nodes[id];
+    }
+
+    /** Id of the left (or only) operand, -1 for a variable or constant. */
+    public int left(int id) {
+        return left[id];
+    }
+
+    /** Id of the right operand, -1 for a variable, a constant or a negation. */
+    public int right(int id) {
+        return right[id];
+    }
+
+    /**
+     * Returns the id of a parenthesized group, variable or the whole formula given by its source text, or -1
+     * for any other text.
+     */
+    public int idOf(String text) {
+        Integer id = textIds.get(text);
+        return id == null ? -1 : id;
+    }
+
+    /** Distinct parenthesized groups and variables, simple to complex. */
+    public List<String> getSubformulas() {
+        return subformulas;
+    }
+
+    /** Keys of a truth-table row after the variables: the groups, then the formula, simple to complex. */
+    public List<String> getColumnFormulas() {
+        return columnFormulas;
+    }
+
+    /** The id computing each of {@link #getColumnFormulas()}. */
+    public int[] getColumnIds() {
+        return columnIds.clone();
+    }
+
+    /** Column headers of the truth table: the variables, then {@link #getColumnFormulas()}. */
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /** Assigns post-order ids; the tree is hash-consed, so identity is structural equality. */
+    private static final class Numbering {
+        private final Map<Node, Integer> ids = new IdentityHashMap<>();
+        private final List<Node> nodes = new ArrayList<>();
+        private int[] left = new int[16];
+        private int[] right = new int[16];
+
+        int number(Node root) {
+            // Explicit stack: a long chain would otherwise take one frame per level
+            Deque<Node> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Node node = stack.peek();
+                if (ids.containsKey(node)) {
+                    stack.pop();
+                    continue;
+                }
+                boolean ready = true;
+                // The left operand goes on top, so it is numbered first, as in post-order
+                if (node.getRight() != null && !ids.containsKey(node.getRight())) {
+                    stack.push(node.getRight());
+                    ready = false;
+                }
+                if (node.getLeft() != null && !ids.containsKey(node.getLeft())) {
+                    stack.push(node.getLeft());
+                    ready = false;
+                }
+                if (ready) {
+                    stack.pop();
+                    add(node);
+                }
+            }
+            return ids.get(root);
+        }
+
+        private void add(Node node) {
+            int id = nodes.size();
+            if (id == left.length) {
+                left = Arrays.copyOf(left, id * 2);
+                right = Arrays.copyOf(right, id * 2);
+            }
+            nodes.add(node);
+            left[id] = node.getLeft() == null ? -1 : ids.get(node.getLeft());
+            right[id] = node.getRight() == null ? -1 : ids.get(node.getRight());
+            ids.put(node, id);
+        }
+    }
+}
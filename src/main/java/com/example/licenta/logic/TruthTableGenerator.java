@@ -1,119 +1,334 @@
 package com.example.licenta.logic;
 
+import com.example.licenta.execution.Deadline;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 @Component
 public class TruthTableGenerator {
+    // Rows computed per block when streaming: 64 words of 64 rows
+    private static final int STREAM_BLOCK_WORDS = 64;
+
+    private final ForkJoinPool pool;
+    private final long parallelThreshold;
+    private final int maxVariables;
+
+    /**
+     * @param parallelism       worker threads for large tables; 0 shares the common fork/join pool
+     * @param parallelThreshold tables with fewer rows are computed on the calling thread
+     * @param maxVariables      largest variable count of a table built in memory, as rows or columns
+     */
+    public TruthTableGenerator(@Value("${truth-table.parallelism:0}") int parallelism,
+                               @Value("${truth-table.parallel-threshold:65536}") long parallelThreshold,
+                               @Value("${truth-table.max-variables:20}") int maxVariables) {
+        this.pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+        this.parallelThreshold = parallelThreshold;
+        this.maxVariables = Math.min(maxVariables, 30);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
     public List<Map<String, String>> generateTruthTable(Set<String> variables, String formula) {
-        List<Map<String, String>> truthTable = new ArrayList<>();
-        int numVars = variables.size();
-        int numRows = (int) Math.pow(2, numVars);
-        // Extract all subformulas including the main formula
-        SubformulaExtractor extractor = new SubformulaExtractor();
-        List<String> allFormulas = extractor.extractSubformulas(formula);
-        allFormulas.add(formula); // Add the main formula
-        // Sort formulas by complexity (simple to complex)
-        allFormulas.sort((f1, f2) -> Integer.compare(f1.length(), f2.length()));
-        List<String> varList = new ArrayList<>(variables);
-        for (int i = 0; i < numRows; i++) {
-            Map<String, Boolean> valuation = new HashMap<>();
-            Map<String, String> row = new LinkedHashMap<>();
-            // Assign truth values to variables
-            for (int j = 0; j < numVars; j++) {
-                boolean value = (i & (1 << (numVars - j - 1))) != 0;
-                valuation.put(varList.get(j), value);
-                row.put(varList.get(j), value ? "1" : "0");
-            }
-            // Evaluate all subformulas
-            for (String subformula : allFormulas) {
-                try {
-                    boolean value = evaluate(subformula, new HashMap<>(valuation));
-                    row.put(subformula, value ? "1" : "0");
-                } catch (Exception e) {
-                    row.put(subformula, "E"); // Mark evaluation errors
-                }
+        return generateTruthTable(CompiledFormula.compile(formula, variables));
+    }
+
+    /** Same as {@link #generateTruthTable(Set, String)} for an already parsed formula. */
+    public List<Map<String, String>> generateTruthTable(ParsedFormula formula) {
+        return generateTruthTable(formula.getCompiled());
+    }
+
+    /**
+     * Same rows as {@link #generateTruthTable(ParsedFormula)}, evaluated one row at a time in Gray-code order by
+     * a {@link GrayCodeEvaluator} instead of 64 rows at a time. Rows are still returned in binary order.
+     */
+    public List<Map<String, String>> generateTruthTableIncremental(ParsedFormula formula) {
+        CompiledFormula compiled = formula.getCompiled();
+        List<String> allFormulas = compiled.getSubformulaDag().getColumnFormulas();
+        long numRows = checkedRowCount(compiled);
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            deadline.stage("truth-table rows", numRows);
+        }
+        GrayCodeEvaluator evaluator = new GrayCodeEvaluator(compiled);
+        int[] nodes = compiled.getSubformulaDag().getColumnIds();
+
+        @SuppressWarnings("unchecked")
+        Map<String, String>[] rows = new Map[(int) numRows];
+        if (numRows < parallelThreshold || pool.getParallelism() < 2) {
+            new GrayRange(evaluator, allFormulas, nodes, rows, 0, (int) numRows, Integer.MAX_VALUE, deadline).compute();
+        } else {
+            int leafRows = (int) Math.max(1024, Math.min(parallelThreshold, numRows / (4L * pool.getParallelism())));
+            pool.invoke(new GrayRange(evaluator, allFormulas, nodes, rows, 0, (int) numRows, leafRows, deadline));
+        }
+        return new ArrayList<>(Arrays.asList(rows));
+    }
+
+    private List<Map<String, String>> generateTruthTable(CompiledFormula compiled) {
+        // Checked before the columns are allocated
+        long numRows = checkedRowCount(compiled);
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            deadline.stage("truth-table columns", 0);
+        }
+        // Compute every column 64 rows at a time
+        PackedTruthTable columns = PackedTruthTable.generate(compiled, pool, parallelThreshold);
+        // The columns are read by id from the subformula DAG the program was compiled from
+        List<String> allFormulas = compiled.getSubformulaDag().getColumnFormulas();
+        int[] nodes = compiled.getSubformulaDag().getColumnIds();
+
+        @SuppressWarnings("unchecked")
+        Map<String, String>[] rows = new Map[(int) numRows];
+        if (deadline != null) {
+            deadline.stage("truth-table rows", numRows);
+        }
+        if (numRows < parallelThreshold || pool.getParallelism() < 2) {
+            new RowRange(columns, allFormulas, nodes, rows, 0, (int) numRows, Integer.MAX_VALUE, deadline).compute();
+        } else {
+            int leafRows = (int) Math.max(1024, Math.min(parallelThreshold, numRows / (4L * pool.getParallelism())));
+            pool.invoke(new RowRange(columns, allFormulas, nodes, rows, 0, (int) numRows, leafRows, deadline));
+        }
+        return new ArrayList<>(Arrays.asList(rows));
+    }
+
+    /**
+     * Computes the given columns of the truth table and encodes each one compactly, in the order of
+     * {@code headers}. See {@link ColumnEncoder} for the encodings.
+     *
+     * @throws IllegalArgumentException if the table has too many rows, before any column is allocated
+     */
+    public List<Map<String, Object>> generateColumns(Set<String> variables, String formula, List<String> headers) {
+        return generateColumns(CompiledFormula.compile(formula, variables), headers);
+    }
+
+    /** Same as {@link #generateColumns(Set, String, List)} for an already parsed formula. */
+    public List<Map<String, Object>> generateColumns(ParsedFormula formula, List<String> headers) {
+        return generateColumns(formula.getCompiled(), headers);
+    }
+
+    private List<Map<String, Object>> generateColumns(CompiledFormula compiled, List<String> headers) {
+        checkedRowCount(compiled);
+        PackedTruthTable columns = PackedTruthTable.generate(compiled, pool, parallelThreshold);
+        List<Map<String, Object>> encoded = new ArrayList<>();
+        for (String header : headers) {
+            int node = compiled.nodeOf(header);
+            if (node < 0) {
+                throw new IllegalArgumentException("Unknown subformula: " + header);
             }
-            truthTable.add(row);
+            encoded.add(ColumnEncoder.encode(columns.column(node), columns.getRowCount()));
         }
-        return truthTable;
+        return encoded;
     }
 
-    public boolean evaluate(String formula, Map<String, Boolean> valuation) {
-        // Replace variables with their values
-        String replaced = formula;
-        for (Map.Entry<String, Boolean> entry : valuation.entrySet()) {
-            replaced = replaced.replaceAll("\\b" + Pattern.quote(entry.getKey()) + "\\b",
-                    entry.getValue() ? "1" : "0");
+    /**
+     * Writes the same rows as {@link #generateTruthTable(Set, String)} as newline-delimited JSON objects,
+     * one per line. Columns are computed a block of rows at a time into a fixed buffer, so memory does not
+     * grow with the number of rows.
+     */
+    public void writeTruthTable(Set<String> variables, String formula, Writer out) throws IOException {
+        writeTruthTable(CompiledFormula.compile(formula, variables), out);
+    }
+
+    /** Same as {@link #writeTruthTable(Set, String, Writer)} for an already parsed formula. */
+    public void writeTruthTable(ParsedFormula formula, Writer out) throws IOException {
+        writeTruthTable(formula.getCompiled(), out);
+    }
+
+    private void writeTruthTable(CompiledFormula compiled, Writer out) throws IOException {
+        int numVars = compiled.getVariableCount();
+        long numRows = compiled.getRowCount();
+        List<String> varList = compiled.getVariables();
+
+        // Keys in row order, without duplicates, as a LinkedHashMap row would have them.
+        // Variables are read from the row index, subformulas from their column.
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        for (int j = 0; j < numVars; j++) {
+            keys.put(varList.get(j), -2 - (numVars - j - 1));
+        }
+        List<String> allFormulas = compiled.getSubformulaDag().getColumnFormulas();
+        int[] nodes = compiled.getSubformulaDag().getColumnIds();
+        for (int k = 0; k < nodes.length; k++) {
+            keys.putIfAbsent(allFormulas.get(k), nodes[k]);
+        }
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        char[][] prefixes = new char[keys.size()][];
+        int[] sources = new int[keys.size()];
+        int c = 0;
+        for (Map.Entry<String, Integer> key : keys.entrySet()) {
+            prefixes[c] = ((c == 0 ? "{\"" : ",\"") + new String(encoder.quoteAsString(key.getKey())) + "\":\"")
+                    .toCharArray();
+            sources[c++] = key.getValue();
         }
 
-        // Convert to Java logical operators
-        replaced = replaced.replace("¬", "!")
-                .replace("∧", "&&")
-                .replace("∨", "||")
-                .replace("→", "->")
-                .replace("↔", "==");
+        long[][] block = new long[compiled.size()][STREAM_BLOCK_WORDS];
+        long words = PackedTruthTable.wordCount(numRows);
+        for (long firstWord = 0; firstWord < words; firstWord += STREAM_BLOCK_WORDS) {
+            int blockWords = (int) Math.min(STREAM_BLOCK_WORDS, words - firstWord);
+            PackedTruthTable.evaluateWords(compiled, firstWord, blockWords, block);
+            long firstRow = firstWord << 6;
+            long lastRow = Math.min(numRows, (firstWord + blockWords) << 6);
+            for (long row = firstRow; row < lastRow; row++) {
+                int offset = (int) (row - firstRow);
+                for (int k = 0; k < prefixes.length; k++) {
+                    out.write(prefixes[k]);
+                    int source = sources[k];
+                    if (source >= 0) {
+                        long word = block[source][offset >>> 6];
+                        out.write((word >>> offset & 1L) != 0 ? '1' : '0');
+                    } else {
+                        out.write((row >>> (-2 - source) & 1L) != 0 ? '1' : '0');
+                    }
+                    out.write('"');
+                }
+                out.write("}\n");
+            }
+            out.flush();
+        }
+    }
 
-        return evaluateExpression(replaced);
+    // Rows are held in an array indexed by int, so the limit never goes past 2^30 rows; the columnar format is
+    // held to the same bound
+    private long checkedRowCount(CompiledFormula compiled) {
+        int variables = compiled.getVariables().size();
+        if (variables > maxVariables) {
+            throw new IllegalArgumentException("Too many rows: 2^" + variables + ", at most 2^" + maxVariables);
+        }
+        return compiled.getRowCount();
     }
 
-    private boolean evaluateExpression(String expr) {
-        expr = expr.replaceAll("\\s+", "");
+    public boolean evaluate(String formula, Map<String, Boolean> valuation) {
+        return FormulaEvaluator.evaluate(formula, valuation);
+    }
 
-        if (expr.equals("1")) return true;
-        if (expr.equals("0")) return false;
+    /**
+     * Builds the row maps of rows {@code [from, to)}, splitting in halves down to {@code leafRows}. Each task
+     * fills its own slots of {@code rows}, so the result stays in row order.
+     */
+    private static final class RowRange extends RecursiveAction {
+        private final PackedTruthTable columns;
+        private final List<String> allFormulas;
+        private final int[] nodes;
+        private final Map<String, String>[] rows;
+        private final int from;
+        private final int to;
+        private final int leafRows;
+        private final Deadline deadline;
 
-        // Not operator
-        if (expr.startsWith("!")) {
-            return !evaluateExpression(expr.substring(1));
+        RowRange(PackedTruthTable columns, List<String> allFormulas, int[] nodes, Map<String, String>[] rows,
+                 int from, int to, int leafRows, Deadline deadline) {
+            this.columns = columns;
+            this.allFormulas = allFormulas;
+            this.nodes = nodes;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.leafRows = leafRows;
+            this.deadline = deadline;
         }
 
-        // Handle outer parentheses
-        if (expr.startsWith("(") && expr.endsWith(")")) {
-            int depth = 0;
-            boolean isWrapped = true;
-            for (int i = 0; i < expr.length(); i++) {
-                if (expr.charAt(i) == '(') depth++;
-                else if (expr.charAt(i) == ')') depth--;
-                if (depth == 0 && i < expr.length() - 1) {
-                    isWrapped = false;
-                    break;
+        @Override
+        protected void compute() {
+            if (to - from > leafRows) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowRange(columns, allFormulas, nodes, rows, from, middle, leafRows, deadline),
+                        new RowRange(columns, allFormulas, nodes, rows, middle, to, leafRows, deadline));
+                return;
+            }
+            List<String> varList = columns.getFormula().getVariables();
+            int numVars = varList.size();
+            int reported = from;
+            for (int i = from; i < to; i++) {
+                if ((i & 4095) == 0 && deadline != null) {
+                    deadline.advance(i - reported);
+                    reported = i;
+                    deadline.check();
+                }
+                Map<String, String> row = new LinkedHashMap<>();
+                // Assign truth values to variables
+                for (int j = 0; j < numVars; j++) {
+                    boolean value = (i >>> (numVars - j - 1) & 1) != 0;
+                    row.put(varList.get(j), value ? "1" : "0");
+                }
+                // Read all subformulas from their columns
+                for (int k = 0; k < nodes.length; k++) {
+                    row.put(allFormulas.get(k), columns.get(nodes[k], i) ? "1" : "0");
                 }
+                rows[i] = row;
             }
-            if (isWrapped) {
-                return evaluateExpression(expr.substring(1, expr.length() - 1));
+            if (deadline != null) {
+                deadline.advance(to - reported);
             }
         }
+    }
 
-        // Evaluate by precedence: ↔, →, ∨, ∧
-        String[] operators = {"==", "->", "||", "&&"};
-
-        for (String op : operators) {
-            int depth = 0;
-            for (int i = 0; i < expr.length() - 1; i++) {
-                char c = expr.charAt(i);
-                if (c == '(') depth++;
-                else if (c == ')') depth--;
-                else if (depth == 0 && expr.startsWith(op, i)) {
-                    String left = expr.substring(0, i);
-                    String right = expr.substring(i + op.length());
-                    switch (op) {
-                        case "==":
-                            return evaluateExpression(left) == evaluateExpression(right);
-                        case "->":
-                            return !evaluateExpression(left) || evaluateExpression(right);
-                        case "||":
-                            return evaluateExpression(left) || evaluateExpression(right);
-                        case "&&":
-                            return evaluateExpression(left) && evaluateExpression(right);
-                    }
+    /**
+     * Walks steps {@code [from, to)} of the Gray-code order, splitting in halves down to {@code leafRows}. Step
+     * i fills the slot of row {@code i ^ (i >>> 1)}; the steps of a range map to distinct rows, so tasks never
+     * write the same slot.
+     */
+    private static final class GrayRange extends RecursiveAction {
+        private final GrayCodeEvaluator evaluator;
+        private final List<String> allFormulas;
+        private final int[] nodes;
+        private final Map<String, String>[] rows;
+        private final int from;
+        private final int to;
+        private final int leafRows;
+        private final Deadline deadline;
+
+        GrayRange(GrayCodeEvaluator evaluator, List<String> allFormulas, int[] nodes, Map<String, String>[] rows,
+                  int from, int to, int leafRows, Deadline deadline) {
+            this.evaluator = evaluator;
+            this.allFormulas = allFormulas;
+            this.nodes = nodes;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.leafRows = leafRows;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > leafRows) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GrayRange(evaluator, allFormulas, nodes, rows, from, middle, leafRows, deadline),
+                        new GrayRange(evaluator, allFormulas, nodes, rows, middle, to, leafRows, deadline));
+                return;
+            }
+            List<String> varList = evaluator.getFormula().getVariables();
+            int numVars = varList.size();
+            int[] visited = {0};
+            evaluator.walk(from, to, deadline, (row, values) -> {
+                if (++visited[0] == 4096 && deadline != null) {
+                    deadline.advance(4096);
+                    visited[0] = 0;
+                }
+                Map<String, String> map = new LinkedHashMap<>();
+                for (int j = 0; j < numVars; j++) {
+                    boolean value = (row >>> (numVars - j - 1) & 1) != 0;
+                    map.put(varList.get(j), value ? "1" : "0");
                 }
+                for (int k = 0; k < nodes.length; k++) {
+                    map.put(allFormulas.get(k), values[nodes[k]] ? "1" : "0");
+                }
+                rows[(int) row] = map;
+            });
+            if (deadline != null) {
+                deadline.advance(visited[0]);
             }
         }
-
-        throw new RuntimeException("Invalid expression: " + expr);
     }
-
-}
\ No newline at end of file
+}
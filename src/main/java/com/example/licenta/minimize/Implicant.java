@@ -0,0 +1,79 @@
+package com.example.licenta.minimize;
+
+import java.util.List;
+
+/**
+ * A product of literals over n variables, written as a cube of the truth table: the rows whose bits agree
+ * with {@code bits} everywhere outside {@code mask}. Bit {@code n - 1 - j} stands for the j-th variable, as in
+ * the row index of the truth table; a set bit of {@code mask} is a variable the product does not mention
+ * (the "-" of the classic tabular method).
+ */
+public final class Implicant {
+
+    private final int bits;
+    private final int mask;
+
+    public Implicant(int bits, int mask) {
+        this.bits = bits & ~mask;
+        this.mask = mask;
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    /** Number of literals of the product over {@code variableCount} variables. */
+    public int literalCount(int variableCount) {
+        return variableCount - Integer.bitCount(mask);
+    }
+
+    public boolean covers(int row) {
+        return (row & ~mask) == bits;
+    }
+
+    /**
+     * The product as a conjunction, e.g. {@code A ∧ ¬C}, or "1" if it has no literals.
+     */
+    public String toTerm(List<String> variables) {
+        return join(variables, false, " ∧ ", "1");
+    }
+
+    /**
+     * The negation of the product as a disjunction, e.g. {@code ¬A ∨ C}, or "0" if it has no literals. This is
+     * the clause of a CNF contributed by an implicant of the formula's negation.
+     */
+    public String toClause(List<String> variables) {
+        return join(variables, true, " ∨ ", "0");
+    }
+
+    private String join(List<String> variables, boolean negate, String operator, String empty) {
+        int n = variables.size();
+        StringBuilder text = new StringBuilder();
+        for (int j = 0; j < n; j++) {
+            int bit = 1 << (n - 1 - j);
+            if ((mask & bit) != 0) {
+                continue;
+            }
+            if (text.length() > 0) {
+                text.append(operator);
+            }
+            boolean positive = ((bits & bit) != 0) != negate;
+            text.append(positive ? "" : "¬").append(variables.get(j));
+        }
+        return text.length() == 0 ? empty : text.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Implicant other && other.bits == bits && other.mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * bits + mask;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.licenta.minimize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A minimal DNF or CNF found by {@link QuineMcCluskey}, together with the prime implicants it was chosen from.
+ * <p>
+ * For a CNF the implicants are those of the formula's negation: each one is a product that makes the formula
+ * false, and the CNF has one clause per chosen implicant, its negation.
+ */
+public final class MinimalForm {
+
+    private final List<String> variables;
+    private final boolean cnf;
+    private final List<Implicant> primes;
+    private final PetrickCover cover;
+
+    MinimalForm(List<String> variables, boolean cnf, List<Implicant> primes, PetrickCover cover) {
+        this.variables = variables;
+        this.cnf = cnf;
+        this.primes = primes;
+        this.cover = cover;
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public boolean isCnf() {
+        return cnf;
+    }
+
+    public List<Implicant> getPrimes() {
+        return primes;
+    }
+
+    public PetrickCover getCover() {
+        return cover;
+    }
+
+    /** Total number of literals of the minimal form. */
+    public int getLiteralCount() {
+        return cover.getChosen().stream().mapToInt(p -> p.literalCount(variables.size())).sum();
+    }
+
+    /** Renders an implicant as a term of the DNF or a clause of the CNF. */
+    public String render(Implicant implicant) {
+        return cnf ? implicant.toClause(variables) : implicant.toTerm(variables);
+    }
+
+    /**
+     * The minimal form as a formula, e.g. {@code (A ∧ ¬B) ∨ C} or {@code (¬A ∨ B) ∧ C}. Terms are listed in
+     * the order of the variables, the way a student would write them. A DNF without terms is "0", a CNF
+     * without clauses "1".
+     */
+    public String toFormula() {
+        List<Implicant> chosen = new ArrayList<>(cover.getChosen());
+        chosen.sort(this::compareInReadingOrder);
+        if (chosen.isEmpty()) {
+            return cnf ? "1" : "0";
+        }
+        StringBuilder formula = new StringBuilder();
+        for (Implicant implicant : chosen) {
+            if (formula.length() > 0) {
+                formula.append(cnf ? " ∧ " : " ∨ ");
+            }
+            String part = render(implicant);
+            boolean group = chosen.size() > 1 && implicant.literalCount(variables.size()) > 1;
+            formula.append(group ? "(" + part + ")" : part);
+        }
+        return formula.toString();
+    }
+
+    // Variable by variable: a term with the variable comes before one with its negation, then one without it
+    private int compareInReadingOrder(Implicant x, Implicant y) {
+        int n = variables.size();
+        for (int j = 0; j < n; j++) {
+            int bit = 1 << (n - 1 - j);
+            int cmp = Integer.compare(state(x, bit), state(y, bit));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private int state(Implicant implicant, int bit) {
+        if ((implicant.getMask() & bit) != 0) {
+            return 2;
+        }
+        // In a CNF the literals are negated
+        return ((implicant.getBits() & bit) != 0) != cnf ? 0 : 1;
+    }
+}
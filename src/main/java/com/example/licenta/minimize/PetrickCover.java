@@ -0,0 +1,305 @@
+package com.example.licenta.minimize;
+
+import com.example.licenta.execution.Deadline;
+
+import java.util.*;
+
+/**
+ * Chooses a minimal set of prime implicants covering every true row: first the essential primes (the only
+ * prime covering some row), then Petrick's method on the rows they leave.
+ * <p>
+ * Petrick's method multiplies out the product, over the remaining rows, of the sums of the primes covering
+ * each row; every term of the expanded sum of products is a cover, and the cheapest one is minimal. The
+ * expansion is kept small the usual ways: a term that already covers the next row is kept as it is, terms that
+ * contain another term are absorbed, and a greedy cover computed first gives an upper bound that prunes every
+ * term already costing more. If the expansion still exceeds {@link #MAX_TERMS} terms, the greedy cover is
+ * returned and marked as not exact. The cost of a cover is its number of primes, then its number of literals.
+ */
+public final class PetrickCover {
+
+    /** Largest number of partial covers the expansion may hold at once. */
+    public static final int MAX_TERMS = 4096;
+
+    private final List<Implicant> essential;
+    private final List<Implicant> chosen;
+    private final boolean exact;
+
+    private PetrickCover(List<Implicant> essential, List<Implicant> chosen, boolean exact) {
+        this.essential = essential;
+        this.chosen = chosen;
+        this.exact = exact;
+    }
+
+    /** The essential prime implicants, always part of the cover. */
+    public List<Implicant> getEssential() {
+        return essential;
+    }
+
+    /** The cover: the essential primes followed by those chosen for the remaining rows. */
+    public List<Implicant> getChosen() {
+        return chosen;
+    }
+
+    /** False if the expansion was too large and the cover is the greedy one, which may not be minimal. */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * @param primes the prime implicants of the function
+     * @param rows   the function's true rows, packed as in {@link QuineMcCluskey#primeImplicants}
+     */
+    public static PetrickCover cover(List<Implicant> primes, long[] rows, int n) {
+        // Rows still to cover, and for each of them the primes covering it
+        int[] rowIndex = new int[rows.length << 6];
+        Arrays.fill(rowIndex, -1);
+        int rowCount = 0;
+        for (int k = 0; k < rows.length; k++) {
+            long word = rows[k];
+            while (word != 0) {
+                rowIndex[(k << 6) + Long.numberOfTrailingZeros(word)] = rowCount++;
+                word &= word - 1;
+            }
+        }
+        List<List<Integer>> coveredBy = new ArrayList<>(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            coveredBy.add(new ArrayList<>(2));
+        }
+        int[][] covers = new int[primes.size()][];
+        for (int p = 0; p < primes.size(); p++) {
+            covers[p] = coveredRows(primes.get(p), rowIndex);
+            for (int r : covers[p]) {
+                coveredBy.get(r).add(p);
+            }
+        }
+
+        boolean[] selected = new boolean[primes.size()];
+        boolean[] covered = new boolean[rowCount];
+        List<Implicant> essential = new ArrayList<>();
+        for (int r = 0; r < rowCount; r++) {
+            if (coveredBy.get(r).size() == 1) {
+                int p = coveredBy.get(r).get(0);
+                if (!selected[p]) {
+                    selected[p] = true;
+                    essential.add(primes.get(p));
+                    for (int row : covers[p]) {
+                        covered[row] = true;
+                    }
+                }
+            }
+        }
+
+        // Petrick's product: one sum of primes per row the essential primes leave uncovered
+        Set<List<Integer>> sums = new LinkedHashSet<>();
+        for (int r = 0; r < rowCount; r++) {
+            if (!covered[r]) {
+                sums.add(coveredBy.get(r));
+            }
+        }
+        List<Implicant> chosen = new ArrayList<>(essential);
+        if (sums.isEmpty()) {
+            return new PetrickCover(essential, chosen, true);
+        }
+
+        List<Integer> greedy = greedyCover(new ArrayList<>(sums), covers, covered, primes, n);
+        long bound = cost(greedy, primes, n);
+        List<Integer> best = expand(new ArrayList<>(sums), primes, n, bound);
+        boolean exact = best != null;
+        for (int p : exact ? best : greedy) {
+            chosen.add(primes.get(p));
+        }
+        return new PetrickCover(essential, chosen, exact);
+    }
+
+    // The indexes of the true rows an implicant covers: every row obtained by filling in its "-" positions
+    private static int[] coveredRows(Implicant prime, int[] rowIndex) {
+        int mask = prime.getMask();
+        int[] result = new int[1 << Integer.bitCount(mask)];
+        int count = 0;
+        int sub = mask;
+        while (true) {
+            int r = rowIndex[prime.getBits() | sub];
+            if (r >= 0) {
+                result[count++] = r;
+            }
+            if (sub == 0) {
+                break;
+            }
+            sub = (sub - 1) & mask;
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private static List<Integer> greedyCover(List<List<Integer>> sums, int[][] covers, boolean[] alreadyCovered,
+                                             List<Implicant> primes, int n) {
+        boolean[] covered = alreadyCovered.clone();
+        List<Integer> chosen = new ArrayList<>();
+        for (List<Integer> sum : sums) {
+            if (sum.stream().anyMatch(chosen::contains)) {
+                continue;
+            }
+            // The first one covering the most remaining rows, and on a tie the one with fewer literals
+            int best = -1;
+            int bestGain = -1;
+            for (int p : sum) {
+                int gain = 0;
+                for (int r : covers[p]) {
+                    if (!covered[r]) {
+                        gain++;
+                    }
+                }
+                if (gain > bestGain || gain == bestGain
+                        && primes.get(p).literalCount(n) < primes.get(best).literalCount(n)) {
+                    best = p;
+                    bestGain = gain;
+                }
+            }
+            chosen.add(best);
+            for (int r : covers[best]) {
+                covered[r] = true;
+            }
+        }
+        return chosen;
+    }
+
+    // The cheapest term of the expanded product, or null if the expansion grows past MAX_TERMS
+    private static List<Integer> expand(List<List<Integer>> sums, List<Implicant> primes, int n, long bound) {
+        sums.sort(Comparator.comparingInt(List::size));
+        int words = (primes.size() + 63) >>> 6;
+        List<long[]> terms = new ArrayList<>();
+        terms.add(new long[words]);
+        for (List<Integer> sum : sums) {
+            Deadline.checkpoint();
+            Set<Terms.Key> next = new LinkedHashSet<>();
+            for (long[] term : terms) {
+                if (Terms.containsAny(term, sum)) {
+                    next.add(new Terms.Key(term));
+                    continue;
+                }
+                for (int p : sum) {
+                    long[] extended = term.clone();
+                    extended[p >>> 6] |= 1L << p;
+                    if (Terms.cost(extended, primes, n) <= bound) {
+                        next.add(new Terms.Key(extended));
+                    }
+                }
+                if (next.size() > MAX_TERMS) {
+                    return null;
+                }
+            }
+            terms = Terms.absorb(next);
+        }
+
+        long[] best = null;
+        long bestCost = Long.MAX_VALUE;
+        for (long[] term : terms) {
+            long cost = Terms.cost(term, primes, n);
+            if (cost < bestCost) {
+                best = term;
+                bestCost = cost;
+            }
+        }
+        List<Integer> result = new ArrayList<>();
+        for (int k = 0; k < words; k++) {
+            long word = best[k];
+            while (word != 0) {
+                result.add((k << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    private static long cost(List<Integer> cover, List<Implicant> primes, int n) {
+        long literals = 0;
+        for (int p : cover) {
+            literals += primes.get(p).literalCount(n);
+        }
+        return (long) cover.size() << 32 | literals;
+    }
+
+    /** Terms of the expansion: sets of primes as bitsets. */
+    private static final class Terms {
+
+        static boolean containsAny(long[] term, List<Integer> sum) {
+            for (int p : sum) {
+                if ((term[p >>> 6] >>> p & 1L) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        static long cost(long[] term, List<Implicant> primes, int n) {
+            long count = 0;
+            long literals = 0;
+            for (int k = 0; k < term.length; k++) {
+                long word = term[k];
+                while (word != 0) {
+                    count++;
+                    literals += primes.get((k << 6) + Long.numberOfTrailingZeros(word)).literalCount(n);
+                    word &= word - 1;
+                }
+            }
+            return count << 32 | literals;
+        }
+
+        // X + XY = X: drops every term that contains a smaller one
+        static List<long[]> absorb(Set<Key> terms) {
+            List<long[]> sorted = new ArrayList<>(terms.size());
+            for (Key key : terms) {
+                sorted.add(key.bits);
+            }
+            sorted.sort(Comparator.comparingInt(Terms::cardinality));
+            List<long[]> kept = new ArrayList<>(sorted.size());
+            for (long[] term : sorted) {
+                boolean absorbed = false;
+                for (long[] smaller : kept) {
+                    if (isSubset(smaller, term)) {
+                        absorbed = true;
+                        break;
+                    }
+                }
+                if (!absorbed) {
+                    kept.add(term);
+                }
+            }
+            return kept;
+        }
+
+        static int cardinality(long[] term) {
+            int count = 0;
+            for (long word : term) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        static boolean isSubset(long[] small, long[] large) {
+            for (int k = 0; k < small.length; k++) {
+                if ((small[k] & ~large[k]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        static final class Key {
+            private final long[] bits;
+
+            Key(long[] bits) {
+                this.bits = bits;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof Key other && Arrays.equals(bits, other.bits);
+            }
+
+            @Override
+            public int hashCode() {
+                return Arrays.hashCode(bits);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.licenta.minimize;
+
+import com.example.licenta.execution.Deadline;
+import com.example.licenta.logic.CompiledFormula;
+import com.example.licenta.logic.PackedTruthTable;
+
+import java.util.*;
+
+/**
+ * Exact two-level minimization: the prime implicants of a formula by the Quine–McCluskey method, then a
+ * minimal cover of its true rows chosen by {@link PetrickCover}.
+ * <p>
+ * The tabular method is run on bitsets rather than on lists of terms. All the implicants sharing a mask
+ * (the same variables replaced by "-") are one bitset over the {@code 2^n} rows, holding a bit at each
+ * implicant's {@code bits}. Two of them merge over variable i exactly when both {@code b} and
+ * {@code b + 2^i} are set, so a whole class is merged with one shift and one AND per word: within a word
+ * for the six lowest variables, and between words {@code 2^(i-6)} apart for the others. An implicant is prime
+ * when no merge used it. Classes are processed level by level (number of "-"), keeping two levels in memory.
+ */
+public final class QuineMcCluskey {
+
+    /**
+     * Largest number of variables accepted. Around 14 variables the whole minimization still answers at
+     * interactive latency; past 16 the number of prime implicants alone can reach the millions.
+     */
+    public static final int MAX_VARIABLES = 16;
+
+    // Bit r of ZERO_AT[i] is set when bit i of r is 0, for the variables inside one 64-row word
+    private static final long[] ZERO_AT = {
+            0x5555555555555555L,
+            0x3333333333333333L,
+            0x0F0F0F0F0F0F0F0FL,
+            0x00FF00FF00FF00FFL,
+            0x0000FFFF0000FFFFL,
+            0x00000000FFFFFFFFL
+    };
+
+    private QuineMcCluskey() {
+    }
+
+    /**
+     * Computes a minimal DNF of a formula or, with {@code cnf}, a minimal CNF (from a minimal DNF of its
+     * negation).
+     *
+     * @throws IllegalArgumentException if the formula has more than {@link #MAX_VARIABLES} variables
+     */
+    public static MinimalForm minimize(CompiledFormula formula, boolean cnf) {
+        int n = formula.getVariableCount();
+        if (n > MAX_VARIABLES) {
+            throw new IllegalArgumentException("Too many variables for minimization: " + n
+                    + " (at most " + MAX_VARIABLES + ")");
+        }
+        PackedTruthTable table = PackedTruthTable.generate(formula);
+        long[] rows = table.column(formula.getRoot()).clone();
+        if (cnf) {
+            long valid = n >= 6 ? -1L : (1L << (1 << n)) - 1;
+            for (int k = 0; k < rows.length; k++) {
+                rows[k] = ~rows[k] & valid;
+            }
+        }
+        List<Implicant> primes = primeImplicants(rows, n);
+        PetrickCover cover = PetrickCover.cover(primes, rows, n);
+        return new MinimalForm(formula.getVariables(), cnf, primes, cover);
+    }
+
+    /**
+     * Computes every prime implicant of the function whose true rows are the bits of {@code rows}.
+     *
+     * @param rows bit {@code r % 64} of word {@code r / 64} is set when row r is true, as in a
+     *             {@link PackedTruthTable} column
+     * @return the prime implicants, those with fewer literals first
+     */
+    public static List<Implicant> primeImplicants(long[] rows, int n) {
+        int words = rows.length;
+        List<Implicant> primes = new ArrayList<>();
+        Map<Integer, long[]> level = new HashMap<>();
+        if (!isEmpty(rows)) {
+            level.put(0, rows.clone());
+        }
+        while (!level.isEmpty()) {
+            Map<Integer, long[]> next = new HashMap<>();
+            for (Map.Entry<Integer, long[]> entry : level.entrySet()) {
+                Deadline.checkpoint();
+                int mask = entry.getKey();
+                long[] implicants = entry.getValue();
+                long[] merged = new long[words];
+                for (int i = 0; i < n; i++) {
+                    if ((mask >>> i & 1) != 0) {
+                        continue;
+                    }
+                    long[] pairs = merge(implicants, i);
+                    if (pairs == null) {
+                        continue;
+                    }
+                    long[] target = next.computeIfAbsent(mask | 1 << i, m -> new long[words]);
+                    for (int k = 0; k < words; k++) {
+                        target[k] |= pairs[k];
+                    }
+                    markMerged(merged, pairs, i);
+                }
+                for (int k = 0; k < words; k++) {
+                    long prime = implicants[k] & ~merged[k];
+                    while (prime != 0) {
+                        primes.add(new Implicant((k << 6) + Long.numberOfTrailingZeros(prime), mask));
+                        prime &= prime - 1;
+                    }
+                }
+            }
+            level = next;
+        }
+        primes.sort(Comparator.comparingInt((Implicant p) -> -Integer.bitCount(p.getMask()))
+                .thenComparingInt(Implicant::getMask)
+                .thenComparingInt(Implicant::getBits));
+        return primes;
+    }
+
+    // The implicants b with bit i clear such that b and b + 2^i are both in the class, or null if there are none
+    private static long[] merge(long[] implicants, int i) {
+        long[] pairs = new long[implicants.length];
+        boolean any = false;
+        if (i < 6) {
+            int shift = 1 << i;
+            for (int k = 0; k < implicants.length; k++) {
+                pairs[k] = implicants[k] & implicants[k] >>> shift & ZERO_AT[i];
+                any |= pairs[k] != 0;
+            }
+        } else {
+            int distance = 1 << (i - 6);
+            for (int k = 0; k < implicants.length; k++) {
+                if ((k & distance) == 0) {
+                    pairs[k] = implicants[k] & implicants[k + distance];
+                    any |= pairs[k] != 0;
+                }
+            }
+        }
+        return any ? pairs : null;
+    }
+
+    // Marks both halves of every merged pair
+    private static void markMerged(long[] merged, long[] pairs, int i) {
+        if (i < 6) {
+            int shift = 1 << i;
+            for (int k = 0; k < pairs.length; k++) {
+                merged[k] |= pairs[k] | pairs[k] << shift;
+            }
+        } else {
+            int distance = 1 << (i - 6);
+            for (int k = 0; k < pairs.length; k++) {
+                if (pairs[k] != 0) {
+                    merged[k] |= pairs[k];
+                    merged[k + distance] |= pairs[k];
+                }
+            }
+        }
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.licenta.normalForm;
+
+import java.util.*;
+
+/**
+ * A CNF or DNF held as sets of integer literals, for simplifications that scale to tens of thousands of
+ * clauses.
+ * <p>
+ * Variable {@code v} (0-based, in order of first occurrence) has the literal codes {@code 2v} for {@code v} and
+ * {@code 2v + 1} for {@code ¬v}. Every clause is a sorted array of distinct codes, so a variable and its
+ * negation are neighbours, and carries a 64-bit signature with bit {@code code % 64} set for each literal:
+ * a clause can only be a subset of another if its signature is.
+ * <p>
+ * The same code serves both forms. For a CNF ({@link #getOuter()} is AND) the sets are disjunctions, for a DNF
+ * they are conjunctions; in either case a set containing a literal and its negation is trivial (true in a
+ * CNF, false in a DNF) and a set included in another absorbs it:
+ * {@code A ∧ (A ∨ B) ≡ A} and {@code A ∨ (A ∧ B) ≡ A}.
+ */
+public final class ClauseSet {
+
+    private final NodeType outer;
+    private final List<String> variables;
+    private final List<int[]> clauses;
+
+    private ClauseSet(NodeType outer, List<String> variables, List<int[]> clauses) {
+        this.outer = outer;
+        this.variables = variables;
+        this.clauses = clauses;
+    }
+
+    /**
+     * Reads a formula as a CNF if its top operator is ∧, otherwise as a DNF. The constants 1 and 0 may
+     * appear as literals.
+     *
+     * @return the clause set, or null if the formula is in neither form
+     */
+    public static ClauseSet of(Node formula) {
+        NodeType outer = formula.getType() == NodeType.AND ? NodeType.AND : NodeType.OR;
+        NodeType inner = outer == NodeType.AND ? NodeType.OR : NodeType.AND;
+        // In a CNF clause the literal 1 makes the clause trivial and 0 can be left out; in a DNF term the reverse
+        String absorbing = outer == NodeType.AND ? "1" : "0";
+
+        Map<String, Integer> index = new LinkedHashMap<>();
+        List<int[]> clauses = new ArrayList<>();
+        IntList clause = new IntList();
+        for (Node part : flatten(formula, outer)) {
+            clause.size = 0;
+            boolean trivial = false;
+            for (Node literal : flatten(part, inner)) {
+                boolean negated = literal.getType() == NodeType.NOT;
+                Node variable = negated ? literal.getLeft() : literal;
+                if (variable.getType() != NodeType.VAR) {
+                    return null;
+                }
+                String name = variable.getValue();
+                if (name.equals("1") || name.equals("0")) {
+                    trivial |= name.equals(absorbing) != negated;
+                    continue;
+                }
+                Integer v = index.get(name);
+                if (v == null) {
+                    v = index.size();
+                    index.put(name, v);
+                }
+                clause.add(v << 1 | (negated ? 1 : 0));
+            }
+            if (!trivial) {
+                clauses.add(clause.toArray());
+            }
+        }
+        return new ClauseSet(outer, List.copyOf(index.keySet()), clauses);
+    }
+
+    /**
+     * Wraps clauses already given as literal codes over {@code variables}, e.g. produced by distribution
+     * without building a formula first. The arrays are used as they are; {@link #reduce()} normalizes them.
+     *
+     * @param outer AND for a CNF, OR for a DNF
+     */
+    public static ClauseSet of(NodeType outer, List<String> variables, List<int[]> clauses) {
+        return new ClauseSet(outer, List.copyOf(variables), clauses);
+    }
+
+    // Operands of the maximal chain of `type` operators under node, left to right, without recursion
+    private static List<Node> flatten(Node node, NodeType type) {
+        List<Node> terms = new ArrayList<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Node current = stack.pop();
+            if (current.getType() == type) {
+                stack.push(current.getRight());
+                stack.push(current.getLeft());
+            } else {
+                terms.add(current);
+            }
+        }
+        return terms;
+    }
+
+    /** AND for a CNF, OR for a DNF. */
+    public NodeType getOuter() {
+        return outer;
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public int size() {
+        return clauses.size();
+    }
+
+    /** The literal codes of a clause, sorted. The array is shared, not copied. */
+    public int[] clause(int i) {
+        return clauses.get(i);
+    }
+
+    /**
+     * Removes repeated literals, trivial clauses, duplicate clauses and every clause that contains another
+     * one, and reduces the set to the empty clause if two unit clauses are complementary. The remaining
+     * clauses keep their order; the literals of each are sorted.
+     * <p>
+     * Each clause C is checked only against the clauses in the occurrence list of C's rarest literal, and a
+     * signature test rejects most of them without comparing literals, so the whole pass is close to linear in
+     * the size of the formula.
+     */
+    public ClauseSet reduce() {
+        List<int[]> normalized = new ArrayList<>(clauses.size());
+        boolean[] units = new boolean[2 * variables.size()];
+        for (int[] clause : clauses) {
+            int[] sorted = normalize(clause);
+            if (sorted == null) {
+                continue;
+            }
+            // The empty clause absorbs all the others; A and ¬A as unit clauses give the empty clause
+            if (sorted.length == 0 || sorted.length == 1 && units[sorted[0] ^ 1]) {
+                return new ClauseSet(outer, variables, List.of(new int[0]));
+            }
+            if (sorted.length == 1) {
+                units[sorted[0]] = true;
+            }
+            normalized.add(sorted);
+        }
+        // Sorted by length, so that a clause can only be contained in the ones after it; a stable sort keeps
+        // the first of equal clauses first
+        Integer[] order = new Integer[normalized.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compare(normalized.get(a), normalized.get(b)));
+
+        List<int[]> unique = new ArrayList<>(order.length);
+        int[] positions = new int[order.length];
+        for (int i : order) {
+            int[] clause = normalized.get(i);
+            if (unique.isEmpty() || !Arrays.equals(unique.get(unique.size() - 1), clause)) {
+                positions[unique.size()] = i;
+                unique.add(clause);
+            }
+        }
+
+        int n = unique.size();
+        int[][] occurrences = occurrenceLists(unique, 2 * variables.size());
+        long[] signatures = new long[n];
+        for (int i = 0; i < n; i++) {
+            signatures[i] = signature(unique.get(i));
+        }
+
+        boolean[] subsumed = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (subsumed[i]) {
+                // Whatever it would remove is removed by the clause that removed it
+                continue;
+            }
+            int[] clause = unique.get(i);
+            int rarest = clause[0];
+            for (int literal : clause) {
+                if (occurrences[literal].length < occurrences[rarest].length) {
+                    rarest = literal;
+                }
+            }
+            for (int j : occurrences[rarest]) {
+                // Clauses are sorted by length and distinct, so only later ones can contain this one
+                if (j > i && !subsumed[j] && (signatures[i] & ~signatures[j]) == 0
+                        && isSubset(clause, unique.get(j))) {
+                    subsumed[j] = true;
+                }
+            }
+        }
+
+        // The clauses that remain keep their order in the formula
+        int[][] kept = new int[normalized.size()][];
+        for (int i = 0; i < n; i++) {
+            if (!subsumed[i]) {
+                kept[positions[i]] = unique.get(i);
+            }
+        }
+        List<int[]> result = new ArrayList<>(n);
+        for (int[] clause : kept) {
+            if (clause != null) {
+                result.add(clause);
+            }
+        }
+        return new ClauseSet(outer, variables, result);
+    }
+
+    // Sorted copy without repeated literals, or null if the clause holds a literal and its negation
+    private static int[] normalize(int[] clause) {
+        int[] sorted = clause.clone();
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int literal : sorted) {
+            if (size > 0 && sorted[size - 1] == literal) {
+                continue;
+            }
+            if (size > 0 && sorted[size - 1] == (literal ^ 1)) {
+                return null;
+            }
+            sorted[size++] = literal;
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    private static int compare(int[] a, int[] b) {
+        return a.length != b.length ? Integer.compare(a.length, b.length) : Arrays.compare(a, b);
+    }
+
+    private static long signature(int[] clause) {
+        long signature = 0;
+        for (int literal : clause) {
+            signature |= 1L << literal;
+        }
+        return signature;
+    }
+
+    // For every literal code, the indexes of the clauses containing it, in increasing order
+    private static int[][] occurrenceLists(List<int[]> clauses, int literals) {
+        int[] counts = new int[literals];
+        for (int[] clause : clauses) {
+            for (int literal : clause) {
+                counts[literal]++;
+            }
+        }
+        int[][] occurrences = new int[literals][];
+        for (int l = 0; l < literals; l++) {
+            occurrences[l] = new int[counts[l]];
+            counts[l] = 0;
+        }
+        for (int i = 0; i < clauses.size(); i++) {
+            for (int literal : clauses.get(i)) {
+                occurrences[literal][counts[literal]++] = i;
+            }
+        }
+        return occurrences;
+    }
+
+    // Both arrays are sorted, so one merge-like pass decides inclusion
+    private static boolean isSubset(int[] small, int[] large) {
+        if (small.length > large.length) {
+            return false;
+        }
+        int j = 0;
+        for (int literal : small) {
+            while (j < large.length && large[j] < literal) {
+                j++;
+            }
+            if (j == large.length || large[j] != literal) {
+                return false;
+            }
+            j++;
+        }
+        return true;
+    }
+
+    /**
+     * Converts back to a formula. Operands are grouped in balanced trees, so very long clause lists do not
+     * make deep formulas. An empty CNF is the constant 1 and an empty clause the constant 0 (dually for a DNF).
+     */
+    public Node toNode() {
+        NodeType inner = outer == NodeType.AND ? NodeType.OR : NodeType.AND;
+        Node[] parts = new Node[clauses.size()];
+        for (int i = 0; i < parts.length; i++) {
+            int[] clause = clauses.get(i);
+            Node[] literals = new Node[clause.length];
+            for (int k = 0; k < clause.length; k++) {
+                Node variable = NodeFactory.var(variables.get(clause[k] >> 1));
+                literals[k] = (clause[k] & 1) != 0 ? NodeFactory.not(variable) : variable;
+            }
+            parts[i] = join(inner, literals, 0, literals.length);
+        }
+        return join(outer, parts, 0, parts.length);
+    }
+
+    private static Node join(NodeType type, Node[] operands, int from, int to) {
+        if (from == to) {
+            // The identity element: ∧ of nothing is 1, ∨ of nothing is 0
+            return NodeFactory.var(type == NodeType.AND ? "1" : "0");
+        }
+        if (to - from == 1) {
+            return operands[from];
+        }
+        int middle = (from + to) >>> 1;
+        return NodeFactory.of(type, join(type, operands, from, middle), join(type, operands, middle, to));
+    }
+
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.licenta.normalForm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A CNF as integer clauses, in the style of DIMACS: variable {@code v} (1-based) is the literal {@code v},
+ * its negation {@code -v}. Variables {@code 1..originalVariableCount} are the formula's own variables, the
+ * rest are auxiliary variables introduced by the encoding.
+ */
+public class CnfEncoding {
+
+    /**
+     * An auxiliary variable together with the subformula it names and the clauses defining it.
+     */
+    public static class Definition {
+        private final int variable;
+        private final Node subformula;
+        private final int[] operands;
+        private final boolean equivalence;
+        private final List<int[]> clauses;
+
+        Definition(int variable, Node subformula, int[] operands, boolean equivalence, List<int[]> clauses) {
+            this.variable = variable;
+            this.subformula = subformula;
+            this.operands = operands;
+            this.equivalence = equivalence;
+            this.clauses = clauses;
+        }
+
+        public int getVariable() {
+            return variable;
+        }
+
+        public Node getSubformula() {
+            return subformula;
+        }
+
+        /** Literals of the operands of the subformula's top operator, in order. */
+        public int[] getOperands() {
+            return operands;
+        }
+
+        /** True if the clauses define {@code t ↔ φ}, false if only the implied direction was needed. */
+        public boolean isEquivalence() {
+            return equivalence;
+        }
+
+        public List<int[]> getClauses() {
+            return clauses;
+        }
+    }
+
+    private final List<String> variables;
+    private final int originalVariableCount;
+    private final List<int[]> clauses;
+    private final List<Definition> definitions;
+
+    CnfEncoding(List<String> variables, int originalVariableCount, List<int[]> clauses, List<Definition> definitions) {
+        this.variables = Collections.unmodifiableList(new ArrayList<>(variables));
+        this.originalVariableCount = originalVariableCount;
+        this.clauses = Collections.unmodifiableList(clauses);
+        this.definitions = Collections.unmodifiableList(definitions);
+    }
+
+    /** Variable names; the name of variable {@code v} is at index {@code v - 1}. */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public int getVariableCount() {
+        return variables.size();
+    }
+
+    public int getOriginalVariableCount() {
+        return originalVariableCount;
+    }
+
+    public String getName(int variable) {
+        return variables.get(variable - 1);
+    }
+
+    /** All clauses: the definitional clauses followed by the clauses asserting the formula itself. */
+    public List<int[]> getClauses() {
+        return clauses;
+    }
+
+    public List<Definition> getDefinitions() {
+        return definitions;
+    }
+
+    public String literalToString(int literal) {
+        return literal < 0 ? "¬" + getName(-literal) : getName(literal);
+    }
+
+    /** Renders a definition over its operand literals, e.g. {@code t2 ↔ (t1 ∨ ¬C)}. */
+    public String definitionToString(Definition definition) {
+        String op = switch (definition.getSubformula().getType()) {
+            case AND -> " ∧ ";
+            case OR -> " ∨ ";
+            case IMPLIES -> " → ";
+            default -> " ↔ ";
+        };
+        StringBuilder sb = new StringBuilder(getName(definition.getVariable()))
+                .append(definition.isEquivalence() ? " ↔ (" : " → (");
+        int[] operands = definition.getOperands();
+        for (int i = 0; i < operands.length; i++) {
+            if (i > 0) sb.append(op);
+            sb.append(literalToString(operands[i]));
+        }
+        return sb.append(')').toString();
+    }
+
+    public String clauseToString(int[] clause) {
+        StringBuilder sb = new StringBuilder();
+        if (clause.length != 1) sb.append('(');
+        for (int i = 0; i < clause.length; i++) {
+            if (i > 0) sb.append(" ∨ ");
+            sb.append(literalToString(clause[i]));
+        }
+        if (clause.length != 1) sb.append(')');
+        return sb.toString();
+    }
+
+    public String clausesToString(List<int[]> clauses) {
+        if (clauses.isEmpty()) {
+            return "1";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int[] clause : clauses) {
+            if (sb.length() > 0) sb.append(" ∧ ");
+            sb.append(clauseToString(clause));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return clausesToString(clauses);
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.licenta.normalForm;
+
+import com.example.licenta.bdd.Bdd;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Predicts the size of a formula's CNF and DNF before anything is distributed, and decides how the CNF
+ * should be built.
+ * <p>
+ * On a formula in negation normal form, distribution is fully predictable. The clauses of {@code A ∧ B} are
+ * the clauses of A followed by those of B, and the clauses of {@code A ∨ B} are every clause of A joined with
+ * every clause of B:
+ * <pre>
+ *   clauses(literal) = 1          literals(literal) = 1
+ *   clauses(A ∧ B)   = cA + cB    literals(A ∧ B)   = lA + lB
+ *   clauses(A ∨ B)   = cA · cB    literals(A ∨ B)   = lA · cB + lB · cA
+ * </pre>
+ * and dually for the terms of the DNF. These are exactly the clauses {@link FormulaTransformer#smartDistribute}
+ * produces before simplification removes duplicates and absorbed clauses, so they bound the final result
+ * from above. The pass visits every shared subformula once, and the counts saturate at {@link Long#MAX_VALUE}.
+ */
+@Component
+public class CostPlanner {
+
+    public enum Strategy {
+        /** Distribute ∨ over ∧: the result fits the budget. */
+        DISTRIBUTE,
+        /** One clause per path to 0 of the formula's BDD: equivalent, and smaller than distribution. */
+        BDD,
+        /** Tseitin encoding: linear size, but only equisatisfiable. */
+        TSEITIN,
+        /** Too large, and the caller did not allow another strategy. */
+        REJECT
+    }
+
+    private final long maxClauses;
+    private final long maxLiterals;
+    private final int bddMaxNodes;
+
+    public CostPlanner(@Value("${normal-form.max-clauses:10000}") long maxClauses,
+                       @Value("${normal-form.max-literals:200000}") long maxLiterals,
+                       @Value("${normal-form.bdd-max-nodes:1000000}") int bddMaxNodes) {
+        this.maxClauses = maxClauses;
+        this.maxLiterals = maxLiterals;
+        this.bddMaxNodes = bddMaxNodes;
+    }
+
+    public long getMaxClauses() {
+        return maxClauses;
+    }
+
+    public long getMaxLiterals() {
+        return maxLiterals;
+    }
+
+    /**
+     * Computes the size of the CNF and DNF that distribution would produce.
+     *
+     * @param nnf a formula in negation normal form: only ∧, ∨ and negated variables
+     */
+    public static Estimate estimate(Node nnf) {
+        return new Estimate(count(nnf));
+    }
+
+    /**
+     * Chooses how to build the CNF of {@code nnf}. Distribution is chosen whenever its estimate fits the
+     * budget. Otherwise, with {@code fallback}, the formula's BDD is built (within a node limit) and used if its
+     * paths to 0 fit the budget, and Tseitin's encoding is the last resort; without it the plan is rejected.
+     */
+    public Plan plan(Node nnf, boolean fallback) {
+        Estimate estimate = estimate(nnf);
+        if (fits(estimate.getCnfClauses(), estimate.getCnfLiterals())) {
+            return new Plan(Strategy.DISTRIBUTE, estimate, null, 0);
+        }
+        if (!fallback) {
+            return new Plan(Strategy.REJECT, estimate, null, 0);
+        }
+        Bdd bdd = new Bdd(occurrenceOrder(nnf), bddMaxNodes);
+        int root;
+        try {
+            root = build(bdd, nnf);
+        } catch (IllegalStateException e) {
+            return new Plan(Strategy.TSEITIN, estimate, null, 0);
+        }
+        long[] paths = pathsToFalse(bdd, root, new HashMap<>());
+        if (fits(paths[0], paths[1])) {
+            return new Plan(Strategy.BDD, estimate, bdd, root);
+        }
+        return new Plan(Strategy.TSEITIN, estimate, null, 0);
+    }
+
+    private boolean fits(long clauses, long literals) {
+        return clauses <= maxClauses && literals <= maxLiterals;
+    }
+
+    // {cnf clauses, cnf literals, dnf terms, dnf literals}, walked with an explicit stack since a long chain
+    // would otherwise take one frame per level
+    private static long[] count(Node root) {
+        Map<Node, long[]> memo = new IdentityHashMap<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.peek();
+            if (memo.containsKey(node)) {
+                stack.pop();
+                continue;
+            }
+            switch (node.getType()) {
+                case VAR, NOT -> {
+                    stack.pop();
+                    memo.put(node, new long[]{1, 1, 1, 1});
+                }
+                case AND, OR -> {
+                    long[] l = memo.get(node.getLeft());
+                    long[] r = memo.get(node.getRight());
+                    if (l == null || r == null) {
+                        if (r == null) {
+                            stack.push(node.getRight());
+                        }
+                        if (l == null) {
+                            stack.push(node.getLeft());
+                        }
+                        continue;
+                    }
+                    stack.pop();
+                    // ∧ adds up clauses and multiplies terms; ∨ the other way round
+                    int sum = node.getType() == NodeType.AND ? 0 : 2;
+                    int product = 2 - sum;
+                    long[] result = new long[4];
+                    result[sum] = add(l[sum], r[sum]);
+                    result[sum + 1] = add(l[sum + 1], r[sum + 1]);
+                    result[product] = multiply(l[product], r[product]);
+                    result[product + 1] = add(multiply(l[product + 1], r[product]),
+                            multiply(r[product + 1], l[product]));
+                    memo.put(node, result);
+                }
+                default -> throw new IllegalArgumentException("Not in negation normal form: " + node.getType());
+            }
+        }
+        return memo.get(root);
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiply(long a, long b) {
+        return a != 0 && b > Long.MAX_VALUE / a ? Long.MAX_VALUE : a * b;
+    }
+
+    private static List<String> occurrenceOrder(Node nnf) {
+        Set<String> order = new LinkedHashSet<>();
+        Set<Node> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(nnf);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (!seen.add(node)) {
+                continue;
+            }
+            if (node.getType() == NodeType.VAR) {
+                if (!isConstant(node)) {
+                    order.add(node.getValue());
+                }
+                continue;
+            }
+            if (node.getRight() != null) {
+                stack.push(node.getRight());
+            }
+            stack.push(node.getLeft());
+        }
+        return new ArrayList<>(order);
+    }
+
+    private static boolean isConstant(Node node) {
+        return node.getValue().equals("1") || node.getValue().equals("0");
+    }
+
+    // Post-order over the formula, like count
+    private static int build(Bdd bdd, Node root) {
+        Map<Node, Integer> memo = new IdentityHashMap<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.peek();
+            if (memo.containsKey(node)) {
+                stack.pop();
+                continue;
+            }
+            if (node.getType() == NodeType.VAR) {
+                stack.pop();
+                memo.put(node, isConstant(node) ? (node.getValue().equals("1") ? Bdd.TRUE : Bdd.FALSE)
+                        : bdd.variable(node.getValue()));
+                continue;
+            }
+            Integer l = memo.get(node.getLeft());
+            Integer r = node.getRight() == null ? null : memo.get(node.getRight());
+            boolean ready = true;
+            if (node.getRight() != null && r == null) {
+                stack.push(node.getRight());
+                ready = false;
+            }
+            if (l == null) {
+                stack.push(node.getLeft());
+                ready = false;
+            }
+            if (!ready) {
+                continue;
+            }
+            stack.pop();
+            memo.put(node, switch (node.getType()) {
+                case NOT -> bdd.not(l);
+                case AND -> bdd.and(l, r);
+                case OR -> bdd.or(l, r);
+                case IMPLIES -> bdd.implies(l, r);
+                default -> bdd.iff(l, r);
+            });
+        }
+        return memo.get(root);
+    }
+
+    // {paths from node to 0, total length of those paths}: the clauses and literals of the BDD's CNF
+    private static long[] pathsToFalse(Bdd bdd, int node, Map<Integer, long[]> memo) {
+        if (node == Bdd.FALSE) {
+            return new long[]{1, 0};
+        }
+        if (node == Bdd.TRUE) {
+            return new long[]{0, 0};
+        }
+        long[] known = memo.get(node);
+        if (known != null) {
+            return known;
+        }
+        long[] low = pathsToFalse(bdd, bdd.low(node), memo);
+        long[] high = pathsToFalse(bdd, bdd.high(node), memo);
+        long paths = add(low[0], high[0]);
+        long[] result = {paths, add(add(low[1], high[1]), paths)};
+        memo.put(node, result);
+        return result;
+    }
+
+    /**
+     * Reads off the CNF of a BDD: every path from the root to 0 is a falsifying partial assignment, and the
+     * clause that forbids it has the opposite literal of every decision on the path. The function 1 has no
+     * clause and is returned as the constant 1; the function 0 as the constant 0.
+     */
+    public static Node cnfFromBdd(Bdd bdd, int root) {
+        if (root == Bdd.TRUE || root == Bdd.FALSE) {
+            return NodeFactory.var(root == Bdd.TRUE ? "1" : "0");
+        }
+        List<Node> clauses = new ArrayList<>();
+        collectClauses(bdd, root, new ArrayDeque<>(), clauses);
+        Node cnf = clauses.get(clauses.size() - 1);
+        for (int i = clauses.size() - 2; i >= 0; i--) {
+            cnf = NodeFactory.and(clauses.get(i), cnf);
+        }
+        return cnf;
+    }
+
+    private static void collectClauses(Bdd bdd, int node, Deque<Node> path, List<Node> clauses) {
+        if (node == Bdd.TRUE) {
+            return;
+        }
+        if (node == Bdd.FALSE) {
+            Iterator<Node> literals = path.iterator();
+            Node clause = literals.next();
+            while (literals.hasNext()) {
+                clause = NodeFactory.or(literals.next(), clause);
+            }
+            clauses.add(clause);
+            return;
+        }
+        Node variable = NodeFactory.var(bdd.getVariables().get(bdd.level(node)));
+        // On the low branch the variable is false, so the clause requires it true
+        path.push(variable);
+        collectClauses(bdd, bdd.low(node), path, clauses);
+        path.pop();
+        path.push(NodeFactory.not(variable));
+        collectClauses(bdd, bdd.high(node), path, clauses);
+        path.pop();
+    }
+
+    /** Predicted size of the normal forms obtained by distribution. */
+    public static final class Estimate {
+        private final long cnfClauses;
+        private final long cnfLiterals;
+        private final long dnfTerms;
+        private final long dnfLiterals;
+
+        private Estimate(long[] counts) {
+            this.cnfClauses = counts[0];
+            this.cnfLiterals = counts[1];
+            this.dnfTerms = counts[2];
+            this.dnfLiterals = counts[3];
+        }
+
+        public long getCnfClauses() {
+            return cnfClauses;
+        }
+
+        public long getCnfLiterals() {
+            return cnfLiterals;
+        }
+
+        public long getDnfTerms() {
+            return dnfTerms;
+        }
+
+        public long getDnfLiterals() {
+            return dnfLiterals;
+        }
+    }
+
+    public static final class Plan {
+        private final Strategy strategy;
+        private final Estimate estimate;
+        private final Bdd bdd;
+        private final int root;
+
+        private Plan(Strategy strategy, Estimate estimate, Bdd bdd, int root) {
+            this.strategy = strategy;
+            this.estimate = estimate;
+            this.bdd = bdd;
+            this.root = root;
+        }
+
+        public Strategy getStrategy() {
+            return strategy;
+        }
+
+        public Estimate getEstimate() {
+            return estimate;
+        }
+
+        /** The formula's BDD for {@link Strategy#BDD}, null otherwise. */
+        public Bdd getBdd() {
+            return bdd;
+        }
+
+        public int getRoot() {
+            return root;
+        }
+    }
+}
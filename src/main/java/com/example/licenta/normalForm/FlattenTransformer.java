@@ -24,7 +24,7 @@ public class FlattenTransformer {
 
         Node flat = terms.get(0);
         for (int i = 1; i < terms.size(); i++) {
-            flat = new Node(node.getType(), flat, terms.get(i));
+            flat = NodeFactory.of(node.getType(), flat, terms.get(i));
         }
         return flat;
     }
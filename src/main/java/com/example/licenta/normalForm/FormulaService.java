@@ -1,5 +1,8 @@
 package com.example.licenta.normalForm;
 
+import com.example.licenta.execution.DeadlineExceededException;
+import com.example.licenta.parser.ParseResult;
+import com.example.licenta.parser.Parser;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -11,34 +14,128 @@ import java.util.List;
 public class FormulaService {
 
     @Autowired
-    private FormulaParser parser;
+    private FormulaTransformer transformer;
 
     @Autowired
-    private FormulaTransformer transformer;
+    private TseitinTransformer tseitinTransformer;
+
+    @Autowired
+    private PipelineMetrics metrics;
+
+    @Autowired
+    private CostPlanner planner;
+
+    public static final String MODE_DISTRIBUTE = "distribute";
+    public static final String MODE_TSEITIN = "tseitin";
+    public static final String MODE_PLAISTED_GREENBAUM = "plaisted-greenbaum";
+    public static final String MODE_AUTO = "auto";
 
     public List<TransformationStep> transformFormula(String formula) {
+        return transformFormula(formula, MODE_DISTRIBUTE);
+    }
+
+    /**
+     * @param mode {@link #MODE_DISTRIBUTE} for an equivalent normal form by distribution, rejected when
+     *             {@link CostPlanner} predicts a result over the budget; {@link #MODE_TSEITIN} /
+     *             {@link #MODE_PLAISTED_GREENBAUM} for an equisatisfiable CNF built in linear time with auxiliary
+     *             variables; or {@link #MODE_AUTO} to let the planner choose
+     */
+    public List<TransformationStep> transformFormula(String formula, String mode) {
+        return transformFormula(formula, mode, "internal");
+    }
+
+    /**
+     * @param endpoint tags the stage metrics with the caller, see {@link PipelineMetrics}
+     * @throws DeadlineExceededException if the request runs out of time; its partial result is the list of
+     *         steps completed until then
+     */
+    public List<TransformationStep> transformFormula(String formula, String mode, String endpoint) {
         List<TransformationStep> steps = new ArrayList<>();
+        try {
+            transformFormula(formula, mode, endpoint, steps);
+        } catch (DeadlineExceededException e) {
+            throw e.withPartialResult(steps);
+        }
+        return steps;
+    }
+
+    private void transformFormula(String formula, String mode, String endpoint, List<TransformationStep> steps) {
+        boolean definitional = MODE_TSEITIN.equals(mode) || MODE_PLAISTED_GREENBAUM.equals(mode);
+        boolean auto = MODE_AUTO.equals(mode);
+        if (!definitional && !auto && !MODE_DISTRIBUTE.equals(mode)) {
+            steps.add(new TransformationStep("Error", "Unknown mode: " + mode));
+            return;
+        }
 
-        Node ast = parser.parse(formula);
-        if (ast == null) {
-            steps.add(new TransformationStep("Error", "Invalid formula syntax"));
-            return steps;
+        PipelineMetrics.Run run = metrics.start(endpoint, mode);
+        ParseResult parsed = run.time("parse", () -> Parser.parse(formula));
+        if (!parsed.isValid()) {
+            steps.add(new TransformationStep("Error", "Invalid formula syntax: " + parsed.getDiagnostics().get(0)));
+            return;
         }
+        Node ast = parsed.getRoot();
+        run.shape("parse", null, ast);
 
         steps.add(new TransformationStep("Parsed Formula", transformer.printFormula(ast)));
 
-        ast = transformer.eliminateImplications(ast);
+        if (definitional) {
+            // The encoding defines →, ↔ and ¬ directly; no NNF is built, since printing it would expand the
+            // shared subformulas of nested ↔ exponentially
+            steps.add(new TransformationStep("Eliminate implications and biconditionals",
+                    "Not needed: the encoding defines → and ↔ directly"));
+            steps.add(new TransformationStep("Push negations (De Morgan and double negation)",
+                    "Not needed: the encoding defines ¬ directly"));
+            addDefinitionalSteps(ast, MODE_PLAISTED_GREENBAUM.equals(mode), steps, run);
+            return;
+        }
+
+        Node parsedAst = ast;
+        ast = run.stage("eliminate-implications", parsedAst, () -> transformer.eliminateImplications(parsedAst));
         steps.add(new TransformationStep("Eliminate implications and biconditionals", transformer.printFormula(ast)));
 
-        ast = transformer.pushNegations(ast);
+        Node withoutImplications = ast;
+        ast = run.stage("push-negations", withoutImplications, () -> transformer.pushNegations(withoutImplications));
         steps.add(new TransformationStep("Push negations (De Morgan and double negation)", transformer.printFormula(ast)));
 
-        Node distributedAst = transformer.smartDistribute(ast);
+        Node nnf = ast;
+        CostPlanner.Plan plan = run.time("plan", () -> planner.plan(nnf, auto));
+        CostPlanner.Estimate estimate = plan.getEstimate();
+        String predicted = predicted(estimate);
+        switch (plan.getStrategy()) {
+            case REJECT -> {
+                steps.add(new TransformationStep("Error", rejection(plan)));
+                return;
+            }
+            case BDD -> {
+                steps.add(new TransformationStep("Cost-based plan", "BDD: " + predicted
+                        + "; the BDD has " + plan.getBdd().nodeCount(plan.getRoot()) + " nodes"));
+                Node cnf = run.stage("bdd-cnf", nnf, () -> CostPlanner.cnfFromBdd(plan.getBdd(), plan.getRoot()));
+                run.clauses(PipelineMetrics.countConjuncts(cnf));
+                steps.add(new TransformationStep("CNF from the BDD (one clause per path to 0)", transformer.toFormulaString(cnf)));
+                steps.add(new TransformationStep("Normal Form Detection", "✅ Formula is in Conjunctive Normal Form (FNC)"));
+                return;
+            }
+            case TSEITIN -> {
+                steps.add(new TransformationStep("Cost-based plan", "Tseitin: " + predicted
+                        + ", and so would the BDD"));
+                addDefinitionalSteps(nnf, false, steps, run);
+                return;
+            }
+            default -> {
+                if (auto) {
+                    steps.add(new TransformationStep("Cost-based plan", "Distribution: at most "
+                            + estimate.getCnfClauses() + " clauses with " + estimate.getCnfLiterals() + " literals"));
+                }
+            }
+        }
+
+        Node distributedAst = run.stage("distribute", nnf, () -> transformer.smartDistribute(nnf));
+        run.clauses(PipelineMetrics.countConjuncts(distributedAst));
         steps.add(new TransformationStep("Smart Distributivity (deepest first)", transformer.toFormulaString(distributedAst)));
 
-        Node simplified = transformer.simplify(distributedAst);
+        Node simplified = run.stage("simplify", distributedAst, () -> transformer.simplify(distributedAst));
         steps.add(new TransformationStep("Simplification (Idempotence, Absorption, Contradiction,Asociativity)", transformer.printFormula(simplified)));
-        int normalForm = transformer.detectNormalForm(simplified);
+        int normalForm = run.time("detect", () -> transformer.detectNormalForm(simplified));
 
         if (normalForm == 1) {
             steps.add(new TransformationStep("Normal Form Detection", "✅ Formula is in Conjunctive Normal Form (FNC)"));
@@ -47,7 +144,77 @@ public class FormulaService {
         } else {
             steps.add(new TransformationStep("Normal Form Detection", "❌ Formula is NOT in Conjunctive or Disjunctive Normal Form"));
         }
+    }
 
-        return steps;
+    /**
+     * Predicts the size of the normal forms of a formula and the strategy {@link #MODE_AUTO} would use.
+     *
+     * @throws IllegalArgumentException if the formula is not well-formed
+     */
+    public CostPlanner.Plan plan(String formula) {
+        return plan(formula, true);
+    }
+
+    /**
+     * Plans the CNF of a formula; without {@code fallback} the plan is either distribution or
+     * {@link CostPlanner.Strategy#REJECT}, and no BDD is built.
+     *
+     * @throws IllegalArgumentException if the formula is not well-formed
+     */
+    public CostPlanner.Plan plan(String formula, boolean fallback) {
+        return planner.plan(toNnf(formula), fallback);
+    }
+
+    /** Why a rejected plan was rejected, with the modes that would succeed. */
+    public String rejection(CostPlanner.Plan plan) {
+        return "CNF too large: " + predicted(plan.getEstimate()) + ", over the budget of "
+                + planner.getMaxClauses() + " clauses and " + planner.getMaxLiterals()
+                + " literals. Use mode=auto or mode=tseitin";
+    }
+
+    /**
+     * The negation normal form of a formula: implications and biconditionals eliminated, negations pushed
+     * down to the variables.
+     *
+     * @throws IllegalArgumentException if the formula is not well-formed
+     */
+    public Node toNnf(String formula) {
+        Node ast = Parser.parse(formula).getRootOrThrow();
+        return transformer.pushNegations(transformer.eliminateImplications(ast));
+    }
+
+    /**
+     * The equisatisfiable CNF of a formula by Tseitin's encoding, or Plaisted–Greenbaum's.
+     *
+     * @throws IllegalArgumentException if the formula is not well-formed
+     */
+    public CnfEncoding encode(String formula, boolean plaistedGreenbaum) {
+        return tseitinTransformer.toCnf(Parser.parse(formula).getRootOrThrow(), plaistedGreenbaum);
+    }
+
+    private static String predicted(CostPlanner.Estimate estimate) {
+        return "distribution would produce " + count(estimate.getCnfClauses()) + " clauses with "
+                + count(estimate.getCnfLiterals()) + " literals";
+    }
+
+    private static String count(long value) {
+        return value == Long.MAX_VALUE ? "more than " + Long.MAX_VALUE : String.valueOf(value);
+    }
+
+    private void addDefinitionalSteps(Node ast, boolean plaistedGreenbaum, List<TransformationStep> steps,
+                                      PipelineMetrics.Run run) {
+        CnfEncoding cnf = run.time("encode", () -> tseitinTransformer.toCnf(ast, plaistedGreenbaum));
+        run.clauses(cnf.getClauses().size());
+        String name = plaistedGreenbaum ? "Plaisted–Greenbaum" : "Tseitin";
+
+        for (CnfEncoding.Definition definition : cnf.getDefinitions()) {
+            steps.add(new TransformationStep(name + " definition " + cnf.definitionToString(definition),
+                    cnf.clausesToString(definition.getClauses())));
+        }
+
+        int auxiliary = cnf.getVariableCount() - cnf.getOriginalVariableCount();
+        steps.add(new TransformationStep("Equisatisfiable CNF (" + cnf.getClauses().size() + " clauses, "
+                + auxiliary + " auxiliary variables)", cnf.toString()));
+        steps.add(new TransformationStep("Normal Form Detection", "✅ Formula is in Conjunctive Normal Form (FNC)"));
     }
-}
\ No newline at end of file
+}
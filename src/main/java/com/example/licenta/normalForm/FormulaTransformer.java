@@ -1,8 +1,12 @@
 package com.example.licenta.normalForm;
 
+import com.example.licenta.execution.Deadline;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 @Service
 public class FormulaTransformer {
 
@@ -28,45 +32,73 @@ public class FormulaTransformer {
     }
     
 
+    /**
+     * Simplifies a formula. A CNF or DNF is reduced as a {@link ClauseSet} (duplicates, trivial clauses and
+     * subsumed clauses removed); any other formula is simplified bottom-up with the local rules of
+     * {@link SimplificationTransformer}.
+     */
     public Node simplify(Node node) {
         if (node == null) return null;
-        if (node.getType() == NodeType.VAR) return new Node(NodeType.VAR, node.getValue());
-
-        node = new Node(node.getType(), simplify(node.getLeft()), simplify(node.getRight()));
-        node = simplificationTransformer.applyIdempotence(node);
-        node = simplificationTransformer.applyContradiction(node);
-        node = simplificationTransformer.applyConstantSimplification(node);
-        node = simplificationTransformer.applyAbsorption(node);
-        return node;
+        ClauseSet clauses = ClauseSet.of(node);
+        if (clauses != null) {
+            return clauses.reduce().toNode();
+        }
+        return simplify(node, new IdentityHashMap<>());
+    }
+
+    // Nodurile partajate din DAG sunt simplificate o singură dată
+    private Node simplify(Node node, Map<Node, Node> done) {
+        if (node == null) return null;
+        if (node.getType() == NodeType.VAR) return node;
+        Node result = done.get(node);
+        if (result != null) return result;
+        Deadline.checkpoint();
+
+        result = NodeFactory.of(node.getType(), simplify(node.getLeft(), done), simplify(node.getRight(), done));
+        result = simplificationTransformer.applyIdempotence(result);
+        result = simplificationTransformer.applyContradiction(result);
+        result = simplificationTransformer.applyConstantSimplification(result);
+        result = simplificationTransformer.applyAbsorption(result);
+        done.put(node, result);
+        return result;
         //return simplificationTransformer.simplify(node);
     }
+
     public Node smartDistribute(Node node) {
+        return smartDistribute(node, new IdentityHashMap<>());
+    }
+
+    private Node smartDistribute(Node node, Map<Node, Node> done) {
         if (node == null) return null;
 
         if (node.getType() == NodeType.VAR || node.getType() == NodeType.NOT) {
             return node;
         }
 
+        Node result = done.get(node);
+        if (result != null) return result;
+        Deadline.checkpoint();
+
         // Recursiv pe subnoduri
-        Node left = smartDistribute(node.getLeft());
-        Node right = smartDistribute(node.getRight());
+        Node left = smartDistribute(node.getLeft(), done);
+        Node right = smartDistribute(node.getRight(), done);
 
         // Aplica distributivitatea
-        if (node.getType() == NodeType.OR) {
-            if (left.getType() == NodeType.AND) {
-                Node l1 = smartDistribute(new Node(NodeType.OR, left.getLeft(), right));
-                Node l2 = smartDistribute(new Node(NodeType.OR, left.getRight(), right));
-                return new Node(NodeType.AND, l1, l2);
-            }
-            if (right.getType() == NodeType.AND) {
-                Node r1 = smartDistribute(new Node(NodeType.OR, left, right.getLeft()));
-                Node r2 = smartDistribute(new Node(NodeType.OR, left, right.getRight()));
-                return new Node(NodeType.AND, r1, r2);
-            }
+        if (node.getType() == NodeType.OR && left.getType() == NodeType.AND) {
+            Node l1 = smartDistribute(NodeFactory.or(left.getLeft(), right), done);
+            Node l2 = smartDistribute(NodeFactory.or(left.getRight(), right), done);
+            result = NodeFactory.and(l1, l2);
+        } else if (node.getType() == NodeType.OR && right.getType() == NodeType.AND) {
+            Node r1 = smartDistribute(NodeFactory.or(left, right.getLeft()), done);
+            Node r2 = smartDistribute(NodeFactory.or(left, right.getRight()), done);
+            result = NodeFactory.and(r1, r2);
+        } else {
+            // Nu e nevoie de distributivitate
+            result = NodeFactory.of(node.getType(), left, right);
         }
 
-        // Nu e nevoie de distributivitate
-        return new Node(node.getType(), left, right);
+        done.put(node, result);
+        return result;
     }
 
     public String printFormula(Node node) {
@@ -2,30 +2,44 @@ package com.example.licenta.normalForm;
 
 import org.springframework.stereotype.Service;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 @Service
 public class ImplicationTransformer {
 
     public Node eliminate(Node node) {
+        return eliminate(node, new IdentityHashMap<>());
+    }
+
+    // Nodurile partajate din DAG sunt transformate o singură dată
+    private Node eliminate(Node node, Map<Node, Node> done) {
         if (node == null) return null;
+        Node result = done.get(node);
+        if (result != null) return result;
 
         switch (node.getType()) {
             case VAR:
-                return new Node(NodeType.VAR, node.getValue());
+                return node;
             case IMPLIES:
-                return new Node(NodeType.OR,
-                        new Node(NodeType.NOT, eliminate(node.getLeft())),
-                        eliminate(node.getRight()));
+                result = NodeFactory.or(
+                        NodeFactory.not(eliminate(node.getLeft(), done)),
+                        eliminate(node.getRight(), done));
+                break;
             case IFF:
-                Node a = eliminate(node.getLeft());
-                Node b = eliminate(node.getRight());
-                Node left = new Node(NodeType.OR, new Node(NodeType.NOT, a), b);
-                Node right = new Node(NodeType.OR, new Node(NodeType.NOT, b), a);
-                return new Node(NodeType.AND, left, right);
+                Node a = eliminate(node.getLeft(), done);
+                Node b = eliminate(node.getRight(), done);
+                Node left = NodeFactory.or(NodeFactory.not(a), b);
+                Node right = NodeFactory.or(NodeFactory.not(b), a);
+                result = NodeFactory.and(left, right);
+                break;
             case NOT:
-                return new Node(NodeType.NOT, eliminate(node.getLeft()));
+                result = NodeFactory.not(eliminate(node.getLeft(), done));
+                break;
             default:
-                return new Node(node.getType(), eliminate(node.getLeft()), eliminate(node.getRight()));
+                result = NodeFactory.of(node.getType(), eliminate(node.getLeft(), done), eliminate(node.getRight(), done));
         }
+        done.put(node, result);
+        return result;
     }
 }
-
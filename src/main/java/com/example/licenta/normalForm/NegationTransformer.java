@@ -2,35 +2,51 @@ package com.example.licenta.normalForm;
 
 import org.springframework.stereotype.Service;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 @Service
 public class NegationTransformer {
 
     public Node pushNegations(Node node) {
+        return pushNegations(node, new IdentityHashMap<>());
+    }
+
+    // Nodurile partajate din DAG sunt transformate o singură dată
+    private Node pushNegations(Node node, Map<Node, Node> done) {
         if (node == null) return null;
 
         if (node.getType() == NodeType.VAR) {
-            return new Node(NodeType.VAR, node.getValue());
+            return node;
         }
 
+        Node result = done.get(node);
+        if (result != null) return result;
+
         if (node.getType() == NodeType.NOT) {
             Node child = node.getLeft();
             switch (child.getType()) {
                 case NOT:
-                    return pushNegations(child.getLeft());
+                    result = pushNegations(child.getLeft(), done);
+                    break;
                 case AND:
-                    return new Node(NodeType.OR,
-                            pushNegations(new Node(NodeType.NOT, child.getLeft())),
-                            pushNegations(new Node(NodeType.NOT, child.getRight())));
+                    result = NodeFactory.or(
+                            pushNegations(NodeFactory.not(child.getLeft()), done),
+                            pushNegations(NodeFactory.not(child.getRight()), done));
+                    break;
                 case OR:
-                    return new Node(NodeType.AND,
-                            pushNegations(new Node(NodeType.NOT, child.getLeft())),
-                            pushNegations(new Node(NodeType.NOT, child.getRight())));
+                    result = NodeFactory.and(
+                            pushNegations(NodeFactory.not(child.getLeft()), done),
+                            pushNegations(NodeFactory.not(child.getRight()), done));
+                    break;
                 default:
-                    return new Node(NodeType.NOT, pushNegations(child));
+                    result = NodeFactory.not(pushNegations(child, done));
             }
+        } else {
+            result = NodeFactory.of(node.getType(), pushNegations(node.getLeft(), done), pushNegations(node.getRight(), done));
         }
 
-        return new Node(node.getType(), pushNegations(node.getLeft()), pushNegations(node.getRight()));
+        done.put(node, result);
+        return result;
     }
 }
-
@@ -1,26 +1,26 @@
 package com.example.licenta.normalForm;
 
-public class Node {
-    private NodeType type;
-    private String value; // doar pentru VAR
-    private Node left;
-    private Node right;
-
-    public Node(NodeType type, Node left, Node right) {
+import java.util.Objects;
+
+/**
+ * Immutable node of a formula DAG.
+ * <p>
+ * Nodes are created only through {@link NodeFactory}, which keeps a single instance per structure, so two
+ * nodes are equal exactly when they are the same object and subformulas are shared rather than copied.
+ */
+public final class Node {
+    private final NodeType type;
+    private final String value; // doar pentru VAR
+    private final Node left;
+    private final Node right;
+    private final int hash;
+
+    Node(NodeType type, String value, Node left, Node right) {
         this.type = type;
+        this.value = value;
         this.left = left;
         this.right = right;
-    }
-
-    public Node(NodeType type, Node child) {
-        this.type = type;
-        this.left = child;
-    }
-
-    // 👇 AICI adaugi constructorul pentru VAR:
-    public Node(NodeType type, String value) {
-        this.type = type;
-        this.value = value;
+        this.hash = Objects.hash(type, value, System.identityHashCode(left), System.identityHashCode(right));
     }
 
     // Getters
@@ -39,4 +39,21 @@ public class Node {
     public Node getRight() {
         return right;
     }
+
+    /**
+     * Shallow structural equality: same type and value, identical children. Because every node is unique,
+     * this only matters inside the factory's table and coincides with {@code ==} everywhere else.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Node other)) return false;
+        return hash == other.hash && type == other.type && Objects.equals(value, other.value)
+                && left == other.left && right == other.right;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
 }
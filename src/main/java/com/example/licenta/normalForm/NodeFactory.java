@@ -0,0 +1,90 @@
+package com.example.licenta.normalForm;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Creates {@link Node}s through a unique table (hash-consing): asking twice for the same structure returns
+ * the same object. Equality of subformulas is therefore a reference comparison, and a subtree that occurs
+ * several times (after ↔ elimination or distribution, for example) is stored once.
+ * <p>
+ * The table holds its nodes weakly, so nodes no longer referenced by any formula are garbage collected. It
+ * is split into independently locked segments to keep concurrent requests from contending.
+ */
+public final class NodeFactory {
+
+    private static final int SEGMENTS = 32;
+    private static final Segment[] TABLE = new Segment[SEGMENTS];
+
+    static {
+        for (int i = 0; i < SEGMENTS; i++) {
+            TABLE[i] = new Segment();
+        }
+    }
+
+    private static final class Segment {
+        private final WeakHashMap<Node, WeakReference<Node>> nodes = new WeakHashMap<>();
+    }
+
+    private NodeFactory() {
+    }
+
+    public static Node var(String name) {
+        return intern(new Node(NodeType.VAR, name, null, null));
+    }
+
+    public static Node not(Node child) {
+        return intern(new Node(NodeType.NOT, null, child, null));
+    }
+
+    public static Node and(Node left, Node right) {
+        return intern(new Node(NodeType.AND, null, left, right));
+    }
+
+    public static Node or(Node left, Node right) {
+        return intern(new Node(NodeType.OR, null, left, right));
+    }
+
+    public static Node implies(Node left, Node right) {
+        return intern(new Node(NodeType.IMPLIES, null, left, right));
+    }
+
+    public static Node iff(Node left, Node right) {
+        return intern(new Node(NodeType.IFF, null, left, right));
+    }
+
+    /**
+     * Creates an operator node of the given type; {@code right} is ignored for NOT.
+     */
+    public static Node of(NodeType type, Node left, Node right) {
+        if (type == NodeType.VAR) {
+            throw new IllegalArgumentException("Use var() for variables");
+        }
+        return intern(new Node(type, null, left, type == NodeType.NOT ? null : right));
+    }
+
+    /** Number of live nodes in the unique table. */
+    public static int size() {
+        int size = 0;
+        for (Segment segment : TABLE) {
+            synchronized (segment) {
+                size += segment.nodes.size();
+            }
+        }
+        return size;
+    }
+
+    private static Node intern(Node candidate) {
+        int h = candidate.hashCode();
+        Segment segment = TABLE[(h ^ h >>> 16) & (SEGMENTS - 1)];
+        synchronized (segment) {
+            WeakReference<Node> ref = segment.nodes.get(candidate);
+            Node existing = ref == null ? null : ref.get();
+            if (existing != null) {
+                return existing;
+            }
+            segment.nodes.put(candidate, new WeakReference<>(candidate));
+            return candidate;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.licenta.normalForm;
+
+import com.example.licenta.execution.Deadline;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer metrics for the stages of the normal-form pipeline. Every stage records, tagged by endpoint,
+ * mode and stage:
+ * <ul>
+ *     <li>{@code formula.transform.stage}: how long it took;</li>
+ *     <li>{@code formula.transform.nodes.in} / {@code formula.transform.nodes.out}: distinct nodes of the
+ *     formula before and after it (shared subformulas count once);</li>
+ *     <li>{@code formula.transform.depth}: the depth of its result.</li>
+ * </ul>
+ * {@code formula.transform.clauses} counts the clauses of the final CNF. All meters are exposed on the
+ * actuator {@code /actuator/prometheus} endpoint.
+ */
+@Component
+public class PipelineMetrics {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    /**
+     * The stages of one run of the pipeline, sharing the endpoint and mode tags.
+     */
+    public Run start(String endpoint, String mode) {
+        return new Run(Tags.of("endpoint", endpoint, "mode", mode));
+    }
+
+    public final class Run {
+        private final Tags tags;
+
+        private Run(Tags tags) {
+            this.tags = tags;
+        }
+
+        /** Times a stage. The stage is also what a request that runs out of time reports as unfinished. */
+        public <T> T time(String stage, Supplier<T> work) {
+            Deadline deadline = Deadline.current();
+            if (deadline != null) {
+                deadline.stage("transform " + stage, 0);
+            }
+            return Timer.builder("formula.transform.stage")
+                    .tags(tags.and("stage", stage))
+                    .register(registry)
+                    .record(work);
+        }
+
+        /** Times a stage rewriting {@code input} and records the size of the formula before and after. */
+        public Node stage(String stage, Node input, Supplier<Node> work) {
+            Node output = time(stage, work);
+            shape(stage, input, output);
+            return output;
+        }
+
+        /** Records the size of a stage's input (if any) and output. */
+        public void shape(String stage, Node input, Node output) {
+            Tags stageTags = tags.and("stage", stage);
+            if (input != null) {
+                summary("formula.transform.nodes.in", stageTags, "nodes").record(countNodes(input));
+            }
+            summary("formula.transform.nodes.out", stageTags, "nodes").record(countNodes(output));
+            summary("formula.transform.depth", stageTags, "levels").record(depth(output));
+        }
+
+        public void clauses(int count) {
+            summary("formula.transform.clauses", tags, "clauses").record(count);
+        }
+
+        private DistributionSummary summary(String name, Tags tags, String unit) {
+            return DistributionSummary.builder(name).tags(tags).baseUnit(unit).register(registry);
+        }
+    }
+
+    /** Number of distinct nodes reachable from {@code root}. */
+    static int countNodes(Node root) {
+        Set<Node> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (seen.add(node)) {
+                if (node.getLeft() != null) {
+                    stack.push(node.getLeft());
+                }
+                if (node.getRight() != null) {
+                    stack.push(node.getRight());
+                }
+            }
+        }
+        return seen.size();
+    }
+
+    /** Number of levels below and including {@code root}; shared subformulas are measured once. */
+    static int depth(Node root) {
+        Map<Node, Integer> depths = new IdentityHashMap<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.peek();
+            if (depths.containsKey(node)) {
+                stack.pop();
+                continue;
+            }
+            boolean ready = true;
+            if (node.getLeft() != null && !depths.containsKey(node.getLeft())) {
+                stack.push(node.getLeft());
+                ready = false;
+            }
+            if (node.getRight() != null && !depths.containsKey(node.getRight())) {
+                stack.push(node.getRight());
+                ready = false;
+            }
+            if (ready) {
+                stack.pop();
+                int left = node.getLeft() == null ? 0 : depths.get(node.getLeft());
+                int right = node.getRight() == null ? 0 : depths.get(node.getRight());
+                depths.put(node, 1 + Math.max(left, right));
+            }
+        }
+        return depths.get(root);
+    }
+
+    /** Number of clauses of a formula read as a CNF: its top-level conjuncts. */
+    static int countConjuncts(Node root) {
+        int count = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node.getType() == NodeType.AND) {
+                stack.push(node.getLeft());
+                stack.push(node.getRight());
+            } else {
+                count++;
+            }
+        }
+        return count;
+    }
+}
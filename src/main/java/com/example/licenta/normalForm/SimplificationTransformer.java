@@ -2,8 +2,7 @@ package com.example.licenta.normalForm;
 
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 @Service
 public class SimplificationTransformer {
@@ -65,11 +64,11 @@ public Node applyIdempotence(Node node) {
     if (node.getType() == NodeType.AND || node.getType() == NodeType.OR) {
         List<Node> terms = flatten(node, node.getType());
 
+        // Nodes are unique, so equal terms are the same object
+        Set<Node> seen = Collections.newSetFromMap(new IdentityHashMap<>());
         List<Node> uniqueTerms = new ArrayList<>();
         for (Node term : terms) {
-            boolean alreadyExists = uniqueTerms.stream()
-                    .anyMatch(existing -> isSameLiteral(existing, term));
-            if (!alreadyExists) {
+            if (seen.add(term)) {
                 uniqueTerms.add(term);
             }
         }
@@ -80,7 +79,7 @@ public Node applyIdempotence(Node node) {
 
         Node result = uniqueTerms.get(0);
         for (int i = 1; i < uniqueTerms.size(); i++) {
-            result = new Node(node.getType(), result, uniqueTerms.get(i));
+            result = NodeFactory.of(node.getType(), result, uniqueTerms.get(i));
         }
         return result;
     }
@@ -88,40 +87,18 @@ public Node applyIdempotence(Node node) {
     return node;
 }
 
-    private boolean isSameLiteral(Node a, Node b) {
-        if (a == null || b == null) return false;
-
-        if (a.getType() == NodeType.VAR && b.getType() == NodeType.VAR) {
-            return a.getValue() != null && a.getValue().equals(b.getValue());
-        }
-
-        if (a.getType() == NodeType.NOT && b.getType() == NodeType.NOT) {
-            return a.getLeft() != null && b.getLeft() != null &&
-                    a.getLeft().getType() == NodeType.VAR && b.getLeft().getType() == NodeType.VAR &&
-                    a.getLeft().getValue() != null &&
-                    a.getLeft().getValue().equals(b.getLeft().getValue());
-        }
-
-        return false;
-    }
-
-
     public Node applyContradiction(Node node) {
         if (node == null) return null;
 
         if (node.getType() == NodeType.AND || node.getType() == NodeType.OR) {
             List<Node> terms = flatten(node, node.getType());
 
-            // Verificăm toate combinațiile
-            for (int i = 0; i < terms.size(); i++) {
-                for (int j = i + 1; j < terms.size(); j++) {
-                    if (isNegationOf(terms.get(i), terms.get(j)) || isNegationOf(terms.get(j), terms.get(i))) {
-                        if (node.getType() == NodeType.OR) {
-                            return new Node(NodeType.VAR, "1"); // A ∨ ¬A ≡ 1
-                        } else if (node.getType() == NodeType.AND) {
-                            return new Node(NodeType.VAR, "0"); // A ∧ ¬A ≡ 0
-                        }
-                    }
+            // Nodes are unique: A and ¬A are found by identity, without comparing every pair
+            Set<Node> present = Collections.newSetFromMap(new IdentityHashMap<>());
+            present.addAll(terms);
+            for (Node term : terms) {
+                if (term.getType() == NodeType.NOT && present.contains(term.getLeft())) {
+                    return NodeFactory.var(node.getType() == NodeType.OR ? "1" : "0"); // A ∨ ¬A ≡ 1, A ∧ ¬A ≡ 0
                 }
             }
         }
@@ -133,82 +110,62 @@ public Node applyIdempotence(Node node) {
         if (node.getType() == NodeType.AND) {
             if (isConstant(node.getLeft(), "1")) return node.getRight();
             if (isConstant(node.getRight(), "1")) return node.getLeft();
-            if (isConstant(node.getLeft(), "0") || isConstant(node.getRight(), "0")) return new Node(NodeType.VAR, "0");
+            if (isConstant(node.getLeft(), "0") || isConstant(node.getRight(), "0")) return NodeFactory.var("0");
         }
 
         if (node.getType() == NodeType.OR) {
             if (isConstant(node.getLeft(), "0")) return node.getRight();
             if (isConstant(node.getRight(), "0")) return node.getLeft();
-            if (isConstant(node.getLeft(), "1") || isConstant(node.getRight(), "1")) return new Node(NodeType.VAR, "1");
+            if (isConstant(node.getLeft(), "1") || isConstant(node.getRight(), "1")) return NodeFactory.var("1");
         }
         return node;
     }
     private boolean isConstant(Node node, String constant) {
         return node.getType() == NodeType.VAR && constant.equals(node.getValue());
     }
-    private boolean isNegationOf(Node a, Node b) {
-        if (a == null || b == null) return false;
-
-        if (a.getType() == NodeType.NOT &&
-                a.getLeft() != null &&
-                a.getLeft().getType() == NodeType.VAR &&
-                b.getType() == NodeType.VAR) {
-
-            return a.getLeft().getValue() != null && a.getLeft().getValue().equals(b.getValue());
-        }
 
-        return false;
-    }
+    /**
+     * Absorption: {@code A ∨ (A ∧ B) ≡ A} and {@code A ∧ (A ∨ B) ≡ A}. A term is removed when one of its
+     * direct operands is another term of the same chain.
+     */
     public Node applyAbsorption(Node node) {
         if (node == null) return null;
 
         if (node.getType() == NodeType.OR || node.getType() == NodeType.AND) {
             List<Node> terms = flatten(node, node.getType());
+            Set<Node> present = Collections.newSetFromMap(new IdentityHashMap<>());
+            present.addAll(terms);
 
-            List<Node> toRemove = new ArrayList<>();
-
+            List<Node> kept = new ArrayList<>();
             for (Node term : terms) {
-                for (Node other : terms) {
-                    if (term == other) continue;
-
-                    if (term.getType() == NodeType.VAR || isNegatedVar(term)) {
-                        if (other.getType() == oppositeNodeType(node.getType())) {
-                            if (containsVar(other, term)) {
-                                toRemove.add(other); // other e absorbit
-                            }
-                        }
-                    }
+                if (!isAbsorbed(term, oppositeNodeType(node.getType()), present)) {
+                    kept.add(term);
                 }
             }
-            terms.removeAll(toRemove);
-            if (terms.isEmpty()) {
+            if (kept.isEmpty() || kept.size() == terms.size()) {
                 return node;
             }
-            Node result = terms.get(0);
-            for (int i = 1; i < terms.size(); i++) {
-                result = new Node(node.getType(), result, terms.get(i));
+            Node result = kept.get(0);
+            for (int i = 1; i < kept.size(); i++) {
+                result = NodeFactory.of(node.getType(), result, kept.get(i));
             }
             return result;
         }
         return node;
     }
 
-    private boolean isNegatedVar(Node node) {
-        return node.getType() == NodeType.NOT && node.getLeft() != null && node.getLeft().getType() == NodeType.VAR;
-    }
-    private boolean containsVar(Node node, Node var) {
-        if (node == null) return false;
-
-        if (node.getType() == NodeType.VAR && node.getValue().equals(var.getValue())) {
-            return true;
+    private boolean isAbsorbed(Node term, NodeType innerType, Set<Node> present) {
+        if (term.getType() != innerType) {
+            return false;
         }
-
-        if (node.getType() == NodeType.NOT && node.getLeft() != null) {
-            return containsVar(node.getLeft(), var);
+        for (Node operand : flatten(term, innerType)) {
+            if (present.contains(operand)) {
+                return true;
+            }
         }
-
-        return containsVar(node.getLeft(), var) || containsVar(node.getRight(), var);
+        return false;
     }
+
     private NodeType oppositeNodeType(NodeType type) {
         switch (type) {
             case AND: return NodeType.OR;
@@ -0,0 +1,261 @@
+package com.example.licenta.normalForm;
+
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Converts a formula to an equisatisfiable CNF in linear time and space by naming every compound
+ * subformula with an auxiliary variable (Tseitin encoding), instead of distributing ∨ over ∧.
+ * <p>
+ * In Plaisted–Greenbaum mode only the direction of each definition required by the polarity in which the
+ * subformula occurs is emitted ({@code t → φ} for positive occurrences, {@code φ → t} for negative ones),
+ * which roughly halves the number of clauses. Shared DAG nodes get a single auxiliary variable.
+ * <p>
+ * The variables "1" and "0" are the constants true and false; they are mapped to an auxiliary variable
+ * forced true by a unit clause.
+ */
+@Service
+public class TseitinTransformer {
+
+    private static final int POSITIVE = 1;
+    private static final int NEGATIVE = 2;
+    private static final int BOTH = POSITIVE | NEGATIVE;
+
+    /**
+     * @param formula           any formula; it does not need to be in negation normal form
+     * @param plaistedGreenbaum emit only the polarity-required half of each definition
+     */
+    public CnfEncoding toCnf(Node formula, boolean plaistedGreenbaum) {
+        return new Encoder(formula, plaistedGreenbaum).encode();
+    }
+
+    private static class Encoder {
+        private final Node root;
+        private final boolean plaistedGreenbaum;
+
+        private final List<String> names = new ArrayList<>();
+        private final Map<String, Integer> variables = new HashMap<>();
+        private final Map<Node, Integer> auxiliary = new IdentityHashMap<>();
+        private final Map<Node, Integer> emitted = new IdentityHashMap<>();
+        private final Map<Node, List<int[]>> definitionClauses = new IdentityHashMap<>();
+        private final Map<Node, int[]> definitionOperands = new IdentityHashMap<>();
+        private final List<Node> definitionOrder = new ArrayList<>();
+        private final List<int[]> rootClauses = new ArrayList<>();
+        private int nextAuxiliary = 1;
+        private int truth;
+
+        Encoder(Node root, boolean plaistedGreenbaum) {
+            this.root = root;
+            this.plaistedGreenbaum = plaistedGreenbaum;
+        }
+
+        CnfEncoding encode() {
+            // The formula's variables get the first numbers, in alphabetical order
+            Set<String> original = new TreeSet<>();
+            collectVariables(root, original, Collections.newSetFromMap(new IdentityHashMap<>()));
+            boolean constants = original.remove("1") | original.remove("0");
+            for (String name : original) {
+                variables.put(name, names.size() + 1);
+                names.add(name);
+            }
+            if (constants) {
+                truth = names.size() + 1;
+                names.add("⊤");
+                rootClauses.add(new int[]{truth});
+            }
+
+            addRoot(root);
+
+            List<int[]> clauses = new ArrayList<>();
+            List<CnfEncoding.Definition> definitions = new ArrayList<>();
+            for (Node node : definitionOrder) {
+                List<int[]> own = definitionClauses.get(node);
+                clauses.addAll(own);
+                definitions.add(new CnfEncoding.Definition(auxiliary.get(node), node, definitionOperands.get(node),
+                        emitted.get(node) == BOTH, own));
+            }
+            clauses.addAll(rootClauses);
+            return new CnfEncoding(names, original.size(), clauses, definitions);
+        }
+
+        private void collectVariables(Node root, Set<String> out, Set<Node> visited) {
+            Deque<Node> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Node node = stack.pop();
+                if (!visited.add(node)) {
+                    continue;
+                }
+                if (node.getType() == NodeType.VAR) {
+                    out.add(node.getValue());
+                    continue;
+                }
+                if (node.getRight() != null) {
+                    stack.push(node.getRight());
+                }
+                stack.push(node.getLeft());
+            }
+        }
+
+        // Conjunctions at the root become separate clauses, without auxiliary variables
+        private void addRoot(Node root) {
+            List<Node> conjuncts = new ArrayList<>();
+            collectOperands(root, NodeType.AND, conjuncts);
+            for (Node node : conjuncts) {
+                if (node.getType() == NodeType.OR) {
+                    List<Node> operands = new ArrayList<>();
+                    collectOperands(node, NodeType.OR, operands);
+                    int[] clause = new int[operands.size()];
+                    for (int i = 0; i < clause.length; i++) {
+                        clause[i] = literal(operands.get(i), POSITIVE);
+                    }
+                    rootClauses.add(clause);
+                } else {
+                    rootClauses.add(new int[]{literal(node, POSITIVE)});
+                }
+            }
+        }
+
+        private int literal(Node node, int polarity) {
+            if (!plaistedGreenbaum) {
+                polarity = BOTH;
+            }
+            switch (node.getType()) {
+                case VAR:
+                    if (truth != 0 && ("1".equals(node.getValue()) || "0".equals(node.getValue()))) {
+                        return "1".equals(node.getValue()) ? truth : -truth;
+                    }
+                    return variables.get(node.getValue());
+                case NOT:
+                    return -literal(node.getLeft(), flip(polarity));
+                default:
+                    break;
+            }
+
+            int done = emitted.getOrDefault(node, 0);
+            int need = polarity & ~done;
+            if (need == 0) {
+                return auxiliary.get(node);
+            }
+            emitted.put(node, done | need);
+
+            List<int[]> clauses = new ArrayList<>();
+            Integer t = auxiliary.get(node);
+            switch (node.getType()) {
+                case AND: {
+                    int[] operands = operandLiterals(node, need);
+                    t = define(node, t, operands);
+                    if ((need & POSITIVE) != 0) {
+                        for (int a : operands) clauses.add(new int[]{-t, a});
+                    }
+                    if ((need & NEGATIVE) != 0) {
+                        clauses.add(prepend(t, negate(operands)));
+                    }
+                    break;
+                }
+                case OR: {
+                    int[] operands = operandLiterals(node, need);
+                    t = define(node, t, operands);
+                    if ((need & POSITIVE) != 0) {
+                        clauses.add(prepend(-t, operands));
+                    }
+                    if ((need & NEGATIVE) != 0) {
+                        for (int a : operands) clauses.add(new int[]{t, -a});
+                    }
+                    break;
+                }
+                case IMPLIES: {
+                    int a = literal(node.getLeft(), flip(need));
+                    int b = literal(node.getRight(), need);
+                    t = define(node, t, new int[]{a, b});
+                    if ((need & POSITIVE) != 0) {
+                        clauses.add(new int[]{-t, -a, b});
+                    }
+                    if ((need & NEGATIVE) != 0) {
+                        clauses.add(new int[]{t, a});
+                        clauses.add(new int[]{t, -b});
+                    }
+                    break;
+                }
+                default: { // IFF
+                    int a = literal(node.getLeft(), BOTH);
+                    int b = literal(node.getRight(), BOTH);
+                    t = define(node, t, new int[]{a, b});
+                    if ((need & POSITIVE) != 0) {
+                        clauses.add(new int[]{-t, -a, b});
+                        clauses.add(new int[]{-t, a, -b});
+                    }
+                    if ((need & NEGATIVE) != 0) {
+                        clauses.add(new int[]{t, a, b});
+                        clauses.add(new int[]{t, -a, -b});
+                    }
+                }
+            }
+            definitionClauses.get(node).addAll(clauses);
+            return t;
+        }
+
+        /** Allocates the auxiliary variable of a node after its operands, so definitions read bottom-up. */
+        private int define(Node node, Integer existing, int[] operands) {
+            if (existing != null) {
+                return existing;
+            }
+            String name;
+            do {
+                name = "t" + nextAuxiliary++;
+            } while (variables.containsKey(name));
+            int t = names.size() + 1;
+            names.add(name);
+            variables.put(name, t);
+            auxiliary.put(node, t);
+            definitionClauses.put(node, new ArrayList<>());
+            definitionOperands.put(node, operands);
+            definitionOrder.add(node);
+            return t;
+        }
+
+        private int[] operandLiterals(Node node, int polarity) {
+            List<Node> operands = new ArrayList<>();
+            collectOperands(node, node.getType(), operands);
+            int[] literals = new int[operands.size()];
+            for (int i = 0; i < literals.length; i++) {
+                literals[i] = literal(operands.get(i), polarity);
+            }
+            return literals;
+        }
+
+        // Operands of the maximal chain of `type` operators under node, left to right, with an explicit stack
+        // so that a long chain does not take one frame per operand
+        private void collectOperands(Node node, NodeType type, List<Node> operands) {
+            Deque<Node> stack = new ArrayDeque<>();
+            stack.push(node);
+            while (!stack.isEmpty()) {
+                Node current = stack.pop();
+                if (current.getType() == type) {
+                    stack.push(current.getRight());
+                    stack.push(current.getLeft());
+                } else {
+                    operands.add(current);
+                }
+            }
+        }
+
+        private static int flip(int polarity) {
+            return polarity == BOTH ? BOTH : polarity ^ BOTH;
+        }
+
+        private static int[] negate(int[] literals) {
+            int[] negated = new int[literals.length];
+            for (int i = 0; i < literals.length; i++) negated[i] = -literals[i];
+            return negated;
+        }
+
+        private static int[] prepend(int first, int[] rest) {
+            int[] clause = new int[rest.length + 1];
+            clause[0] = first;
+            System.arraycopy(rest, 0, clause, 1, rest.length);
+            return clause;
+        }
+    }
+}
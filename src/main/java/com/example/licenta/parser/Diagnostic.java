@@ -0,0 +1,27 @@
+package com.example.licenta.parser;
+
+/**
+ * A syntax error found while parsing, located by its character offset in the submitted text.
+ */
+public final class Diagnostic {
+    private final int position;
+    private final String message;
+
+    public Diagnostic(int position, String message) {
+        this.position = position;
+        this.message = message;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message + " at position " + position;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.licenta.parser;
+
+import com.example.licenta.normalForm.Node;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+
+/**
+ * Outcome of {@link Parser#parse(String)}: the syntax tree when the formula is well-formed, the diagnostics
+ * otherwise, and what the same scan learned about the text. Immutable.
+ */
+public final class ParseResult {
+    private final String formula;
+    private final Node root;
+    private final List<Diagnostic> diagnostics;
+    private final String normalizedFormula;
+    private final SortedSet<String> variables;
+    private final Map<String, Node> spans;
+
+    ParseResult(String formula, Node root, List<Diagnostic> diagnostics, String normalizedFormula,
+                SortedSet<String> variables, Map<String, Node> spans) {
+        this.formula = formula;
+        this.root = root;
+        this.diagnostics = diagnostics;
+        this.normalizedFormula = normalizedFormula;
+        this.variables = variables;
+        this.spans = spans;
+    }
+
+    public String getFormula() {
+        return formula;
+    }
+
+    public boolean isValid() {
+        return diagnostics.isEmpty();
+    }
+
+    /**
+     * The root of the syntax tree, built from hash-consed {@link Node}s, or null if the formula is invalid.
+     * The constants are the variables "1" and "0".
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * The root of the syntax tree.
+     *
+     * @throws IllegalArgumentException describing the first syntax error if the formula is invalid
+     */
+    public Node getRootOrThrow() {
+        if (root == null) {
+            throw new IllegalArgumentException("Invalid formula: " + diagnostics.get(0));
+        }
+        return root;
+    }
+
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * The formula without whitespace, with the operators spelled !, &amp;, |, &gt;, =. Produced for invalid
+     * formulas too.
+     */
+    public String getNormalizedFormula() {
+        return normalizedFormula;
+    }
+
+    /** The variables in alphabetical order, constants excluded. Empty if the formula is invalid. */
+    public SortedSet<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Maps the source text of every parenthesized group and variable, and of the whole formula, to its node.
+     * When the same text occurs several times, the first occurrence wins. Texts are in the order they end in
+     * the formula (a group when its ')' is read), the whole formula last.
+     */
+    public Map<String, Node> getSpans() {
+        return spans;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.licenta.parser;
+
+import com.example.licenta.normalForm.Node;
+import com.example.licenta.normalForm.NodeFactory;
+import com.example.licenta.normalForm.NodeType;
+
+import java.util.*;
+
+/**
+ * The one parser for propositional formulas. A single scan over the text checks the syntax, builds the tree,
+ * collects the variables and subformula spans and writes the normalized text, so validating a formula and
+ * parsing it are the same operation.
+ * <p>
+ * Precedence, from strongest to weakest: ¬, ∧, ∨, →, ↔. Binary operators group to the right. Both the
+ * Unicode and the ASCII spellings are accepted: ¬ ! ~, ∧ &amp; &amp;&amp;, ∨ | ||, → -&gt; &gt;,
+ * ↔ &lt;-&gt; = ==. Variables are a letter followed by letters or digits; 0 and 1 are the constants.
+ * <p>
+ * The parser has no state of its own: every call works on a private scanner, so it is safe to call from any
+ * number of threads at once.
+ */
+public final class Parser {
+
+    private static final int NOT = 0;
+    private static final int AND = 1;
+    private static final int OR = 2;
+    private static final int IMPLIES = 3;
+    private static final int IFF = 4;
+
+    // Normalized spelling of each operator
+    private static final char[] ASCII = {'!', '&', '|', '>', '='};
+
+    private Parser() {
+    }
+
+    public static ParseResult parse(String formula) {
+        return new Scanner(formula == null ? "" : formula).run();
+    }
+
+    /** Aborts the scan at the first syntax error. */
+    private static final class SyntaxError extends RuntimeException {
+        final int position;
+
+        SyntaxError(int position, String message) {
+            super(message, null, false, false);
+            this.position = position;
+        }
+    }
+
+    private static final class Scanner {
+        private final String input;
+        private int pos;
+        private final StringBuilder normalized;
+        private final SortedSet<String> variables = new TreeSet<>();
+        private final Map<String, Node> spans = new LinkedHashMap<>();
+
+        Scanner(String input) {
+            this.input = input;
+            this.normalized = new StringBuilder(input.length());
+        }
+
+        ParseResult run() {
+            try {
+                skipWhitespace();
+                if (pos == input.length()) {
+                    throw new SyntaxError(pos, "Empty formula");
+                }
+                Node root = parseIff();
+                skipWhitespace();
+                if (pos < input.length()) {
+                    char c = input.charAt(pos);
+                    throw new SyntaxError(pos, c == ')' ? "Unmatched ')'" : "Expected an operator before '" + c + "'");
+                }
+                spans.put(input, root);
+                return new ParseResult(input, root, List.of(), normalized.toString(),
+                        Collections.unmodifiableSortedSet(variables), Collections.unmodifiableMap(spans));
+            } catch (SyntaxError e) {
+                normalizeRest();
+                return new ParseResult(input, null, List.of(new Diagnostic(e.position, e.getMessage())),
+                        normalized.toString(), Collections.emptySortedSet(), Map.of());
+            }
+        }
+
+        private Node parseIff() {
+            List<Node> operands = new ArrayList<>();
+            do {
+                operands.add(parseImplies());
+            } while (match(IFF));
+            return foldRight(NodeType.IFF, operands);
+        }
+
+        private Node parseImplies() {
+            List<Node> operands = new ArrayList<>();
+            do {
+                operands.add(parseOr());
+            } while (match(IMPLIES));
+            return foldRight(NodeType.IMPLIES, operands);
+        }
+
+        private Node parseOr() {
+            List<Node> operands = new ArrayList<>();
+            do {
+                operands.add(parseAnd());
+            } while (match(OR));
+            return foldRight(NodeType.OR, operands);
+        }
+
+        private Node parseAnd() {
+            List<Node> operands = new ArrayList<>();
+            do {
+                operands.add(parseUnary());
+            } while (match(AND));
+            return foldRight(NodeType.AND, operands);
+        }
+
+        /**
+         * Groups a chain read left to right into a right-leaning tree. Chains are read into a list rather than
+         * by recursion so that the stack does not grow with the number of operands.
+         */
+        private static Node foldRight(NodeType type, List<Node> operands) {
+            Node result = operands.get(operands.size() - 1);
+            for (int i = operands.size() - 2; i >= 0; i--) {
+                result = NodeFactory.of(type, operands.get(i), result);
+            }
+            return result;
+        }
+
+        private Node parseUnary() {
+            int negations = 0;
+            while (match(NOT)) {
+                negations++;
+            }
+            Node operand = parseAtom();
+            for (int i = 0; i < negations; i++) {
+                operand = NodeFactory.not(operand);
+            }
+            return operand;
+        }
+
+        private Node parseAtom() {
+            skipWhitespace();
+            if (pos >= input.length()) {
+                throw new SyntaxError(pos, "Unexpected end of formula, expected a variable, a constant, '¬' or '('");
+            }
+            char c = input.charAt(pos);
+            if (c == '(') {
+                int start = pos++;
+                normalized.append('(');
+                Node inner = parseIff();
+                skipWhitespace();
+                if (pos >= input.length()) {
+                    throw new SyntaxError(start, "Unclosed '('");
+                }
+                if (input.charAt(pos) != ')') {
+                    throw new SyntaxError(pos, "Expected ')' or an operator before '" + input.charAt(pos) + "'");
+                }
+                pos++;
+                normalized.append(')');
+                spans.putIfAbsent(input.substring(start, pos), inner);
+                return inner;
+            }
+            if (c == '0' || c == '1') {
+                pos++;
+                normalized.append(c);
+                return NodeFactory.var(c == '1' ? "1" : "0");
+            }
+            if (Character.isLetter(c)) {
+                int start = pos;
+                while (pos < input.length() && Character.isLetterOrDigit(input.charAt(pos))) {
+                    pos++;
+                }
+                String name = input.substring(start, pos);
+                normalized.append(name);
+                variables.add(name);
+                Node var = NodeFactory.var(name);
+                spans.putIfAbsent(name, var);
+                return var;
+            }
+            if (c == ')') {
+                throw new SyntaxError(pos, "Unexpected ')', expected a variable, a constant, '¬' or '('");
+            }
+            throw new SyntaxError(pos, operatorAt(pos) >= 0
+                    ? "Missing operand before '" + c + "'"
+                    : "Unexpected character '" + c + "'");
+        }
+
+        /** Consumes the operator {@code op} in any of its spellings. */
+        private boolean match(int op) {
+            skipWhitespace();
+            if (pos >= input.length() || operatorAt(pos) != op) {
+                return false;
+            }
+            pos += operatorLength(pos);
+            normalized.append(ASCII[op]);
+            return true;
+        }
+
+        /** The operator starting at {@code at}, or -1. */
+        private int operatorAt(int at) {
+            char c = input.charAt(at);
+            return switch (c) {
+                case '¬', '!', '~' -> NOT;
+                case '∧', '&' -> AND;
+                case '∨', '|' -> OR;
+                case '→', '>' -> IMPLIES;
+                case '↔', '=' -> IFF;
+                case '-' -> input.startsWith("->", at) ? IMPLIES : -1;
+                case '<' -> input.startsWith("<->", at) ? IFF : -1;
+                default -> -1;
+            };
+        }
+
+        private int operatorLength(int at) {
+            char c = input.charAt(at);
+            return switch (c) {
+                case '-' -> 2;
+                case '<' -> 3;
+                case '&', '|', '=' -> at + 1 < input.length() && input.charAt(at + 1) == c ? 2 : 1;
+                default -> 1;
+            };
+        }
+
+        private void skipWhitespace() {
+            while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        /** After an error, normalizes the rest of the text without checking it. */
+        private void normalizeRest() {
+            while (true) {
+                skipWhitespace();
+                if (pos >= input.length()) {
+                    return;
+                }
+                int op = operatorAt(pos);
+                if (op >= 0) {
+                    normalized.append(ASCII[op]);
+                    pos += operatorLength(pos);
+                } else {
+                    normalized.append(input.charAt(pos++));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,611 @@
+package com.example.licenta.sat;
+
+import com.example.licenta.execution.Deadline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Conflict-driven clause-learning SAT solver.
+ * <p>
+ * Clauses use DIMACS literals: variable {@code v >= 1} is {@code v}, its negation {@code -v}. Internally a
+ * literal is {@code 2v} (positive) or {@code 2v + 1} (negative). The solver uses two watched literals per
+ * clause for unit propagation, first-UIP conflict analysis with clause minimization and non-chronological
+ * backjumping, VSIDS branching with phase saving, Luby restarts and LBD-based deletion of learnt clauses.
+ */
+public class CdclSolver {
+
+    private static final double VAR_DECAY = 0.95;
+    private static final int RESTART_UNIT = 100;
+
+    private int variables;
+    private boolean ok = true;
+
+    // Clause database; deleted learnt clauses are set to null and dropped lazily from the watch lists
+    private final List<int[]> clauses = new ArrayList<>();
+    private int[] clauseLbd = new int[16];
+    private final IntList learnts = new IntList();
+    private int maxLearnts;
+
+    private IntList[] watches;
+    private byte[] assigns;   // 0 = unassigned, 1 = true, -1 = false
+    private int[] level;
+    private int[] reason;     // index of the implying clause, -1 for decisions
+    private boolean[] phase;  // last value, reused on the next decision
+    private boolean[] seen;
+    private double[] activity;
+    private double varInc = 1;
+    private VarHeap heap;
+
+    private int[] trail;
+    private int trailSize;
+    private int qhead;
+    private final IntList trailLim = new IntList();
+
+    private boolean[] model;
+    private long conflicts;
+    private long decisions;
+    private long propagations;
+
+    public CdclSolver() {
+        this(0);
+    }
+
+    public CdclSolver(int variables) {
+        allocate(Math.max(variables, 1));
+        this.variables = variables;
+        for (int v = 1; v <= variables; v++) {
+            heap.insert(v);
+        }
+    }
+
+    /** Adds a fresh variable and returns its number. */
+    public int newVariable() {
+        int v = variables + 1;
+        if (v >= assigns.length) {
+            allocate(assigns.length * 2);
+        }
+        variables = v;
+        heap.insert(v);
+        return v;
+    }
+
+    public int getVariableCount() {
+        return variables;
+    }
+
+    /**
+     * Adds a clause. Variables beyond {@link #getVariableCount()} are created on the fly. Adding the empty
+     * clause, or a clause falsified by the top-level assignment, makes the instance unsatisfiable.
+     */
+    public void addClause(int... literals) {
+        if (!ok) return;
+        if (trailLim.size > 0) {
+            cancelUntil(0);
+        }
+
+        int[] lits = new int[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            int v = Math.abs(literals[i]);
+            if (v == 0) {
+                throw new IllegalArgumentException("0 is not a literal");
+            }
+            while (v > variables) {
+                newVariable();
+            }
+            lits[i] = toInternal(literals[i]);
+        }
+        Arrays.sort(lits);
+
+        int size = 0;
+        int previous = -1;
+        for (int lit : lits) {
+            if (lit == previous) continue;
+            if (lit == (previous ^ 1) || litValue(lit) == 1) {
+                return; // tautology or already satisfied
+            }
+            if (litValue(lit) == -1) continue; // false at the top level
+            lits[size++] = previous = lit;
+        }
+
+        if (size == 0) {
+            ok = false;
+        } else if (size == 1) {
+            enqueue(lits[0], -1);
+            ok = propagate() == -1;
+        } else {
+            attach(Arrays.copyOf(lits, size), 0);
+        }
+    }
+
+    /**
+     * Decides satisfiability of the clauses added so far.
+     *
+     * @return true if satisfiable; the model is then available through {@link #value(int)}
+     * @throws com.example.licenta.execution.DeadlineExceededException if the request's deadline passes first;
+     *         the solver is left at level 0 and can be used again
+     */
+    public boolean solve() {
+        return solve(new int[0]);
+    }
+
+    /**
+     * Decides satisfiability of the clauses added so far together with the given literals, which hold for this
+     * call only. They are taken as the first decisions, so every learnt clause follows from the clauses alone
+     * and is kept for the next call: the solver can be asked several related questions in turn, adding
+     * clauses in between, without starting over.
+     *
+     * @param assumptions DIMACS literals assumed true
+     * @return true if satisfiable under the assumptions; the model is then available through {@link #value(int)}
+     * @throws com.example.licenta.execution.DeadlineExceededException if the request's deadline passes first;
+     *         the solver is left at level 0 and can be used again
+     */
+    public boolean solve(int... assumptions) {
+        model = null;
+        if (!ok) return false;
+        int[] assumed = new int[assumptions.length];
+        for (int i = 0; i < assumptions.length; i++) {
+            if (assumptions[i] == 0) {
+                throw new IllegalArgumentException("0 is not a literal");
+            }
+            while (Math.abs(assumptions[i]) > variables) {
+                newVariable();
+            }
+            assumed[i] = toInternal(assumptions[i]);
+        }
+        Deadline deadline = Deadline.current();
+        maxLearnts = Math.max(1000, clauses.size() / 3);
+
+        int restart = 0;
+        long conflictsUntilRestart = luby(restart) * RESTART_UNIT;
+        while (true) {
+            int conflict = propagate();
+            if (conflict != -1) {
+                conflicts++;
+                conflictsUntilRestart--;
+                if ((conflicts & 255) == 0 && deadline != null && deadline.isExpired()) {
+                    cancelUntil(0);
+                    deadline.check();
+                }
+                if (trailLim.size == 0) {
+                    ok = false;
+                    return false;
+                }
+                IntList learnt = new IntList();
+                int backtrackLevel = analyze(conflict, learnt);
+                cancelUntil(backtrackLevel);
+                int[] clause = learnt.toArray();
+                if (clause.length == 1) {
+                    enqueue(clause[0], -1);
+                } else {
+                    int index = attach(clause, lbd(clause));
+                    learnts.add(index);
+                    enqueue(clause[0], index);
+                }
+                varInc /= VAR_DECAY;
+            } else {
+                if (conflictsUntilRestart <= 0) {
+                    cancelUntil(0);
+                    conflictsUntilRestart = luby(++restart) * RESTART_UNIT;
+                }
+                if (learnts.size >= maxLearnts) {
+                    reduceLearnts();
+                }
+                int next = -1;
+                while (next == -1 && decisionLevel() < assumed.length) {
+                    int p = assumed[decisionLevel()];
+                    if (litValue(p) == 1) {
+                        // Already true: an empty level, so that the levels stay aligned with the assumptions
+                        trailLim.add(trailSize);
+                    } else if (litValue(p) == -1) {
+                        // The clauses and the earlier assumptions imply its negation
+                        cancelUntil(0);
+                        return false;
+                    } else {
+                        next = p;
+                    }
+                }
+                if (next == -1) {
+                    next = pickBranchLiteral();
+                }
+                if (next == -1) {
+                    model = new boolean[variables + 1];
+                    for (int v = 1; v <= variables; v++) {
+                        model[v] = assigns[v] > 0;
+                    }
+                    cancelUntil(0);
+                    return true;
+                }
+                decisions++;
+                trailLim.add(trailSize);
+                enqueue(next, -1);
+            }
+        }
+    }
+
+    /** Value of a variable in the model found by the last successful {@link #solve()}. */
+    public boolean value(int variable) {
+        if (model == null) {
+            throw new IllegalStateException("No model available");
+        }
+        return variable < model.length && model[variable];
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    public long getPropagations() {
+        return propagations;
+    }
+
+    // ---- propagation ----
+
+    private int propagate() {
+        while (qhead < trailSize) {
+            int p = trail[qhead++];
+            int falseLit = p ^ 1;
+            IntList ws = watches[falseLit];
+            int[] data = ws.data;
+            int n = ws.size;
+            int i = 0;
+            int j = 0;
+            propagations++;
+            while (i < n) {
+                int index = data[i++];
+                int[] c = clauses.get(index);
+                if (c == null) continue;
+                if (c[0] == falseLit) {
+                    c[0] = c[1];
+                    c[1] = falseLit;
+                }
+                if (litValue(c[0]) == 1) {
+                    data[j++] = index;
+                    continue;
+                }
+                boolean moved = false;
+                for (int k = 2; k < c.length; k++) {
+                    if (litValue(c[k]) != -1) {
+                        c[1] = c[k];
+                        c[k] = falseLit;
+                        watches[c[1]].add(index);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) continue;
+
+                data[j++] = index;
+                if (litValue(c[0]) == -1) {
+                    while (i < n) {
+                        data[j++] = data[i++];
+                    }
+                    ws.size = j;
+                    qhead = trailSize;
+                    return index;
+                }
+                enqueue(c[0], index);
+            }
+            ws.size = j;
+        }
+        return -1;
+    }
+
+    // ---- conflict analysis ----
+
+    /**
+     * Derives the first-UIP clause of a conflict into {@code out}, asserting literal first and a literal of
+     * the backtrack level second, and returns the backtrack level.
+     */
+    private int analyze(int conflict, IntList out) {
+        out.add(-1);
+        int pathCount = 0;
+        int p = -1;
+        int index = trailSize - 1;
+        int current = decisionLevel();
+        int clauseIndex = conflict;
+
+        do {
+            int[] c = clauses.get(clauseIndex);
+            for (int k = p == -1 ? 0 : 1; k < c.length; k++) {
+                int q = c[k];
+                int v = q >> 1;
+                if (!seen[v] && level[v] > 0) {
+                    bumpVariable(v);
+                    seen[v] = true;
+                    if (level[v] >= current) {
+                        pathCount++;
+                    } else {
+                        out.add(q);
+                    }
+                }
+            }
+            while (!seen[trail[index--] >> 1]) ;
+            p = trail[index + 1];
+            clauseIndex = reason[p >> 1];
+            seen[p >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+        out.data[0] = p ^ 1;
+
+        // Drop literals implied by the others (local minimization)
+        int[] derived = out.toArray();
+        int[] lits = out.data;
+        int keep = 1;
+        for (int i = 1; i < derived.length; i++) {
+            int r = reason[derived[i] >> 1];
+            if (r == -1 || !impliedBySeen(clauses.get(r))) {
+                lits[keep++] = derived[i];
+            }
+        }
+        for (int i = 1; i < derived.length; i++) {
+            seen[derived[i] >> 1] = false;
+        }
+        out.size = keep;
+
+        if (keep == 1) {
+            return 0;
+        }
+        int max = 1;
+        for (int i = 2; i < keep; i++) {
+            if (level[lits[i] >> 1] > level[lits[max] >> 1]) max = i;
+        }
+        int swap = lits[1];
+        lits[1] = lits[max];
+        lits[max] = swap;
+        return level[lits[1] >> 1];
+    }
+
+    private boolean impliedBySeen(int[] reasonClause) {
+        for (int k = 1; k < reasonClause.length; k++) {
+            int v = reasonClause[k] >> 1;
+            if (!seen[v] && level[v] > 0) return false;
+        }
+        return true;
+    }
+
+    private int lbd(int[] clause) {
+        int distinct = 0;
+        IntList levels = new IntList();
+        outer:
+        for (int lit : clause) {
+            int l = level[lit >> 1];
+            for (int i = 0; i < levels.size; i++) {
+                if (levels.data[i] == l) continue outer;
+            }
+            levels.add(l);
+            distinct++;
+        }
+        return distinct;
+    }
+
+    // ---- clause database ----
+
+    private int attach(int[] clause, int lbd) {
+        int index = clauses.size();
+        clauses.add(clause);
+        if (index >= clauseLbd.length) {
+            clauseLbd = Arrays.copyOf(clauseLbd, clauseLbd.length * 2);
+        }
+        clauseLbd[index] = lbd;
+        watches[clause[0]].add(index);
+        watches[clause[1]].add(index);
+        return index;
+    }
+
+    /** Deletes the worse half of the learnt clauses, keeping glue clauses and current reasons. */
+    private void reduceLearnts() {
+        Integer[] order = new Integer[learnts.size];
+        for (int i = 0; i < order.length; i++) order[i] = learnts.data[i];
+        Arrays.sort(order, (a, b) -> clauseLbd[b] != clauseLbd[a] ? clauseLbd[b] - clauseLbd[a] : a - b);
+
+        int toDelete = order.length / 2;
+        learnts.size = 0;
+        for (int index : order) {
+            int[] c = clauses.get(index);
+            boolean locked = reason[c[0] >> 1] == index && litValue(c[0]) == 1;
+            if (toDelete > 0 && !locked && clauseLbd[index] > 2) {
+                clauses.set(index, null);
+                toDelete--;
+            } else {
+                learnts.add(index);
+            }
+        }
+        maxLearnts += maxLearnts / 10;
+    }
+
+    // ---- assignment ----
+
+    private int litValue(int lit) {
+        int a = assigns[lit >> 1];
+        return (lit & 1) == 0 ? a : -a;
+    }
+
+    private void enqueue(int lit, int reasonIndex) {
+        int v = lit >> 1;
+        assigns[v] = (byte) ((lit & 1) == 0 ? 1 : -1);
+        level[v] = decisionLevel();
+        reason[v] = reasonIndex;
+        trail[trailSize++] = lit;
+    }
+
+    private int decisionLevel() {
+        return trailLim.size;
+    }
+
+    private void cancelUntil(int target) {
+        if (decisionLevel() <= target) return;
+        int start = trailLim.data[target];
+        for (int i = trailSize - 1; i >= start; i--) {
+            int v = trail[i] >> 1;
+            phase[v] = assigns[v] > 0;
+            assigns[v] = 0;
+            reason[v] = -1;
+            heap.insert(v);
+        }
+        trailSize = start;
+        qhead = start;
+        trailLim.size = target;
+    }
+
+    private int pickBranchLiteral() {
+        while (!heap.isEmpty()) {
+            int v = heap.removeMax();
+            if (assigns[v] == 0) {
+                return phase[v] ? v << 1 : v << 1 | 1;
+            }
+        }
+        return -1;
+    }
+
+    private void bumpVariable(int v) {
+        if ((activity[v] += varInc) > 1e100) {
+            for (int u = 1; u <= variables; u++) {
+                activity[u] *= 1e-100;
+            }
+            varInc *= 1e-100;
+        }
+        heap.increased(v);
+    }
+
+    private static int toInternal(int literal) {
+        return literal > 0 ? literal << 1 : (-literal) << 1 | 1;
+    }
+
+    /** The Luby sequence 1, 1, 2, 1, 1, 2, 4, ... */
+    private static long luby(int x) {
+        int size = 1;
+        int seq = 0;
+        while (size < x + 1) {
+            seq++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != x) {
+            size = (size - 1) >> 1;
+            seq--;
+            x = x % size;
+        }
+        return 1L << seq;
+    }
+
+    private void allocate(int capacity) {
+        int old = assigns == null ? 0 : assigns.length;
+        assigns = assigns == null ? new byte[capacity + 1] : Arrays.copyOf(assigns, capacity + 1);
+        level = level == null ? new int[capacity + 1] : Arrays.copyOf(level, capacity + 1);
+        reason = reason == null ? new int[capacity + 1] : Arrays.copyOf(reason, capacity + 1);
+        phase = phase == null ? new boolean[capacity + 1] : Arrays.copyOf(phase, capacity + 1);
+        seen = seen == null ? new boolean[capacity + 1] : Arrays.copyOf(seen, capacity + 1);
+        activity = activity == null ? new double[capacity + 1] : Arrays.copyOf(activity, capacity + 1);
+        trail = trail == null ? new int[capacity + 1] : Arrays.copyOf(trail, capacity + 1);
+        Arrays.fill(reason, old, capacity + 1, -1);
+        IntList[] grown = new IntList[2 * (capacity + 1)];
+        if (watches != null) {
+            System.arraycopy(watches, 0, grown, 0, watches.length);
+        }
+        for (int i = 0; i < grown.length; i++) {
+            if (grown[i] == null) grown[i] = new IntList();
+        }
+        watches = grown;
+        if (heap == null) {
+            heap = new VarHeap(capacity + 1);
+        } else {
+            heap.grow(capacity + 1);
+        }
+    }
+
+    /** Growable int array. */
+    static final class IntList {
+        int[] data = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /** Binary max-heap of variables ordered by activity. */
+    private final class VarHeap {
+        private int[] heap;
+        private int[] position; // -1 when not in the heap
+        private int size;
+
+        VarHeap(int capacity) {
+            heap = new int[capacity];
+            position = new int[capacity];
+            Arrays.fill(position, -1);
+        }
+
+        void grow(int capacity) {
+            heap = Arrays.copyOf(heap, capacity);
+            int old = position.length;
+            position = Arrays.copyOf(position, capacity);
+            Arrays.fill(position, old, capacity, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void insert(int v) {
+            if (position[v] != -1) return;
+            heap[size] = v;
+            position[v] = size;
+            up(size++);
+        }
+
+        void increased(int v) {
+            if (position[v] != -1) up(position[v]);
+        }
+
+        int removeMax() {
+            int top = heap[0];
+            position[top] = -1;
+            if (--size > 0) {
+                heap[0] = heap[size];
+                position[heap[0]] = 0;
+                down(0);
+            }
+            return top;
+        }
+
+        private void up(int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (activity[heap[parent]] >= activity[v]) break;
+                heap[i] = heap[parent];
+                position[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = v;
+            position[v] = i;
+        }
+
+        private void down(int i) {
+            int v = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && activity[heap[child + 1]] > activity[heap[child]]) child++;
+                if (activity[heap[child]] <= activity[v]) break;
+                heap[i] = heap[child];
+                position[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = v;
+            position[v] = i;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.licenta.sat;
+
+import java.util.Map;
+
+/**
+ * Result of classifying a formula: tautology, contradiction or satisfiable, with a witness for each
+ * possible truth value of the formula.
+ */
+public class Classification {
+    private final Map<String, Boolean> satisfyingAssignment;
+    private final Map<String, Boolean> falsifyingAssignment;
+
+    public Classification(Map<String, Boolean> satisfyingAssignment, Map<String, Boolean> falsifyingAssignment) {
+        this.satisfyingAssignment = satisfyingAssignment;
+        this.falsifyingAssignment = falsifyingAssignment;
+    }
+
+    public boolean isTautology() {
+        return falsifyingAssignment == null;
+    }
+
+    public boolean isContradiction() {
+        return satisfyingAssignment == null;
+    }
+
+    /** An assignment making the formula true, or null for a contradiction. */
+    public Map<String, Boolean> getSatisfyingAssignment() {
+        return satisfyingAssignment;
+    }
+
+    /** An assignment making the formula false, or null for a tautology. */
+    public Map<String, Boolean> getFalsifyingAssignment() {
+        return falsifyingAssignment;
+    }
+}
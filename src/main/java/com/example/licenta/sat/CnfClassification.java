@@ -0,0 +1,40 @@
+package com.example.licenta.sat;
+
+/**
+ * Result of classifying a CNF read from DIMACS. Assignments are DIMACS literals, one per variable in order
+ * ({@code v} for true, {@code -v} for false), which is how SAT solvers report models. They stop at the largest
+ * variable used in a clause; variables only declared by the header are unconstrained.
+ */
+public class CnfClassification {
+    private final Dimacs.Header header;
+    private final int[] satisfyingAssignment;
+    private final int[] falsifyingAssignment;
+
+    public CnfClassification(Dimacs.Header header, int[] satisfyingAssignment, int[] falsifyingAssignment) {
+        this.header = header;
+        this.satisfyingAssignment = satisfyingAssignment;
+        this.falsifyingAssignment = falsifyingAssignment;
+    }
+
+    public Dimacs.Header getHeader() {
+        return header;
+    }
+
+    public boolean isTautology() {
+        return falsifyingAssignment == null;
+    }
+
+    public boolean isContradiction() {
+        return satisfyingAssignment == null;
+    }
+
+    /** An assignment satisfying every clause, or null if the CNF is unsatisfiable. */
+    public int[] getSatisfyingAssignment() {
+        return satisfyingAssignment;
+    }
+
+    /** An assignment falsifying some clause, or null if every clause is trivially true. */
+    public int[] getFalsifyingAssignment() {
+        return falsifyingAssignment;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.licenta.sat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads and writes CNFs in the DIMACS format of SAT solvers and competitions:
+ * <pre>
+ * c 1 A
+ * c 2 B
+ * p cnf 2 2
+ * 1 -2 0
+ * 2 0
+ * </pre>
+ * Variable {@code v >= 1} is the literal {@code v}, its negation {@code -v}, and every clause ends with 0.
+ * Comment lines of the form {@code c <v> <name>} map variable numbers back to names; this class writes one
+ * per variable and reads them back, other comments are ignored.
+ * <p>
+ * Reading scans the raw bytes through a fixed buffer and parses literals in place, without decoding text,
+ * splitting lines or allocating per token, so files of millions of clauses are read at the speed of the
+ * input. Each clause is handed to a {@link ClauseConsumer} in a buffer reused for the next one.
+ */
+public final class Dimacs {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private Dimacs() {
+    }
+
+    /** Receives one clause; {@code literals[0..length)} is only valid during the call. */
+    @FunctionalInterface
+    public interface ClauseConsumer {
+        void clause(int[] literals, int length);
+    }
+
+    /** What a DIMACS file declared and what it actually held. */
+    public static final class Header {
+        private final int declaredVariables;
+        private final long declaredClauses;
+        private final int maxVariable;
+        private final long clauses;
+        private final Map<Integer, String> names;
+
+        Header(int declaredVariables, long declaredClauses, int maxVariable, long clauses, Map<Integer, String> names) {
+            this.declaredVariables = declaredVariables;
+            this.declaredClauses = declaredClauses;
+            this.maxVariable = maxVariable;
+            this.clauses = clauses;
+            this.names = names;
+        }
+
+        /** From the {@code p cnf} line, 0 without one. */
+        public int getDeclaredVariables() {
+            return declaredVariables;
+        }
+
+        /** From the {@code p cnf} line, 0 without one. */
+        public long getDeclaredClauses() {
+            return declaredClauses;
+        }
+
+        /** Number of variables: the larger of the declared count and the largest variable used. */
+        public int getVariableCount() {
+            return Math.max(declaredVariables, maxVariable);
+        }
+
+        /** The largest variable occurring in a clause, 0 without literals. */
+        public int getMaxVariable() {
+            return maxVariable;
+        }
+
+        /** Number of clauses read. */
+        public long getClauseCount() {
+            return clauses;
+        }
+
+        /** Variable names from the comment lines, by variable number. */
+        public Map<Integer, String> getNames() {
+            return names;
+        }
+
+        /** The name of a variable, or {@code x<v>} if the file did not name it. */
+        public String getName(int variable) {
+            String name = names.get(variable);
+            return name == null ? "x" + variable : name;
+        }
+    }
+
+    /**
+     * Writes a CNF: one comment line per variable name, the {@code p cnf} line, then one line per clause.
+     *
+     * @param names       the variable names, variable v at index v - 1
+     * @param clauseCount the number of clauses {@code clauses} will yield, for the {@code p cnf} line
+     * @param clauses     clauses of DIMACS literals
+     */
+    public static void write(List<String> names, long clauseCount, Iterator<int[]> clauses, Writer out)
+            throws IOException {
+        for (int v = 1; v <= names.size(); v++) {
+            out.write("c " + v + " " + names.get(v - 1) + "\n");
+        }
+        out.write("p cnf " + names.size() + " " + clauseCount + "\n");
+        while (clauses.hasNext()) {
+            for (int literal : clauses.next()) {
+                out.write(Integer.toString(literal));
+                out.write(' ');
+            }
+            out.write("0\n");
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a CNF, passing each clause to {@code consumer} as soon as its terminating 0 is read (a last clause
+     * without it is accepted at the end of the input). A {@code %} line, as found at the end of some benchmark
+     * files, ends the input.
+     *
+     * @throws IllegalArgumentException if the input is not DIMACS CNF
+     */
+    public static Header read(InputStream in, ClauseConsumer consumer) throws IOException {
+        return read(in, Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Same as {@link #read(InputStream, ClauseConsumer)}, rejecting a declared variable count or a variable
+     * above {@code maxVariables} as soon as it is read, before anything is sized from it.
+     *
+     * @throws IllegalArgumentException if the input is not DIMACS CNF or has too many variables
+     */
+    public static Header read(InputStream in, int maxVariables, ClauseConsumer consumer) throws IOException {
+        return new Scanner(in, maxVariables).read(consumer);
+    }
+
+    /** Converts a literal code of {@link com.example.licenta.normalForm.ClauseSet} (2v, 2v + 1) to DIMACS. */
+    public static int toDimacs(int code) {
+        int variable = (code >> 1) + 1;
+        return (code & 1) != 0 ? -variable : variable;
+    }
+
+    /** Converts a DIMACS literal to a {@link com.example.licenta.normalForm.ClauseSet} literal code. */
+    public static int toCode(int literal) {
+        return literal < 0 ? (-literal - 1) << 1 | 1 : (literal - 1) << 1;
+    }
+
+    private static final class Scanner {
+        private final InputStream in;
+        private final int maxVariables;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int pos;
+        private int limit;
+        private long line = 1;
+
+        Scanner(InputStream in, int maxVariables) {
+            this.in = in;
+            this.maxVariables = maxVariables;
+        }
+
+        // The next byte, or -1 at the end of the input
+        private int read() throws IOException {
+            if (pos == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                pos = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[pos++] & 0xFF;
+        }
+
+        Header read(ClauseConsumer consumer) throws IOException {
+            int declaredVariables = 0;
+            long declaredClauses = 0;
+            boolean header = false;
+            int maxVariable = 0;
+            long clauses = 0;
+            Map<Integer, String> names = new HashMap<>();
+            int[] literals = new int[64];
+            int length = 0;
+
+            int c = read();
+            while (c != -1) {
+                if (c == '\n') {
+                    line++;
+                    c = read();
+                } else if (c == ' ' || c == '\t' || c == '\r') {
+                    c = read();
+                } else if (c == 'c') {
+                    c = comment(names);
+                } else if (c == 'p') {
+                    if (header) {
+                        throw error("Second 'p' line");
+                    }
+                    header = true;
+                    String[] fields = restOfLine().trim().split("\\s+");
+                    if (fields.length != 3 || !fields[0].equals("cnf")) {
+                        throw error("Expected 'p cnf <variables> <clauses>'");
+                    }
+                    try {
+                        declaredVariables = Integer.parseInt(fields[1]);
+                        declaredClauses = Long.parseLong(fields[2]);
+                    } catch (NumberFormatException e) {
+                        throw error("Expected 'p cnf <variables> <clauses>'");
+                    }
+                    if (declaredVariables < 0 || declaredClauses < 0) {
+                        throw error("Negative count in 'p cnf' line");
+                    }
+                    if (declaredVariables > maxVariables) {
+                        throw error("Too many variables: " + declaredVariables + " (at most " + maxVariables + ")");
+                    }
+                    c = '\n';
+                } else if (c == '%') {
+                    break;
+                } else if (c == '-' || c >= '0' && c <= '9') {
+                    boolean negative = c == '-';
+                    if (negative) {
+                        c = read();
+                    }
+                    if (c < '0' || c > '9') {
+                        throw error("Expected a literal");
+                    }
+                    long value = 0;
+                    while (c >= '0' && c <= '9') {
+                        value = value * 10 + (c - '0');
+                        if (value > Integer.MAX_VALUE) {
+                            throw error("Literal out of range");
+                        }
+                        c = read();
+                    }
+                    if (c != -1 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                        throw error("Expected a literal");
+                    }
+                    if (value == 0) {
+                        consumer.clause(literals, length);
+                        clauses++;
+                        length = 0;
+                    } else {
+                        if (length == literals.length) {
+                            literals = Arrays.copyOf(literals, length * 2);
+                        }
+                        if (value > maxVariables) {
+                            throw error("Too many variables: " + value + " (at most " + maxVariables + ")");
+                        }
+                        literals[length++] = negative ? (int) -value : (int) value;
+                        maxVariable = Math.max(maxVariable, (int) value);
+                    }
+                } else {
+                    throw error("Unexpected character '" + (char) (c & 0xFF) + "'");
+                }
+            }
+            if (length > 0) {
+                consumer.clause(literals, length);
+                clauses++;
+            }
+            return new Header(declaredVariables, declaredClauses, maxVariable, clauses, names);
+        }
+
+        // Skips a comment line, keeping "c <v> <name>" as a name; returns the byte after it
+        private int comment(Map<Integer, String> names) throws IOException {
+            String[] fields = restOfLine().trim().split("\\s+");
+            if (fields.length == 2 && !fields[0].isEmpty() && fields[0].chars().allMatch(Character::isDigit)) {
+                try {
+                    names.putIfAbsent(Integer.parseInt(fields[0]), fields[1]);
+                } catch (NumberFormatException ignored) {
+                    // An ordinary comment, not a name
+                }
+            }
+            return '\n';
+        }
+
+        // The bytes up to the end of the line, decoded; only used for the few header and comment lines
+        private String restOfLine() throws IOException {
+            byte[] text = new byte[64];
+            int length = 0;
+            int c = read();
+            while (c != -1 && c != '\n') {
+                if (length == text.length) {
+                    text = Arrays.copyOf(text, length * 2);
+                }
+                text[length++] = (byte) c;
+                c = read();
+            }
+            return new String(text, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid DIMACS at line " + line + ": " + message);
+        }
+    }
+}
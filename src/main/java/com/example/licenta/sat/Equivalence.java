@@ -0,0 +1,50 @@
+package com.example.licenta.sat;
+
+import java.util.Map;
+
+/**
+ * Result of comparing two formulas F1 and F2: equivalent, or a counterexample on which they differ, together
+ * with which of the two entailments F1 ⊨ F2 and F2 ⊨ F1 still hold.
+ */
+public class Equivalence {
+    private final Map<String, Boolean> counterexample;
+    private final boolean firstValue;
+    private final boolean firstImpliesSecond;
+    private final boolean secondImpliesFirst;
+
+    public Equivalence(Map<String, Boolean> counterexample, boolean firstValue,
+                       boolean firstImpliesSecond, boolean secondImpliesFirst) {
+        this.counterexample = counterexample;
+        this.firstValue = firstValue;
+        this.firstImpliesSecond = firstImpliesSecond;
+        this.secondImpliesFirst = secondImpliesFirst;
+    }
+
+    public static Equivalence equivalent() {
+        return new Equivalence(null, false, true, true);
+    }
+
+    public boolean isEquivalent() {
+        return counterexample == null;
+    }
+
+    /** An assignment of the variables of both formulas on which they differ, or null if they are equivalent. */
+    public Map<String, Boolean> getCounterexample() {
+        return counterexample;
+    }
+
+    /** Value of F1 on the counterexample; F2 takes the other value. */
+    public boolean getFirstValue() {
+        return firstValue;
+    }
+
+    /** True if every model of F1 is a model of F2. */
+    public boolean isFirstImpliesSecond() {
+        return firstImpliesSecond;
+    }
+
+    /** True if every model of F2 is a model of F1. */
+    public boolean isSecondImpliesFirst() {
+        return secondImpliesFirst;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.licenta.sat;
+
+import com.example.licenta.normalForm.CnfEncoding;
+import com.example.licenta.normalForm.Node;
+import com.example.licenta.normalForm.NodeFactory;
+import com.example.licenta.normalForm.TseitinTransformer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classifies formulas with two SAT calls instead of a truth table: F is a contradiction if F is
+ * unsatisfiable and a tautology if ¬F is unsatisfiable. Each satisfiable call yields a witness assignment.
+ * Two formulas are compared the same way, through the satisfiability of F1 ⊕ F2.
+ */
+@Service
+public class SatClassifier {
+
+    @Autowired
+    private TseitinTransformer tseitinTransformer;
+
+    public Classification classify(Node formula) {
+        return new Classification(findModel(formula), findModel(NodeFactory.not(formula)));
+    }
+
+    /**
+     * Returns an assignment of the formula's variables that makes it true, or null if there is none.
+     */
+    public Map<String, Boolean> findModel(Node formula) {
+        // Plaisted–Greenbaum is enough: every model of the clauses, restricted to the original variables,
+        // satisfies the formula
+        CnfEncoding cnf = tseitinTransformer.toCnf(formula, true);
+        CdclSolver solver = new CdclSolver(cnf.getVariableCount());
+        for (int[] clause : cnf.getClauses()) {
+            solver.addClause(clause);
+        }
+        if (!solver.solve()) {
+            return null;
+        }
+        Map<String, Boolean> model = new LinkedHashMap<>();
+        for (int v = 1; v <= cnf.getOriginalVariableCount(); v++) {
+            model.put(cnf.getName(v), solver.value(v));
+        }
+        return model;
+    }
+
+    /**
+     * Compares two formulas through their miter F1 ⊕ F2, which is unsatisfiable exactly when they are
+     * equivalent; a model of it is a counterexample. Both formulas are encoded once, over their shared
+     * variables, into one solver. When the miter is satisfiable the model refutes one entailment, and a second
+     * call under assumptions, reusing the clauses learnt by the first, decides the other one.
+     */
+    public Equivalence compare(Node first, Node second) {
+        if (first == second) {
+            // The trees are hash-consed: the same formula
+            return Equivalence.equivalent();
+        }
+        Node iff = NodeFactory.iff(first, second);
+        CnfEncoding cnf = tseitinTransformer.toCnf(NodeFactory.not(iff), true);
+        // The operands of ↔ are encoded in both polarities, so their literals are equivalent to F1 and F2
+        int[] operands = null;
+        for (CnfEncoding.Definition definition : cnf.getDefinitions()) {
+            if (definition.getSubformula() == iff) {
+                operands = definition.getOperands();
+            }
+        }
+        int a = operands[0];
+        int b = operands[1];
+
+        CdclSolver solver = new CdclSolver(cnf.getVariableCount());
+        for (int[] clause : cnf.getClauses()) {
+            solver.addClause(clause);
+        }
+        if (!solver.solve()) {
+            return Equivalence.equivalent();
+        }
+        Map<String, Boolean> counterexample = new LinkedHashMap<>();
+        for (int v = 1; v <= cnf.getOriginalVariableCount(); v++) {
+            counterexample.put(cnf.getName(v), solver.value(v));
+        }
+        boolean firstValue = solver.value(Math.abs(a)) == a > 0;
+        // F1 true and F2 false refutes F1 ⊨ F2; ask whether ¬F1 ∧ F2 refutes F2 ⊨ F1 too, and vice versa
+        boolean otherWay = firstValue ? solver.solve(-a, b) : solver.solve(a, -b);
+        return new Equivalence(counterexample, firstValue, !firstValue && !otherWay, firstValue && !otherWay);
+    }
+
+    /**
+     * Classifies a CNF given in DIMACS. The clauses go from the byte scanner straight into the solver, without
+     * building a formula. A CNF is a tautology only if every clause contains a literal and its negation;
+     * otherwise making all literals of a non-trivial clause false falsifies it.
+     *
+     * @throws IllegalArgumentException if the input is not DIMACS CNF
+     */
+    public CnfClassification classify(InputStream dimacs) throws IOException {
+        return classify(dimacs, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #classify(InputStream)}, rejecting CNFs declaring or using more than {@code maxVariables}
+     * variables. The assignments cover the variables up to the largest one used, whatever the header declares.
+     *
+     * @throws IllegalArgumentException if the input is not DIMACS CNF or has too many variables
+     */
+    public CnfClassification classify(InputStream dimacs, int maxVariables) throws IOException {
+        CdclSolver solver = new CdclSolver();
+        int[][] falsified = {null};
+        // stamp[v] = the clause in which v last appeared, with the sign of the literal
+        int[][] stamp = {new int[1024]};
+        long[] index = {0};
+        Dimacs.Header header = Dimacs.read(dimacs, maxVariables, (literals, length) -> {
+            int clause = (int) ++index[0];
+            boolean trivial = false;
+            for (int i = 0; i < length && !trivial; i++) {
+                int v = Math.abs(literals[i]);
+                if (v >= stamp[0].length) {
+                    stamp[0] = Arrays.copyOf(stamp[0], Math.max(v + 1, stamp[0].length * 2));
+                }
+                int mark = literals[i] > 0 ? clause : -clause;
+                trivial = stamp[0][v] == -mark;
+                stamp[0][v] = mark;
+            }
+            if (!trivial && falsified[0] == null) {
+                falsified[0] = Arrays.copyOf(literals, length);
+            }
+            solver.addClause(Arrays.copyOf(literals, length));
+        });
+
+        int n = header.getMaxVariable();
+        int[] satisfying = null;
+        if (solver.solve()) {
+            satisfying = new int[n];
+            for (int v = 1; v <= n; v++) {
+                satisfying[v - 1] = solver.value(v) ? v : -v;
+            }
+        }
+        int[] falsifying = null;
+        if (falsified[0] != null) {
+            falsifying = new int[n];
+            for (int v = 1; v <= n; v++) {
+                falsifying[v - 1] = -v;
+            }
+            for (int literal : falsified[0]) {
+                int v = Math.abs(literal);
+                falsifying[v - 1] = literal > 0 ? -v : v;
+            }
+        }
+        return new CnfClassification(header, satisfying, falsifying);
+    }
+}
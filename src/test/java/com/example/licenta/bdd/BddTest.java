@@ -0,0 +1,71 @@
+package com.example.licenta.bdd;
+
+import com.example.licenta.logic.CompiledFormula;
+import com.example.licenta.logic.PackedTruthTable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BddTest {
+
+    @Test
+    void equivalentFormulasShareTheirNode() {
+        CompiledFormula deMorgan1 = CompiledFormula.compile("¬(A∧B)");
+        CompiledFormula deMorgan2 = CompiledFormula.compile("¬A∨¬B");
+        CompiledFormula implication = CompiledFormula.compile("A→B");
+        Bdd bdd = new Bdd(List.of("A", "B"));
+        assertEquals(bdd.build(deMorgan1), bdd.build(deMorgan2));
+        assertNotEquals(bdd.build(deMorgan1), bdd.build(implication));
+        assertEquals(Bdd.TRUE, bdd.build(CompiledFormula.compile("(A→B)↔(¬B→¬A)")));
+        assertEquals(Bdd.FALSE, bdd.build(CompiledFormula.compile("A∧¬A")));
+    }
+
+    @Test
+    void modelCountMatchesTruthTable() {
+        Random random = new Random(7);
+        String[] names = {"A", "B", "C", "D", "E", "F"};
+        for (int round = 0; round < 200; round++) {
+            String formula = randomFormula(random, names, 4);
+            CompiledFormula compiled = CompiledFormula.compile(formula, List.of(names));
+            Bdd bdd = new Bdd(List.of("C", "A", "F", "B", "E", "D"));
+            int node = bdd.build(compiled);
+
+            long expected = PackedTruthTable.generate(compiled).cardinality(compiled.getRoot());
+            assertEquals(BigInteger.valueOf(expected), bdd.satCount(node), formula);
+
+            Map<String, Boolean> model = bdd.anySat(node, true);
+            assertEquals(expected == 0, model == null, formula);
+            if (model != null) {
+                long row = 0;
+                for (int j = 0; j < names.length; j++) {
+                    row = row << 1 | (model.get(names[j]) ? 1 : 0);
+                }
+                assertTrue(compiled.evaluate(row), formula);
+            }
+        }
+    }
+
+    @Test
+    void nodeLimitIsEnforced() {
+        Bdd bdd = new Bdd(List.of("A", "B", "C", "D"), 4);
+        assertThrows(IllegalStateException.class,
+                () -> bdd.build(CompiledFormula.compile("(A↔B)↔(C↔D)")));
+    }
+
+    private static String randomFormula(Random random, String[] names, int depth) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            return names[random.nextInt(names.length)];
+        }
+        String[] ops = {"∧", "∨", "→", "↔"};
+        if (random.nextInt(5) == 0) {
+            return "¬(" + randomFormula(random, names, depth - 1) + ")";
+        }
+        return "(" + randomFormula(random, names, depth - 1) + ops[random.nextInt(ops.length)]
+                + randomFormula(random, names, depth - 1) + ")";
+    }
+}
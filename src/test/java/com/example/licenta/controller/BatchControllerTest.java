@@ -0,0 +1,78 @@
+package com.example.licenta.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "batch.max-items=6")
+@AutoConfigureMockMvc
+class BatchControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void failingItemsDoNotFailTheOthers() throws Exception {
+        mvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"items": [
+                                  {"operation": "classify", "formula": "a ∨ ¬a"},
+                                  {"operation": "classify", "formula": "a ∧ ∨ b"},
+                                  {"operation": "rotate", "formula": "a"},
+                                  null,
+                                  {"operation": "truth-table", "formula": "a → b"},
+                                  {"operation": "transform", "formula": "a ↔ b", "mode": "nonsense"}
+                                ]}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(6))
+                .andExpect(jsonPath("$.failed").value(4))
+
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].status").value("ok"))
+                .andExpect(jsonPath("$.results[0].result.classification").value("Tautologie"))
+
+                .andExpect(jsonPath("$.results[1].status").value("error"))
+                .andExpect(jsonPath("$.results[1].operation").value("classify"))
+                .andExpect(jsonPath("$.results[1].error").exists())
+
+                .andExpect(jsonPath("$.results[2].status").value("error"))
+                .andExpect(jsonPath("$.results[2].error").value(startsWith("Unknown operation: rotate")))
+
+                .andExpect(jsonPath("$.results[3].status").value("error"))
+                .andExpect(jsonPath("$.results[3].error").value("Item is required"))
+
+                .andExpect(jsonPath("$.results[4].index").value(4))
+                .andExpect(jsonPath("$.results[4].status").value("ok"))
+                .andExpect(jsonPath("$.results[4].result.table.length()").value(4))
+
+                .andExpect(jsonPath("$.results[5].index").value(5))
+                .andExpect(jsonPath("$.results[5].status").value("error"));
+    }
+
+    @Test
+    void refusesEmptyAndOversizedBatches() throws Exception {
+        mvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Items are required"));
+
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            items.append(i > 0 ? "," : "").append("{\"operation\": \"validate\", \"formula\": \"a\"}");
+        }
+        mvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": [" + items + "]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Too many items: 7 (at most 6)"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.licenta.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "execution.max-concurrent=2")
+@AutoConfigureMockMvc
+class DimacsUploadTest {
+
+    private static final String CNF = "c 1 A\nc 2 B\np cnf 2 3\n1 2 0\n1 2 -2 0\n-1 0\n";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void uploadsGiveTheirPermitBack() throws Exception {
+        // Every upload answers asynchronously; six of them on two permits
+        for (int i = 0; i < 3; i++) {
+            MvcResult started = mvc.perform(post("/api/normal-form/dimacs/upload")
+                            .param("operation", "formula")
+                            .contentType(MediaType.TEXT_PLAIN)
+                            .content(CNF))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().bytes("(A ∨ B) ∧ ¬A\n".getBytes(StandardCharsets.UTF_8)));
+
+            started = mvc.perform(post("/api/normal-form/dimacs/upload")
+                            .contentType(MediaType.TEXT_PLAIN)
+                            .content(CNF))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.satisfiable").value(true))
+                    .andExpect(jsonPath("$.satisfyingAssignment[0]").value(-1));
+        }
+
+        mvc.perform(post("/api/formula/classify")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"formula\": \"A ∨ ¬A\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.classification").value("Tautologie"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.licenta.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "truth-table.max-variables=8")
+@AutoConfigureMockMvc
+class FormulaControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void refusesTablesOverTheVariableLimitInEveryFormat() throws Exception {
+        for (String options : new String[]{"", ", \"evaluation\": \"gray\"", ", \"format\": \"columnar\""}) {
+            mvc.perform(truthTable("{\"formula\": \"a ∧ b ∧ c ∧ d ∧ e ∧ f ∧ g ∧ h ∧ i\"" + options + "}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Truth table too large"));
+            mvc.perform(truthTable("{\"formula\": \"a ∧ b ∧ c ∧ d ∧ e ∧ f ∧ g ∧ h\"" + options + "}"))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void streamsTheSameRowsAsTheWholeTable() throws Exception {
+        String body = "{\"formula\": \"(a → b) ∧ ¬(c ∨ a)\"}";
+        Map<String, Object> whole = objectMapper.readValue(mvc.perform(truthTable(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8), new TypeReference<>() {
+        });
+
+        MvcResult started = mvc.perform(post("/api/formula/truth-table/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] lines = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+
+        Map<String, Object> header = objectMapper.readValue(lines[0], new TypeReference<>() {
+        });
+        assertEquals(whole.get("formula"), header.get("formula"));
+        assertEquals(whole.get("variables"), header.get("variables"));
+        assertEquals(whole.get("headers"), header.get("headers"));
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (int i = 1; i < lines.length; i++) {
+            rows.add(objectMapper.readValue(lines[i], new TypeReference<>() {
+            }));
+        }
+        assertEquals(whole.get("table"), rows);
+    }
+
+    @Test
+    void columnsHoldTheSameValuesAsTheRows() throws Exception {
+        String formula = "(a ∧ (b ∨ c)) ↔ ((d → e) ∧ ¬(f ∨ g ∨ h))";
+        Map<String, Object> whole = read(mvc.perform(truthTable("{\"formula\": \"" + formula + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn());
+        Map<String, Object> columnar = read(mvc.perform(truthTable("{\"formula\": \"" + formula
+                        + "\", \"format\": \"columnar\"}"))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, String>> table = (List<Map<String, String>>) whole.get("table");
+        @SuppressWarnings("unchecked")
+        List<String> headers = (List<String>) columnar.get("headers");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> columns = (List<Map<String, Object>>) columnar.get("columns");
+        assertEquals(whole.get("headers"), headers);
+        assertEquals(table.size(), ((Number) columnar.get("rowCount")).intValue());
+
+        Set<Object> encodings = new HashSet<>();
+        for (int k = 0; k < headers.size(); k++) {
+            encodings.add(columns.get(k).get("encoding"));
+            boolean[] values = decode(columns.get(k), table.size());
+            for (int row = 0; row < table.size(); row++) {
+                assertEquals(table.get(row).get(headers.get(k)), values[row] ? "1" : "0",
+                        headers.get(k) + ", row " + row);
+            }
+        }
+        assertEquals(Set.of("rle", "bitset"), encodings);
+    }
+
+    @Test
+    void answersEquivalenceWithoutStatisticsWhenTheirBddIsTooLarge() throws Exception {
+        // x1∧y1 ∨ … ∨ x20∧y20 with every x before every y: about 2^20 BDD nodes
+        StringBuilder formula = new StringBuilder();
+        StringBuilder xs = new StringBuilder();
+        StringBuilder ys = new StringBuilder();
+        for (int i = 1; i <= 20; i++) {
+            formula.append(i > 1 ? " ∨ " : "").append("x").append(i).append(" ∧ y").append(i);
+            xs.append("x").append(i).append(',');
+            ys.append(i > 1 ? "," : "").append("y").append(i);
+        }
+        mvc.perform(equivalence("{\"formula1\": \"" + formula + "\", \"formula2\": \"" + formula
+                        + " ∨ (x1 ∧ ¬x1)\", \"order\": \"" + xs + ys + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.equivalent").value(true))
+                .andExpect(jsonPath("$.bddSkipped").exists())
+                .andExpect(jsonPath("$.modelCount1").doesNotExist());
+    }
+
+    @Test
+    void acceptsOnlyTheFormulasVariablesInTheOrder() throws Exception {
+        mvc.perform(equivalence("{\"formula1\": \"a ∨ b\", \"formula2\": \"b ∨ a\", \"order\": \"b, a, z\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown variable in order"))
+                .andExpect(jsonPath("$.variable").value("z"));
+        mvc.perform(equivalence("{\"formula1\": \"a ∨ b\", \"formula2\": \"c\", \"order\": \"c, b\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.variableOrder[0]").value("c"))
+                .andExpect(jsonPath("$.variableOrder[1]").value("b"))
+                .andExpect(jsonPath("$.variableOrder[2]").value("a"))
+                .andExpect(jsonPath("$.modelCount1").value(6))
+                .andExpect(jsonPath("$.modelCount2").value(4));
+    }
+
+    private Map<String, Object> read(MvcResult result) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsString(StandardCharsets.UTF_8),
+                new TypeReference<>() {
+                });
+    }
+
+    // Reverses ColumnEncoder: a base64 bitset (row r is bit r % 8 of byte r / 8) or runs from a first value
+    @SuppressWarnings("unchecked")
+    private static boolean[] decode(Map<String, Object> column, int rows) {
+        boolean[] values = new boolean[rows];
+        if ("bitset".equals(column.get("encoding"))) {
+            byte[] bytes = Base64.getDecoder().decode((String) column.get("data"));
+            for (int row = 0; row < rows; row++) {
+                values[row] = (bytes[row / 8] >> (row % 8) & 1) != 0;
+            }
+        } else {
+            boolean value = "1".equals(column.get("first"));
+            int row = 0;
+            for (Number run : (List<Number>) column.get("runs")) {
+                for (int i = 0; i < run.intValue(); i++) {
+                    values[row++] = value;
+                }
+                value = !value;
+            }
+            assertEquals(rows, row);
+        }
+        return values;
+    }
+
+    private static MockHttpServletRequestBuilder truthTable(String body) {
+        return post("/api/formula/truth-table").contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+
+    private static MockHttpServletRequestBuilder equivalence(String body) {
+        return post("/api/formula/equivalence").contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.licenta.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class DeadlineInterceptorTest {
+
+    private final MockMvc mvc;
+
+    DeadlineInterceptorTest() {
+        // One permit: any permit that is not given back blocks every later request
+        DeadlineInterceptor interceptor = new DeadlineInterceptor(Duration.ofSeconds(5), Duration.ofSeconds(5), 1,
+                Duration.ofMillis(10));
+        ReflectionTestUtils.setField(interceptor, "objectMapper", new ObjectMapper());
+        mvc = MockMvcBuilders.standaloneSetup(new TestController())
+                .setControllerAdvice(new DeadlineExceptionHandler())
+                .addInterceptors(interceptor)
+                .build();
+    }
+
+    @Test
+    void answersAnExpiredDeadlineWith503AndProgress() throws Exception {
+        mvc.perform(get("/slow").header(DeadlineInterceptor.TIMEOUT_HEADER, "20"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("Deadline exceeded"))
+                .andExpect(jsonPath("$.timeoutMs").value(20))
+                .andExpect(jsonPath("$.progress.stage").value("spin"));
+        mvc.perform(get("/ok")).andExpect(status().isOk());
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void releasesThePermitWhenTheHandlerFails() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(Exception.class, () -> mvc.perform(get("/fail")));
+        }
+        assertDoesNotThrow(() -> mvc.perform(get("/ok")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void holdsOnePermitPerAsynchronousResponse() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MvcResult started = mvc.perform(get("/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            // The request thread is free again and must not keep the deadline
+            assertNull(Deadline.current());
+            mvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("streamed"));
+        }
+        mvc.perform(get("/ok")).andExpect(status().isOk());
+    }
+
+    @RestController
+    static class TestController {
+
+        @GetMapping("/ok")
+        String ok() {
+            return "ok";
+        }
+
+        @GetMapping("/slow")
+        String slow() {
+            Deadline.current().stage("spin", 0);
+            while (true) {
+                Deadline.checkpoint();
+                Thread.onSpinWait();
+            }
+        }
+
+        @GetMapping("/fail")
+        String fail() {
+            throw new IllegalStateException("failed");
+        }
+
+        @GetMapping("/stream")
+        StreamingResponseBody stream() {
+            return out -> out.write("streamed".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.licenta.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledFormulaTest {
+
+    @Test
+    void evaluatesRowsInTruthTableOrder() {
+        CompiledFormula f = CompiledFormula.compile("(A→B)");
+        assertEquals(List.of("A", "B"), f.getVariables());
+        // row = AB, A is the most significant bit
+        assertTrue(f.evaluate(0b00));
+        assertTrue(f.evaluate(0b01));
+        assertFalse(f.evaluate(0b10));
+        assertTrue(f.evaluate(0b11));
+    }
+
+    @Test
+    void negationBindsTighterThanBinaryOperators() {
+        CompiledFormula f = CompiledFormula.compile("¬A∨B");
+        assertTrue(f.evaluate(0b00));
+        assertFalse(f.evaluate(0b10));
+    }
+
+    @Test
+    void acceptsAsciiSpellings() {
+        CompiledFormula unicode = CompiledFormula.compile("((A∧¬B)↔(C→A))");
+        CompiledFormula ascii = CompiledFormula.compile("((A & !B) <-> (C -> A))");
+        for (long row = 0; row < unicode.getRowCount(); row++) {
+            assertEquals(unicode.evaluate(row), ascii.evaluate(row));
+        }
+    }
+
+    @Test
+    void sharesIdenticalSubformulas() {
+        CompiledFormula f = CompiledFormula.compile("((A∧B)∨(A∧B))");
+        assertEquals(4, f.size());
+        assertEquals(f.nodeOf("(A∧B)"), f.left(f.getRoot()));
+        assertEquals(f.getRoot(), f.nodeOf("((A∧B)∨(A∧B))"));
+    }
+
+    @Test
+    void subformulaDagOrdersColumnsChildrenFirst() {
+        ParsedFormula parsed = ParsedFormula.parse("((P→Q)∧(¬Q∨P))↔(P→Q)");
+        assertEquals(List.of("P", "Q", "(P→Q)", "(¬Q∨P)", "((P→Q)∧(¬Q∨P))", "((P→Q)∧(¬Q∨P))↔(P→Q)"),
+                parsed.getHeaders());
+        assertEquals(List.of("P", "Q", "(P→Q)", "(¬Q∨P)", "((P→Q)∧(¬Q∨P))"), parsed.getSubformulas());
+
+        SubformulaDag dag = parsed.getCompiled().getSubformulaDag();
+        int[] ids = dag.getColumnIds();
+        for (int k = 1; k < ids.length; k++) {
+            assertTrue(ids[k - 1] < ids[k]);
+        }
+        for (int id = 0; id < dag.size(); id++) {
+            assertTrue(dag.left(id) < id && dag.right(id) < id);
+        }
+        assertEquals(dag.getRoot(), ids[ids.length - 1]);
+    }
+
+    @Test
+    void evaluateAllMatchesSingleNodeEvaluation() {
+        CompiledFormula f = CompiledFormula.compile("((P→Q)∧(¬Q∨R))↔P");
+        boolean[] values = new boolean[f.size()];
+        for (long row = 0; row < f.getRowCount(); row++) {
+            f.evaluateAll(row, values);
+            for (int node = 0; node < f.size(); node++) {
+                assertEquals(f.evaluate(node, row), values[node]);
+            }
+        }
+    }
+
+    @Test
+    void rejectsMalformedFormulas() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledFormula.compile("(A∧"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledFormula.compile("A B"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledFormula.compile("A∧C", List.of("A", "B")));
+    }
+
+    @Test
+    void packedColumnsMatchScalarEvaluation() {
+        for (String formula : new String[]{"(A∧B)", "((A→B)↔(¬C∨D))∧(E∨¬F)∧G"}) {
+            CompiledFormula f = CompiledFormula.compile(formula);
+            PackedTruthTable table = PackedTruthTable.generate(f);
+            for (long row = 0; row < f.getRowCount(); row++) {
+                for (int node = 0; node < f.size(); node++) {
+                    assertEquals(f.evaluate(node, row), table.get(node, row));
+                }
+            }
+        }
+        // bits past the last row stay clear
+        CompiledFormula negation = CompiledFormula.compile("¬A");
+        assertEquals(0b01L, PackedTruthTable.generate(negation).column(negation.getRoot())[0]);
+    }
+
+    @Test
+    void parallelColumnsMatchSequentialColumns() {
+        CompiledFormula f = CompiledFormula.compile("((A→B)↔(¬C∨D))∧(E∨¬F)∧(G↔(H∧¬I))∨(J∧K∧¬L)");
+        PackedTruthTable sequential = PackedTruthTable.generate(f);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PackedTruthTable parallel = PackedTruthTable.generate(f, pool, 64);
+            for (int node = 0; node < f.size(); node++) {
+                assertArrayEquals(sequential.column(node), parallel.column(node));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void canonicalFormsListTrueAndFalseRows() throws Exception {
+        CompiledFormula formula = CompiledFormula.compile("(a→b)∧c");
+        StringWriter dnf = new StringWriter();
+        assertEquals(3, CanonicalForms.write(formula, false, dnf));
+        assertEquals("""
+                {"index":1,"term":"¬a ∧ ¬b ∧ c"}
+                {"index":3,"term":"¬a ∧ b ∧ c"}
+                {"index":7,"term":"a ∧ b ∧ c"}
+                {"count":3}
+                """, dnf.toString());
+
+        StringWriter cnf = new StringWriter();
+        assertEquals(5, CanonicalForms.write(formula, true, cnf));
+        assertTrue(cnf.toString().startsWith("{\"index\":0,\"term\":\"a ∨ b ∨ c\"}\n{\"index\":2,"));
+
+        // 7 variables: rows span two words
+        CompiledFormula wide = CompiledFormula.compile("a∧b∧c∧d∧e∧f∧g∨¬a∧¬b∧¬c∧¬d∧¬e∧¬f∧¬g");
+        StringWriter both = new StringWriter();
+        assertEquals(2, CanonicalForms.write(wide, false, both));
+        assertTrue(both.toString().contains("{\"index\":127,"));
+    }
+
+    @Test
+    void grayCodeWalkMatchesFullEvaluation() {
+        CompiledFormula formula = CompiledFormula.compile("((a∧b)→(c∨¬d)) ↔ ((e∨1)∧(a↔f)) ∨ ¬(b∧g)");
+        GrayCodeEvaluator evaluator = new GrayCodeEvaluator(formula);
+        boolean[] expected = new boolean[formula.size()];
+        boolean[] seen = new boolean[(int) formula.getRowCount()];
+        // Two separate ranges, as in the parallel evaluation
+        GrayCodeEvaluator.RowVisitor check = (row, values) -> {
+            formula.evaluateAll(row, expected);
+            assertArrayEquals(expected, values, "row " + row);
+            assertFalse(seen[(int) row]);
+            seen[(int) row] = true;
+        };
+        evaluator.walk(0, 37, check);
+        evaluator.walk(37, formula.getRowCount(), check);
+        for (boolean visited : seen) {
+            assertTrue(visited);
+        }
+        // a occurs in two independent parts, g only under ¬(b∧g)
+        assertTrue(evaluator.coneSize(formula.getVariables().indexOf("g"))
+                < evaluator.coneSize(formula.getVariables().indexOf("a")));
+    }
+
+    @Test
+    void compilesDeepFormulasWithoutDeepRecursion() {
+        int n = 150_000;
+        // a → (a → (… → a)): every level is a new node
+        CompiledFormula formula = CompiledFormula.compile("a → ".repeat(n - 1) + "a");
+        assertEquals(n, formula.size());
+        assertEquals(0, formula.getSubformulaDag().idOf("a"));
+        boolean[] values = new boolean[n];
+        formula.evaluateAll(0, values);
+        assertTrue(values[formula.getRoot()]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.licenta.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormulaCacheTest {
+
+    @Test
+    void sharesOneEntryPerFormulaText() {
+        FormulaCache cache = new FormulaCache(64);
+        ParsedFormula first = cache.get("a ∧ b");
+        assertSame(first, cache.get("a ∧ b"));
+        // Another spelling has its own headers, so it gets its own entry
+        assertNotSame(first, cache.get("a & b"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryOfASegment() {
+        // 16 segments of two entries each
+        FormulaCache cache = new FormulaCache(32);
+        List<String> sameSegment = formulasInOneSegment(3);
+        ParsedFormula kept = cache.get(sameSegment.get(0));
+        ParsedFormula dropped = cache.get(sameSegment.get(1));
+        cache.get(sameSegment.get(0));
+        cache.get(sameSegment.get(2));
+
+        assertEquals(1, cache.getEvictions());
+        assertSame(kept, cache.get(sameSegment.get(0)));
+        assertNotSame(dropped, cache.get(sameSegment.get(1)));
+    }
+
+    @Test
+    void staysWithinItsCapacity() {
+        FormulaCache cache = new FormulaCache(32);
+        for (int i = 0; i < 500; i++) {
+            cache.get("x" + i + " ∨ y");
+        }
+        assertTrue(cache.size() <= 32);
+        assertEquals(500 - cache.size(), cache.getEvictions());
+        assertEquals(500, cache.getMisses());
+    }
+
+    @Test
+    void concurrentRequestsShareTheCachedFormula() {
+        FormulaCache cache = new FormulaCache(64);
+        List<ParsedFormula> results = IntStream.range(0, 10_000).parallel()
+                .mapToObj(i -> cache.get("(p → q) ∧ (q → r) → (p → r)"))
+                .toList();
+        ParsedFormula expected = results.get(0);
+        assertTrue(results.stream().allMatch(parsed -> parsed == expected));
+        assertEquals(1, cache.size());
+        assertEquals(10_000, cache.getHits() + cache.getMisses());
+    }
+
+    // Formulas whose text hashes to the same segment, the way FormulaCache picks one
+    private static List<String> formulasInOneSegment(int count) {
+        List<String> formulas = new ArrayList<>();
+        for (int i = 0; formulas.size() < count; i++) {
+            String formula = "v" + i + " → w";
+            int h = formula.hashCode();
+            if (((h ^ h >>> 16) & 15) == 0) {
+                formulas.add(formula);
+            }
+        }
+        return formulas;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.licenta.logic;
+
+import com.example.licenta.parser.ParseResult;
+import com.example.licenta.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalFormConverterTest {
+
+    private final NormalFormConverter converter = new NormalFormConverter();
+
+    @Test
+    void convertsToEquivalentNormalForms() {
+        for (String formula : List.of("(A→B)↔¬(C∧A)", "¬((P∨Q)→(R↔P))", "(A∧B)∨(¬A∧C)∨(B∧C)", "A↔(B↔C)")) {
+            CompiledFormula original = CompiledFormula.compile(formula);
+            for (boolean cnf : new boolean[]{true, false}) {
+                String normal = converter.toNormalForm(formula, cnf);
+                CompiledFormula converted = CompiledFormula.compile(normal, original.getVariables());
+                for (long row = 0; row < original.getRowCount(); row++) {
+                    assertEquals(original.evaluate(row), converted.evaluate(row), formula + " -> " + normal);
+                }
+            }
+        }
+    }
+
+    @Test
+    void printsClausesWithoutSpaces() {
+        assertEquals("(¬A∨B)∧C", converter.toNormalForm("(A → B) ∧ C", true));
+        assertEquals("(¬A∨(B∧C))", converter.toNormalForm("A → (B ∧ C)", false));
+        assertEquals("1", converter.toNormalForm("A ∨ ¬A", true));
+        assertEquals("0", converter.toNormalForm("A ∧ ¬A", false));
+        assertThrows(IllegalArgumentException.class, () -> converter.toNormalForm("A ∧", true));
+    }
+
+    @Test
+    void distributesLazily() {
+        // (A0∧B0)∨…∨(A29∧B29) has 2^30 CNF clauses; the first ones are available without building the rest
+        StringBuilder formula = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            formula.append(i > 0 ? "∨" : "").append("(A").append(i).append("∧B").append(i).append(')');
+        }
+        ParseResult parsed = Parser.parse(formula.toString());
+        List<String> variables = new ArrayList<>(parsed.getVariables());
+        List<int[]> first = LogicalDistributivity.stream(parsed.getRoot(), true, variables).limit(3).toList();
+        assertEquals(3, first.size());
+        assertEquals(30, first.get(0).length);
+
+        ParseResult small = Parser.parse("(A∧B)∨(C∧¬A)");
+        assertEquals(3, LogicalDistributivity.stream(small.getRoot(), true,
+                new ArrayList<>(small.getVariables())).count());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.licenta.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TruthTableGeneratorTest {
+
+    @Test
+    void refusesOversizedTablesBeforeAllocatingThem() {
+        TruthTableGenerator generator = new TruthTableGenerator(0, Long.MAX_VALUE, 20);
+        // 2^30 rows: building any of them would take gigabytes
+        ParsedFormula formula = ParsedFormula.parse(
+                IntStream.range(0, 30).mapToObj(i -> "x" + i).collect(Collectors.joining(" ∨ ")));
+
+        IllegalArgumentException rows = assertThrows(IllegalArgumentException.class,
+                () -> generator.generateTruthTable(formula));
+        assertEquals("Too many rows: 2^30, at most 2^20", rows.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> generator.generateTruthTableIncremental(formula));
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.generateColumns(formula, formula.getHeaders()));
+
+        assertEquals(8, generator.generateTruthTable(ParsedFormula.parse("a ∧ (b ∨ c)")).size());
+    }
+}
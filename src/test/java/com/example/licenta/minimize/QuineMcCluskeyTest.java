@@ -0,0 +1,80 @@
+package com.example.licenta.minimize;
+
+import com.example.licenta.bdd.Bdd;
+import com.example.licenta.logic.CompiledFormula;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuineMcCluskeyTest {
+
+    @Test
+    void findsMinimalFormsOfKnownFunctions() {
+        // Majority of three: 4 minterms, 3 essential prime implicants
+        MinimalForm majority = QuineMcCluskey.minimize(CompiledFormula.compile(
+                "(a∧b∧c)∨(a∧b∧¬c)∨(a∧¬b∧c)∨(¬a∧b∧c)"), false);
+        assertEquals("(a ∧ b) ∨ (a ∧ c) ∨ (b ∧ c)", majority.toFormula());
+        assertEquals(3, majority.getCover().getEssential().size());
+
+        // Cyclic: six primes, none essential, two minimal covers of three terms
+        MinimalForm cyclic = QuineMcCluskey.minimize(CompiledFormula.compile(
+                "(¬a∧¬b∧¬c)∨(¬a∧¬b∧c)∨(¬a∧b∧c)∨(a∧b∧c)∨(a∧b∧¬c)∨(a∧¬b∧¬c)"), false);
+        assertEquals(6, cyclic.getPrimes().size());
+        assertTrue(cyclic.getCover().getEssential().isEmpty());
+        assertEquals(3, cyclic.getCover().getChosen().size());
+        assertTrue(cyclic.getCover().isExact());
+
+        assertEquals("(a ∨ c) ∧ (¬a ∨ b)", QuineMcCluskey.minimize(CompiledFormula.compile("(a→b)∧(¬a→c)"), true).toFormula());
+        assertEquals("1", QuineMcCluskey.minimize(CompiledFormula.compile("a∨¬a"), false).toFormula());
+        assertEquals("0", QuineMcCluskey.minimize(CompiledFormula.compile("a∧¬a"), false).toFormula());
+    }
+
+    @Test
+    void minimalFormsAreEquivalent() {
+        Random random = new Random(11);
+        List<String> names = List.of("a", "b", "c", "d", "e", "f", "g");
+        for (int round = 0; round < 60; round++) {
+            String formula = randomFormula(random, names, 5);
+            CompiledFormula compiled = CompiledFormula.compile(formula, names);
+            Bdd bdd = new Bdd(names);
+            int expected = bdd.build(compiled);
+            for (boolean cnf : new boolean[]{false, true}) {
+                MinimalForm minimal = QuineMcCluskey.minimize(compiled, cnf);
+                assertEquals(expected, bdd.build(CompiledFormula.compile(minimal.toFormula(), names)), formula);
+            }
+        }
+    }
+
+    @Test
+    void fourteenVariables() {
+        // Parity cannot be simplified: 2^13 prime implicants, all essential
+        StringBuilder parity = new StringBuilder("x0");
+        StringBuilder mixed = new StringBuilder("(x0∧x1)");
+        for (int i = 1; i < 14; i++) {
+            parity.append(" ↔ x").append(i);
+            if (i % 2 == 0) {
+                mixed.append("∨(x").append(i).append("∧¬x").append(i + 1).append(")");
+            }
+        }
+        MinimalForm minimal = QuineMcCluskey.minimize(CompiledFormula.compile(parity.toString()), false);
+        assertEquals(1 << 13, minimal.getCover().getChosen().size());
+        assertEquals(7, QuineMcCluskey.minimize(CompiledFormula.compile(mixed.toString()), false)
+                .getCover().getChosen().size());
+    }
+
+    private static String randomFormula(Random random, List<String> names, int depth) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            return names.get(random.nextInt(names.size()));
+        }
+        return switch (random.nextInt(5)) {
+            case 0 -> "¬" + randomFormula(random, names, depth - 1);
+            case 1 -> "(" + randomFormula(random, names, depth - 1) + "∧" + randomFormula(random, names, depth - 1) + ")";
+            case 2 -> "(" + randomFormula(random, names, depth - 1) + "∨" + randomFormula(random, names, depth - 1) + ")";
+            case 3 -> "(" + randomFormula(random, names, depth - 1) + "→" + randomFormula(random, names, depth - 1) + ")";
+            default -> "(" + randomFormula(random, names, depth - 1) + "↔" + randomFormula(random, names, depth - 1) + ")";
+        };
+    }
+}
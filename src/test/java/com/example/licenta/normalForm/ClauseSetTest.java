@@ -0,0 +1,63 @@
+package com.example.licenta.normalForm;
+
+import com.example.licenta.bdd.Bdd;
+import com.example.licenta.logic.CompiledFormula;
+import com.example.licenta.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClauseSetTest {
+
+    private final FormulaTransformer printer = new FormulaTransformer();
+
+    private String reduce(String formula) {
+        return printer.toFormulaString(ClauseSet.of(Parser.parse(formula).getRoot()).reduce().toNode());
+    }
+
+    @Test
+    void removesDuplicatesTautologiesAndSubsumedClauses() {
+        assertEquals("(c ∨ b) ∧ a", reduce("(c∨b)∧(a∨b)∧a∧(b∨c∨b)∧(d∨¬d∨e)"));
+        // Only a clause contained in another absorbs it
+        assertEquals("x ∧ (¬x ∨ y)", reduce("x∧(¬x∨y)"));
+        assertEquals("a ∨ b ∧ c", reduce("a∨(a∧d)∨(b∧c)∨(c∧b∧e)∨(f∧¬f)"));
+        assertEquals("0", reduce("a∧(b∨0)∧¬b"));
+        assertEquals("1", reduce("(a∨¬a)∧(b∨1)"));
+        assertNull(ClauseSet.of(Parser.parse("a∧(b→c)").getRoot()));
+    }
+
+    @Test
+    void reductionIsEquivalentAndScales() {
+        Random random = new Random(3);
+        List<String> names = List.of("a", "b", "c", "d", "e", "f", "g", "h");
+        for (int round = 0; round < 100; round++) {
+            StringBuilder cnf = new StringBuilder();
+            for (int i = 0; i < 12; i++) {
+                cnf.append(i == 0 ? "(" : "∧(");
+                for (int k = 0; k < 1 + random.nextInt(4); k++) {
+                    cnf.append(k == 0 ? "" : "∨").append(random.nextBoolean() ? "¬" : "").append(names.get(random.nextInt(names.size())));
+                }
+                cnf.append(')');
+            }
+            Bdd bdd = new Bdd(names);
+            String reduced = reduce(cnf.toString());
+            assertEquals(bdd.build(CompiledFormula.compile(cnf.toString(), names)),
+                    bdd.build(CompiledFormula.compile(reduced, names)), cnf.toString());
+        }
+
+        // 20000 clauses over 200 variables, every third one subsumed by a unit clause
+        Node big = NodeFactory.var("1");
+        for (int i = 0; i < 20000; i++) {
+            Node clause = NodeFactory.var("v" + (i % 200));
+            if (i % 3 != 0) {
+                clause = NodeFactory.or(clause, NodeFactory.not(NodeFactory.var("w" + i)));
+            }
+            big = NodeFactory.and(big, clause);
+        }
+        ClauseSet reduced = ClauseSet.of(big).reduce();
+        assertEquals(200, reduced.size());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.licenta.normalForm;
+
+import com.example.licenta.bdd.Bdd;
+import com.example.licenta.logic.CompiledFormula;
+import com.example.licenta.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostPlannerTest {
+
+    @Test
+    void estimateCountsDistributedClausesAndTerms() {
+        Node nnf = Parser.parse("(a∧b)∨(c∧d)∨(e∧f)").getRoot();
+        CostPlanner.Estimate estimate = CostPlanner.estimate(nnf);
+        assertEquals(8, estimate.getCnfClauses());
+        assertEquals(24, estimate.getCnfLiterals());
+        assertEquals(3, estimate.getDnfTerms());
+        assertEquals(6, estimate.getDnfLiterals());
+
+        // 2^70 clauses: the counts saturate instead of overflowing
+        StringBuilder big = new StringBuilder("(x0∧y0)");
+        for (int i = 1; i < 70; i++) {
+            big.append("∨(x").append(i).append("∧y").append(i).append(')');
+        }
+        assertEquals(Long.MAX_VALUE, CostPlanner.estimate(Parser.parse(big.toString()).getRoot()).getCnfClauses());
+    }
+
+    @Test
+    void planFallsBackWhenDistributionIsOverBudget() {
+        // Distribution gives 8 clauses, the BDD only a ∧ (b ∨ c ∨ d)
+        Node nnf = Parser.parse("(a∧b)∨(a∧c)∨(a∧d)").getRoot();
+        assertEquals(CostPlanner.Strategy.DISTRIBUTE, new CostPlanner(8, 100, 1000).plan(nnf, false).getStrategy());
+        assertEquals(CostPlanner.Strategy.REJECT, new CostPlanner(4, 100, 1000).plan(nnf, false).getStrategy());
+        assertEquals(CostPlanner.Strategy.TSEITIN, new CostPlanner(1, 100, 1000).plan(nnf, true).getStrategy());
+
+        CostPlanner.Plan plan = new CostPlanner(4, 100, 1000).plan(nnf, true);
+        assertEquals(CostPlanner.Strategy.BDD, plan.getStrategy());
+        Node cnf = CostPlanner.cnfFromBdd(plan.getBdd(), plan.getRoot());
+        assertEquals(2, PipelineMetrics.countConjuncts(cnf));
+
+        List<String> order = List.of("a", "b", "c", "d");
+        Bdd check = new Bdd(order);
+        String text = new FormulaTransformer().toFormulaString(cnf);
+        assertEquals(check.build(CompiledFormula.compile("(a∧b)∨(a∧c)∨(a∧d)", order)),
+                check.build(CompiledFormula.compile(text, order)));
+    }
+
+    @Test
+    void plansLongChainsWithoutDeepRecursion() {
+        int n = 150_000;
+        // a ∨ b ∨ a ∨ … : a single clause of n literals, or a ∨ b through the BDD
+        Node nnf = Parser.parse("a ∨ b ∨ ".repeat(n / 2 - 1) + "a ∨ b").getRoot();
+        CostPlanner.Estimate estimate = CostPlanner.estimate(nnf);
+        assertEquals(1, estimate.getCnfClauses());
+        assertEquals(n, estimate.getCnfLiterals());
+        assertEquals(n, estimate.getDnfTerms());
+
+        CostPlanner.Plan plan = new CostPlanner(1, 2, 1000).plan(nnf, true);
+        assertEquals(CostPlanner.Strategy.BDD, plan.getStrategy());
+        assertEquals(1, PipelineMetrics.countConjuncts(CostPlanner.cnfFromBdd(plan.getBdd(), plan.getRoot())));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.licenta.normalForm;
+
+import com.example.licenta.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeFactoryTest {
+
+    @Test
+    void returnsOneInstancePerStructure() {
+        Node a = NodeFactory.var("a");
+        Node b = NodeFactory.var("b");
+        assertSame(a, NodeFactory.var("a"));
+        assertSame(NodeFactory.and(a, NodeFactory.not(b)), NodeFactory.and(NodeFactory.var("a"), NodeFactory.not(b)));
+        assertSame(NodeFactory.iff(a, b), NodeFactory.of(NodeType.IFF, a, b));
+        assertSame(NodeFactory.not(a), NodeFactory.of(NodeType.NOT, a, b));
+
+        assertNotSame(NodeFactory.and(a, b), NodeFactory.and(b, a));
+        assertNotSame(NodeFactory.and(a, b), NodeFactory.or(a, b));
+        assertNotEquals(NodeFactory.implies(a, b), NodeFactory.implies(b, a));
+        assertThrows(IllegalArgumentException.class, () -> NodeFactory.of(NodeType.VAR, a, b));
+    }
+
+    @Test
+    void sharesRepeatedSubformulas() {
+        Node root = Parser.parse("(a ∨ b) ∧ ¬(a ∨ b)").getRoot();
+        assertSame(root.getLeft(), root.getRight().getLeft());
+        assertSame(root, Parser.parse("(a|b) & !(a|b)").getRoot());
+    }
+
+    @Test
+    void internsConsistentlyAcrossThreads() {
+        List<Node> built = IntStream.range(0, 10_000).parallel()
+                .mapToObj(i -> NodeFactory.or(NodeFactory.var("x" + i % 16),
+                        NodeFactory.and(NodeFactory.var("y"), NodeFactory.not(NodeFactory.var("x" + i % 16)))))
+                .toList();
+        for (int i = 0; i < built.size(); i++) {
+            assertSame(built.get(i % 16), built.get(i));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.licenta.normalForm;
+
+import com.example.licenta.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineMetricsTest {
+
+    @Test
+    void measuresSharedSubformulasOnce() {
+        Node root = Parser.parse("((a∨b)∧c)∧((a∨b)∧¬d)").getRoot();
+        assertEquals(9, PipelineMetrics.countNodes(root));
+        assertEquals(4, PipelineMetrics.depth(root));
+        assertEquals(4, PipelineMetrics.countConjuncts(root));
+    }
+
+    @Test
+    void measuresLongChainsWithoutDeepRecursion() {
+        int n = 150_000;
+        Node root = Parser.parse("a ∧ ".repeat(n - 1) + "b").getRoot();
+        assertEquals(n, PipelineMetrics.depth(root));
+        assertEquals(n, PipelineMetrics.countConjuncts(root));
+        assertEquals(n + 1, PipelineMetrics.countNodes(root));
+    }
+}
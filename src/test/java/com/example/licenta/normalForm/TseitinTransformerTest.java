@@ -0,0 +1,140 @@
+package com.example.licenta.normalForm;
+
+import com.example.licenta.parser.Parser;
+import com.example.licenta.sat.CdclSolver;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TseitinTransformerTest {
+
+    private static final NodeType[] BINARY = {NodeType.AND, NodeType.OR, NodeType.IMPLIES, NodeType.IFF};
+
+    private final FormulaTransformer transformer = new FormulaTransformer();
+    private final TseitinTransformer tseitin = new TseitinTransformer();
+
+    TseitinTransformerTest() {
+        ReflectionTestUtils.setField(transformer, "implicationTransformer", new ImplicationTransformer());
+        ReflectionTestUtils.setField(transformer, "negationTransformer", new NegationTransformer());
+        ReflectionTestUtils.setField(transformer, "distributionTransformer", new DistributionTransformer());
+        ReflectionTestUtils.setField(transformer, "simplificationTransformer", new SimplificationTransformer());
+    }
+
+    @Test
+    void encodingsAreEquisatisfiableWithTheDistributedCnf() {
+        Random random = new Random(11);
+        int satisfiable = 0;
+        for (int round = 0; round < 300; round++) {
+            Node formula = randomFormula(random, 4, 5);
+            if (round % 3 == 0) {
+                // Contradictions, so that both answers are exercised
+                formula = NodeFactory.and(formula, NodeFactory.not(formula));
+            }
+            Node nnf = transformer.pushNegations(transformer.eliminateImplications(formula));
+            boolean expected = solveCnf(transformer.smartDistribute(nnf));
+            satisfiable += expected ? 1 : 0;
+
+            for (boolean plaistedGreenbaum : new boolean[]{false, true}) {
+                CnfEncoding encoding = tseitin.toCnf(formula, plaistedGreenbaum);
+                CdclSolver solver = new CdclSolver(encoding.getVariableCount());
+                encoding.getClauses().forEach(solver::addClause);
+                assertEquals(expected, solver.solve(), transformer.toFormulaString(formula));
+                if (expected) {
+                    // The model restricted to the formula's own variables satisfies the formula
+                    Map<String, Boolean> model = new HashMap<>();
+                    for (int v = 1; v <= encoding.getOriginalVariableCount(); v++) {
+                        model.put(encoding.getName(v), solver.value(v));
+                    }
+                    assertTrue(evaluate(formula, model), transformer.toFormulaString(formula));
+                }
+            }
+        }
+        assertTrue(satisfiable > 50 && satisfiable < 250);
+    }
+
+    @Test
+    void sharedSubformulasGetOneDefinition() {
+        Node shared = NodeFactory.or(NodeFactory.var("a"), NodeFactory.var("b"));
+        Node formula = NodeFactory.and(NodeFactory.implies(shared, NodeFactory.var("c")),
+                NodeFactory.iff(shared, NodeFactory.var("c")));
+        CnfEncoding encoding = tseitin.toCnf(formula, false);
+        long definitions = encoding.getDefinitions().stream().filter(d -> d.getSubformula() == shared).count();
+        assertEquals(1, definitions);
+    }
+
+    @Test
+    void encodesLongChainsWithoutDeepRecursion() {
+        int n = 150_000;
+        StringBuilder disjunction = new StringBuilder("x0");
+        for (int i = 1; i < n; i++) {
+            disjunction.append(" ∨ x").append(i % 40);
+        }
+        // The chain both at the root and below a negation, where it gets an auxiliary variable
+        Node chain = Parser.parse(disjunction.toString()).getRoot();
+        Node formula = NodeFactory.and(chain, NodeFactory.not(NodeFactory.and(chain, NodeFactory.var("y"))));
+        for (boolean plaistedGreenbaum : new boolean[]{false, true}) {
+            CnfEncoding encoding = tseitin.toCnf(formula, plaistedGreenbaum);
+            assertEquals(41, encoding.getOriginalVariableCount());
+            CdclSolver solver = new CdclSolver(encoding.getVariableCount());
+            encoding.getClauses().forEach(solver::addClause);
+            assertTrue(solver.solve());
+            assertFalse(solver.value(encoding.getVariables().indexOf("y") + 1));
+        }
+    }
+
+    private static Node randomFormula(Random random, int depth, int variables) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            return NodeFactory.var(String.valueOf((char) ('a' + random.nextInt(variables))));
+        }
+        if (random.nextInt(5) == 0) {
+            return NodeFactory.not(randomFormula(random, depth - 1, variables));
+        }
+        return NodeFactory.of(BINARY[random.nextInt(BINARY.length)],
+                randomFormula(random, depth - 1, variables), randomFormula(random, depth - 1, variables));
+    }
+
+    // Solves a formula in CNF (a conjunction of disjunctions of literals) with the same solver
+    private static boolean solveCnf(Node cnf) {
+        Map<String, Integer> index = new HashMap<>();
+        List<int[]> clauses = new ArrayList<>();
+        for (Node clause : operands(cnf, NodeType.AND)) {
+            List<Node> literals = operands(clause, NodeType.OR);
+            int[] codes = new int[literals.size()];
+            for (int i = 0; i < codes.length; i++) {
+                Node literal = literals.get(i);
+                boolean negated = literal.getType() == NodeType.NOT;
+                Node variable = negated ? literal.getLeft() : literal;
+                assertEquals(NodeType.VAR, variable.getType(), "not a CNF");
+                int v = index.computeIfAbsent(variable.getValue(), name -> index.size() + 1);
+                codes[i] = negated ? -v : v;
+            }
+            clauses.add(codes);
+        }
+        CdclSolver solver = new CdclSolver(index.size());
+        clauses.forEach(solver::addClause);
+        return solver.solve();
+    }
+
+    private static List<Node> operands(Node node, NodeType type) {
+        if (node.getType() != type) {
+            return List.of(node);
+        }
+        List<Node> result = new ArrayList<>(operands(node.getLeft(), type));
+        result.addAll(operands(node.getRight(), type));
+        return result;
+    }
+
+    private static boolean evaluate(Node node, Map<String, Boolean> model) {
+        return switch (node.getType()) {
+            case VAR -> model.get(node.getValue());
+            case NOT -> !evaluate(node.getLeft(), model);
+            case AND -> evaluate(node.getLeft(), model) && evaluate(node.getRight(), model);
+            case OR -> evaluate(node.getLeft(), model) || evaluate(node.getRight(), model);
+            case IMPLIES -> !evaluate(node.getLeft(), model) || evaluate(node.getRight(), model);
+            case IFF -> evaluate(node.getLeft(), model) == evaluate(node.getRight(), model);
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.licenta.parser;
+
+import com.example.licenta.normalForm.Node;
+import com.example.licenta.normalForm.NodeFactory;
+import com.example.licenta.normalForm.NodeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParserTest {
+
+    @Test
+    void buildsTreeWithPrecedenceAndRightGrouping() {
+        ParseResult result = Parser.parse("¬a ∧ b -> c -> d");
+        assertTrue(result.isValid());
+        var a = NodeFactory.var("a");
+        var b = NodeFactory.var("b");
+        var c = NodeFactory.var("c");
+        var d = NodeFactory.var("d");
+        assertSame(NodeFactory.implies(NodeFactory.and(NodeFactory.not(a), b), NodeFactory.implies(c, d)),
+                result.getRoot());
+        assertEquals(List.of("a", "b", "c", "d"), List.copyOf(result.getVariables()));
+        assertEquals("!a&b>c>d", result.getNormalizedFormula());
+    }
+
+    @Test
+    void reportsTheFirstSyntaxError() {
+        assertDiagnostic("", 0, "Empty formula");
+        assertDiagnostic("(a ∧ b", 0, "Unclosed '('");
+        assertDiagnostic("a ∧ ∨ b", 4, "Missing operand before '∨'");
+        assertDiagnostic("a b", 2, "Expected an operator before 'b'");
+        assertDiagnostic("a ∧ b)", 5, "Unmatched ')'");
+        assertDiagnostic("a ∧ #", 4, "Unexpected character '#'");
+
+        ParseResult invalid = Parser.parse("(a → b");
+        assertNull(invalid.getRoot());
+        assertEquals("(a>b", invalid.getNormalizedFormula());
+        assertThrows(IllegalArgumentException.class, invalid::getRootOrThrow);
+    }
+
+    @Test
+    void recordsSubformulaSpans() {
+        ParseResult result = Parser.parse("(p ∨ q) ∧ ¬(p ∨ q)");
+        assertSame(result.getSpans().get("(p ∨ q)"), result.getRoot().getLeft());
+        assertSame(result.getSpans().get("p"), NodeFactory.var("p"));
+        assertSame(result.getSpans().get("(p ∨ q) ∧ ¬(p ∨ q)"), result.getRoot());
+    }
+
+    @Test
+    void isSafeToShareBetweenThreads() {
+        List<String> formulas = List.of("(a∧b)∨c", "a→(b↔¬c)", "((p|q)&!r)<->s", "x1 ∨ ¬x2 ∨ x3");
+        List<ParseResult> expected = formulas.stream().map(Parser::parse).toList();
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            int k = i % formulas.size();
+            ParseResult result = Parser.parse(formulas.get(k));
+            assertSame(expected.get(k).getRoot(), result.getRoot());
+            assertEquals(expected.get(k).getNormalizedFormula(), result.getNormalizedFormula());
+        });
+    }
+
+    @Test
+    void readsLongChainsWithoutDeepRecursion() {
+        int n = 150_000;
+        String conjunction = IntStream.range(0, n).mapToObj(i -> "x" + i).collect(Collectors.joining(" ∧ "));
+        ParseResult result = Parser.parse(conjunction + " → " + "¬".repeat(n) + "y");
+        assertTrue(result.isValid());
+        assertEquals(n + 1, result.getVariables().size());
+
+        Node implication = result.getRoot();
+        assertEquals(NodeType.IMPLIES, implication.getType());
+        Node node = implication.getLeft();
+        for (int i = 0; i < n - 1; i++) {
+            assertEquals(NodeType.AND, node.getType());
+            assertSame(NodeFactory.var("x" + i), node.getLeft());
+            node = node.getRight();
+        }
+        assertSame(NodeFactory.var("x" + (n - 1)), node);
+
+        node = implication.getRight();
+        for (int i = 0; i < n; i++) {
+            assertEquals(NodeType.NOT, node.getType());
+            node = node.getLeft();
+        }
+        assertSame(NodeFactory.var("y"), node);
+    }
+
+    private static void assertDiagnostic(String formula, int position, String message) {
+        ParseResult result = Parser.parse(formula);
+        assertFalse(result.isValid(), formula);
+        assertEquals(position, result.getDiagnostics().get(0).getPosition(), formula);
+        assertEquals(message, result.getDiagnostics().get(0).getMessage(), formula);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.licenta.sat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CdclSolverTest {
+
+    @Test
+    void findsModelsThatSatisfyEveryClause() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int variables = 3 + random.nextInt(10);
+            List<int[]> clauses = randomThreeSat(random, variables, (int) (variables * 4.2));
+            CdclSolver solver = new CdclSolver(variables);
+            clauses.forEach(solver::addClause);
+
+            boolean satisfiable = solver.solve();
+            assertEquals(bruteForce(variables, clauses), satisfiable);
+            if (satisfiable) {
+                for (int[] clause : clauses) {
+                    boolean satisfied = false;
+                    for (int lit : clause) {
+                        satisfied |= solver.value(Math.abs(lit)) == lit > 0;
+                    }
+                    assertTrue(satisfied);
+                }
+            }
+        }
+    }
+
+    @Test
+    void refutesPigeonhole() {
+        // 7 pigeons, 6 holes: p(i, j) = pigeon i sits in hole j
+        int pigeons = 7;
+        int holes = 6;
+        CdclSolver solver = new CdclSolver(pigeons * holes);
+        for (int i = 0; i < pigeons; i++) {
+            int[] somewhere = new int[holes];
+            for (int j = 0; j < holes; j++) somewhere[j] = i * holes + j + 1;
+            solver.addClause(somewhere);
+        }
+        for (int j = 0; j < holes; j++) {
+            for (int a = 0; a < pigeons; a++) {
+                for (int b = a + 1; b < pigeons; b++) {
+                    solver.addClause(-(a * holes + j + 1), -(b * holes + j + 1));
+                }
+            }
+        }
+        assertFalse(solver.solve());
+    }
+
+    @Test
+    void handlesUnitsAndEmptyClauses() {
+        CdclSolver solver = new CdclSolver(2);
+        solver.addClause(1);
+        solver.addClause(-1, 2);
+        assertTrue(solver.solve());
+        assertTrue(solver.value(1));
+        assertTrue(solver.value(2));
+
+        solver.addClause(-2);
+        assertFalse(solver.solve());
+    }
+
+    @Test
+    void solvesUnderAssumptionsWithoutKeepingThem() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            int variables = 3 + random.nextInt(10);
+            List<int[]> clauses = randomThreeSat(random, variables, (int) (variables * 3.5));
+            CdclSolver solver = new CdclSolver(variables);
+            clauses.forEach(solver::addClause);
+
+            for (int query = 0; query < 3; query++) {
+                int v = 1 + random.nextInt(variables);
+                int w = 1 + random.nextInt(variables);
+                int[] assumptions = {random.nextBoolean() ? v : -v, random.nextBoolean() ? w : -w};
+                List<int[]> withUnits = new ArrayList<>(clauses);
+                withUnits.add(new int[]{assumptions[0]});
+                withUnits.add(new int[]{assumptions[1]});
+
+                boolean satisfiable = solver.solve(assumptions);
+                assertEquals(bruteForce(variables, withUnits), satisfiable);
+                if (satisfiable) {
+                    for (int lit : assumptions) {
+                        assertEquals(lit > 0, solver.value(Math.abs(lit)));
+                    }
+                }
+            }
+            assertEquals(bruteForce(variables, clauses), solver.solve());
+        }
+    }
+
+    private static List<int[]> randomThreeSat(Random random, int variables, int count) {
+        List<int[]> clauses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int[] clause = new int[3];
+            for (int k = 0; k < 3; k++) {
+                int v = 1 + random.nextInt(variables);
+                clause[k] = random.nextBoolean() ? v : -v;
+            }
+            clauses.add(clause);
+        }
+        return clauses;
+    }
+
+    private static boolean bruteForce(int variables, List<int[]> clauses) {
+        for (long bits = 0; bits < 1L << variables; bits++) {
+            boolean all = true;
+            for (int[] clause : clauses) {
+                boolean any = false;
+                for (int lit : clause) {
+                    any |= ((bits >>> (Math.abs(lit) - 1) & 1) == 1) == lit > 0;
+                }
+                if (!any) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.licenta.sat;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DimacsTest {
+
+    @Test
+    void writesAndReadsBackClausesAndNames() throws IOException {
+        List<int[]> clauses = List.of(new int[]{1, -2}, new int[]{2, 3}, new int[]{-3});
+        StringWriter out = new StringWriter();
+        Dimacs.write(List.of("A", "B", "C"), clauses.size(), clauses.iterator(), out);
+        assertTrue(out.toString().startsWith("c 1 A\nc 2 B\nc 3 C\np cnf 3 3\n1 -2 0\n"));
+
+        List<int[]> read = new ArrayList<>();
+        Dimacs.Header header = Dimacs.read(stream(out + "%\n0\n"),
+                (literals, length) -> read.add(Arrays.copyOf(literals, length)));
+        assertEquals(3, header.getVariableCount());
+        assertEquals(3, header.getClauseCount());
+        assertEquals("B", header.getName(2));
+        for (int i = 0; i < clauses.size(); i++) {
+            assertArrayEquals(clauses.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> Dimacs.read(stream("p cnf 2\n1 0\n"), (l, n) -> { }));
+        assertThrows(IllegalArgumentException.class, () -> Dimacs.read(stream("p cnf 2 1\n1 -x 0\n"), (l, n) -> { }));
+        assertThrows(IllegalArgumentException.class, () -> Dimacs.read(stream("p cnf -2 1\n1 0\n"), (l, n) -> { }));
+        // Rejected while reading the header or the literal, before anything is allocated for them
+        assertThrows(IllegalArgumentException.class,
+                () -> new SatClassifier().classify(stream("p cnf 2000000000 0\n"), 1000));
+        assertThrows(IllegalArgumentException.class, () -> Dimacs.read(stream("1 -1001 0\n"), 1000, (l, n) -> { }));
+    }
+
+    @Test
+    void classifiesWithoutBuildingFormulas() throws IOException {
+        CnfClassification unsat = new SatClassifier().classify(stream("p cnf 2 3\n1 2 0\n-1 0\n-2 0\n"));
+        assertTrue(unsat.isContradiction());
+        assertArrayEquals(new int[]{-1, -2}, unsat.getFalsifyingAssignment());
+
+        CnfClassification valid = new SatClassifier().classify(stream("p cnf 5 1\n1 -1 0\n"));
+        assertTrue(valid.isTautology());
+        assertEquals(5, valid.getHeader().getVariableCount());
+        assertEquals(1, valid.getSatisfyingAssignment().length);
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.licenta.sat;
+
+import com.example.licenta.normalForm.Node;
+import com.example.licenta.normalForm.TseitinTransformer;
+import com.example.licenta.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SatClassifierTest {
+
+    private final SatClassifier classifier = new SatClassifier();
+
+    SatClassifierTest() {
+        ReflectionTestUtils.setField(classifier, "tseitinTransformer", new TseitinTransformer());
+    }
+
+    @Test
+    void comparesThroughTheMiter() {
+        assertTrue(classifier.compare(node("A → B"), node("¬A ∨ B")).isEquivalent());
+        assertTrue(classifier.compare(node("A ∨ 0"), node("A ∧ 1")).isEquivalent());
+
+        Equivalence converse = classifier.compare(node("A → B"), node("B → A"));
+        assertFalse(converse.isEquivalent());
+        assertFalse(converse.isFirstImpliesSecond());
+        assertFalse(converse.isSecondImpliesFirst());
+        Map<String, Boolean> counterexample = converse.getCounterexample();
+        assertNotEquals(counterexample.get("A"), counterexample.get("B"));
+        // A → B is true exactly unless A = 1 and B = 0
+        assertEquals(!(counterexample.get("A") && !counterexample.get("B")), converse.getFirstValue());
+
+        Equivalence stronger = classifier.compare(node("A ∧ B"), node("A ∨ C"));
+        assertTrue(stronger.isFirstImpliesSecond());
+        assertFalse(stronger.isSecondImpliesFirst());
+        assertFalse(stronger.getFirstValue());
+    }
+
+    @Test
+    void findsTheCounterexampleOfAWideRewrite() {
+        // De Morgan over 60 variables, with the negation of the last one forgotten on the right
+        StringJoiner and = new StringJoiner(" ∧ ", "¬(", ")");
+        StringJoiner or = new StringJoiner(" ∨ ");
+        for (int i = 1; i <= 60; i++) {
+            and.add("x" + i);
+            or.add(i < 60 ? "¬x" + i : "x" + i);
+        }
+        Equivalence result = classifier.compare(node(and.toString()), node(or.toString()));
+        assertFalse(result.isEquivalent());
+        Map<String, Boolean> counterexample = result.getCounterexample();
+        assertEquals(60, counterexample.size());
+        for (int i = 1; i < 60; i++) {
+            assertTrue(counterexample.get("x" + i));
+        }
+        // x60 = 0 leaves only the left side true, x60 = 1 only the right one
+        assertEquals(!counterexample.get("x60"), result.getFirstValue());
+    }
+
+    private static Node node(String formula) {
+        return Parser.parse(formula).getRootOrThrow();
+    }
+}